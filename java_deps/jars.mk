@@ -82,3 +82,10 @@ GOOGLE_EXTENSIONS_JAR = google-extensions-0.5.1.jar
 
 AUTOVALUE_JAR = auto-value-1.7.4.jar
 AUTOVALUE_ANNOTATIONS_JAR = auto-value-annotations-1.7.4.jar
+
+# Translator benchmarks
+JMH_CORE_JAR = jmh-core-1.37.jar
+JMH_GENERATOR_JAR = jmh-generator-annprocess-1.37.jar
+JOPT_SIMPLE_JAR = jopt-simple-5.0.4.jar
+COMMONS_MATH3_JAR = commons-math3-3.6.1.jar
+JMH_JARS = $(JMH_CORE_JAR) $(JMH_GENERATOR_JAR) $(JOPT_SIMPLE_JAR) $(COMMONS_MATH3_JAR)
@@ -222,6 +222,43 @@ jint JreIndexOfStr(NSString *str, NSString **values, jint size) {
   return -1;
 }
 
+// Computes the same value as java.lang.String.hashCode().
+static jint JavaStringHash(NSString *str) {
+  CFStringRef cfStr = (ARCBRIDGE CFStringRef)str;
+  CFIndex length = CFStringGetLength(cfStr);
+  CFStringInlineBuffer buffer;
+  CFStringInitInlineBuffer(cfStr, &buffer, CFRangeMake(0, length));
+  uint32_t hash = 0;
+  for (CFIndex i = 0; i < length; i++) {
+    hash = 31 * hash + CFStringGetCharacterFromInlineBuffer(&buffer, i);
+  }
+  return (jint)hash;
+}
+
+jint JreIndexOfStrHashed(NSString *str, NSString **values, const jint *hashes, jint size) {
+  if (!str) {
+    return -1;
+  }
+  jint hash = JavaStringHash(str);
+  jint low = 0;
+  jint high = size;
+  while (low < high) {
+    jint mid = (jint)(((uint32_t)low + (uint32_t)high) >> 1);
+    if (hashes[mid] < hash) {
+      low = mid + 1;
+    } else {
+      high = mid;
+    }
+  }
+  // Strings with colliding hash codes are adjacent.
+  for (jint i = low; i < size && hashes[i] == hash; i++) {
+    if ([str isEqualToString:values[i]]) {
+      return i;
+    }
+  }
+  return -1;
+}
+
 // Counts the number of object types in a string concatenation.
 static NSUInteger CountObjectArgs(const char *types) {
   NSUInteger numObjs = 0;
@@ -407,6 +444,21 @@ id JreStrAppendArray(JreArrayRef lhs, const char *types, ...) {
   return IOSObjectArray_SetRef(lhs, result);
 }
 
+void JreStrAppendBuilder(id sb, const char *types, ...) {
+  JreStringBuilder *delegate = &((JavaLangAbstractStringBuilder *)nil_chk(sb))->delegate_;
+  NSString *objDescriptions[CountObjectArgs(types)];
+  va_list va;
+  va_start(va, types);
+  jint capacity = ComputeCapacity(types, va, objDescriptions);
+  va_end(va);
+
+  // Grow the builder once for all of the arguments.
+  JreStringBuilder_ensureCapacity(delegate, delegate->count_ + capacity);
+  va_start(va, types);
+  AppendArgs(types, va, objDescriptions, delegate);
+  va_end(va);
+}
+
 FOUNDATION_EXPORT void JreRelease(id obj) {
   [obj release];
 }
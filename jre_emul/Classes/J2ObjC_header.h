@@ -27,6 +27,7 @@ id JreStrAppendStrong(__strong id *lhs, const char *types, ...);
 id JreStrAppendVolatile(volatile_id *lhs, const char *types, ...);
 id JreStrAppendVolatileStrong(volatile_id *lhs, const char *types, ...);
 id JreStrAppendArray(JreArrayRef lhs, const char *types, ...);
+void JreStrAppendBuilder(id sb, const char *types, ...);
 
 CF_EXTERN_C_END
 
@@ -118,6 +118,13 @@ typedef struct J2ObjcResourceDefinition {
   section("__DATA,__j2objcresource"))) = { QUOTE(BUF), BUF, LEN, HASH };
 
 FOUNDATION_EXPORT jint JreIndexOfStr(NSString *str, NSString **values, jint size);
+
+/*!
+ * Returns the index of str in values, which must be ordered by their Java
+ * hash codes as listed in hashes, or -1 if there is no match.
+ */
+FOUNDATION_EXPORT jint JreIndexOfStrHashed(
+    NSString *str, NSString **values, const jint *hashes, jint size);
 FOUNDATION_EXPORT NSString *JreEnumConstantName(IOSClass *enumClass, jint ordinal);
 
 /*!
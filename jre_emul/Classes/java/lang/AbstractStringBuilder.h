@@ -102,6 +102,7 @@ void JavaLangAbstractStringBuilder_initWithNSString_(
     JavaLangAbstractStringBuilder *self, NSString *string);
 
 void JreStringBuilder_initWithCapacity(JreStringBuilder *sb, jint capacity);
+void JreStringBuilder_ensureCapacity(JreStringBuilder *sb, jint min);
 
 void JreStringBuilder_appendNull(JreStringBuilder *sb);
 void JreStringBuilder_appendBuffer(JreStringBuilder *sb, const unichar *buffer, int length);
@@ -130,6 +130,10 @@ static void EnsureCapacity(JreStringBuilder *sb, jint size) {
   }
 }
 
+void JreStringBuilder_ensureCapacity(JreStringBuilder *sb, jint min) {
+  EnsureCapacity(sb, min);
+}
+
 void JreStringBuilder_appendNull(JreStringBuilder *sb) {
   jint newCount = sb->count_ + 4;
   EnsureCapacity(sb, newCount);
@@ -175,6 +175,37 @@ public class LambdaTest extends TestCase {
     assertEquals(s2.apply().apply(), 42);
   }
 
+  private static Lambdas.One<Integer, Integer> identity() {
+    return x -> x;
+  }
+
+  private static Lambdas.One<String, Integer> parser() {
+    return Integer::parseInt;
+  }
+
+  private static Lambdas.One<String, Integer> lengthGetter() {
+    return String::length;
+  }
+
+  private static Lambdas.Zero<Object> objectCreator() {
+    return Object::new;
+  }
+
+  private static Lambdas.Zero<Integer> adder(int i) {
+    return () -> i + 1;
+  }
+
+  // Non-capturing lambdas evaluate to the same instance every time, capturing ones don't.
+  public void testNonCapturingLambdaIdentity() {
+    assertSame(identity(), identity());
+    assertSame(parser(), parser());
+    assertSame(lengthGetter(), lengthGetter());
+    assertSame(objectCreator(), objectCreator());
+    assertNotSame(objectCreator().apply(), objectCreator().apply());
+    assertNotSame(adder(1), adder(1));
+    assertEquals((Integer) 2, adder(1).apply());
+  }
+
   // Tests outer reference resolution, and that inner fields are being correctly resolved for
   // lambdas with implicit blocks.
   public void testAdditionInLambda() {
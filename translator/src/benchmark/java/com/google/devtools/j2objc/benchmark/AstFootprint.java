@@ -0,0 +1,87 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.devtools.j2objc.benchmark;
+
+import com.google.devtools.j2objc.Options;
+import com.google.devtools.j2objc.ast.CompilationUnit;
+import com.google.devtools.j2objc.ast.TreeNode;
+import com.google.devtools.j2objc.ast.TreeVisitor;
+import com.google.devtools.j2objc.javac.JavacParser;
+import com.google.devtools.j2objc.pipeline.TranslationProcessor;
+import com.google.devtools.j2objc.util.TimeTracker;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Prints the heap retained by the corpus's ASTs, after conversion and after
+ * the translation passes, and the average per node. Run it before and after
+ * a change to the AST's representation to compare their footprints.
+ */
+public class AstFootprint {
+
+  public static void main(String[] args) throws IOException {
+    Options options = BenchmarkCorpus.loadOptions();
+    JavacParser parser = BenchmarkCorpus.createParser(options);
+    try {
+      JavacParser.AnalyzedFiles analyzedFiles =
+          parser.analyzeFiles(BenchmarkCorpus.sourcePaths());
+      BenchmarkCorpus.checkErrors();
+
+      long baseline = usedHeap();
+      List<CompilationUnit> units = new ArrayList<>();
+      analyzedFiles.convert((path, unit) -> units.add(unit));
+      print("Converted", usedHeap() - baseline, units);
+
+      for (CompilationUnit unit : units) {
+        TranslationProcessor.applyMutations(
+            unit, null, options.externalAnnotations(), TimeTracker.noop());
+      }
+      BenchmarkCorpus.checkErrors();
+      print("Translated", usedHeap() - baseline, units);
+    } finally {
+      parser.close();
+    }
+  }
+
+  private static void print(String stage, long bytes, List<CompilationUnit> units) {
+    long[] nodes = new long[1];
+    for (CompilationUnit unit : units) {
+      unit.accept(new TreeVisitor() {
+        @Override
+        public boolean preVisit(TreeNode node) {
+          nodes[0]++;
+          return true;
+        }
+      });
+    }
+    System.out.printf("%-10s %,14d bytes %,10d nodes %8.1f bytes/node\n",
+        stage, bytes, nodes[0], (double) bytes / nodes[0]);
+  }
+
+  private static long usedHeap() {
+    MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+    long used = Long.MAX_VALUE;
+    // A collection can leave some unreachable objects behind, so take the smallest
+    // heap seen over several collections.
+    for (int i = 0; i < 10; i++) {
+      memory.gc();
+      used = Math.min(used, memory.getHeapMemoryUsage().getUsed());
+    }
+    return used;
+  }
+}
@@ -0,0 +1,136 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.devtools.j2objc.benchmark;
+
+import com.google.common.io.Files;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compares JMH results with a baseline, both in JMH's CSV format, and exits
+ * with a non-zero status if any score regressed by more than a threshold.
+ * Scores are compared for time per operation, and for bytes allocated per
+ * operation as reported by the GC profiler.
+ * <p/>
+ * Usage: BaselineComparator baseline.csv results.csv [threshold-percent]
+ */
+public class BaselineComparator {
+
+  private static final double DEFAULT_THRESHOLD_PERCENT = 10;
+
+  public static void main(String[] args) throws IOException {
+    if (args.length < 2) {
+      System.err.println("usage: BaselineComparator baseline.csv results.csv [threshold-percent]");
+      System.exit(2);
+    }
+    File baselineFile = new File(args[0]);
+    if (!baselineFile.exists()) {
+      System.out.println("No benchmark baseline " + baselineFile
+          + ", run \"make benchmark-baseline\" to record one.");
+      return;
+    }
+    double threshold = args.length > 2 ? Double.parseDouble(args[2]) : DEFAULT_THRESHOLD_PERCENT;
+    Map<String, Double> baseline = readScores(baselineFile);
+    Map<String, Double> results = readScores(new File(args[1]));
+
+    int regressions = 0;
+    for (Map.Entry<String, Double> entry : results.entrySet()) {
+      Double baselineScore = baseline.get(entry.getKey());
+      if (baselineScore == null || baselineScore == 0) {
+        System.out.printf("%-80s %12.3f (new)\n", entry.getKey(), entry.getValue());
+        continue;
+      }
+      double change = (entry.getValue() - baselineScore) / baselineScore * 100;
+      boolean regressed = change > threshold;
+      if (regressed) {
+        regressions++;
+      }
+      System.out.printf("%-80s %12.3f %+7.1f%%%s\n", entry.getKey(), entry.getValue(), change,
+          regressed ? "  REGRESSION" : "");
+    }
+    if (regressions > 0) {
+      System.out.printf("%d scores regressed by more than %.1f%%\n", regressions, threshold);
+      System.exit(1);
+    }
+  }
+
+  /**
+   * Returns the scores of a JMH CSV file, keyed by benchmark, parameters and unit.
+   */
+  private static Map<String, Double> readScores(File file) throws IOException {
+    Map<String, Double> scores = new LinkedHashMap<>();
+    List<String> lines = Files.readLines(file, StandardCharsets.UTF_8);
+    if (lines.isEmpty()) {
+      return scores;
+    }
+    List<String> header = parseLine(lines.get(0));
+    int benchmarkColumn = header.indexOf("Benchmark");
+    int scoreColumn = header.indexOf("Score");
+    int unitColumn = header.indexOf("Unit");
+    for (String line : lines.subList(1, lines.size())) {
+      List<String> fields = parseLine(line);
+      if (fields.size() != header.size()) {
+        continue;
+      }
+      String unit = fields.get(unitColumn);
+      if (!unit.endsWith("/op")) {
+        // Skip rates, which depend on the benchmark's speed as well as its allocations.
+        continue;
+      }
+      StringBuilder key = new StringBuilder(fields.get(benchmarkColumn));
+      for (int i = 0; i < header.size(); i++) {
+        if (header.get(i).startsWith("Param: ")) {
+          key.append(' ').append(fields.get(i));
+        }
+      }
+      key.append(" (").append(unit).append(')');
+      try {
+        scores.put(key.toString(), Double.parseDouble(fields.get(scoreColumn)));
+      } catch (NumberFormatException e) {
+        // Unavailable score, such as NaN.
+      }
+    }
+    return scores;
+  }
+
+  private static List<String> parseLine(String line) {
+    List<String> fields = new ArrayList<>();
+    StringBuilder field = new StringBuilder();
+    boolean quoted = false;
+    for (int i = 0; i < line.length(); i++) {
+      char c = line.charAt(i);
+      if (c == '"') {
+        if (quoted && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+          field.append(c);
+          i++;
+        } else {
+          quoted = !quoted;
+        }
+      } else if (c == ',' && !quoted) {
+        fields.add(field.toString());
+        field.setLength(0);
+      } else {
+        field.append(c);
+      }
+    }
+    fields.add(field.toString());
+    return fields;
+  }
+}
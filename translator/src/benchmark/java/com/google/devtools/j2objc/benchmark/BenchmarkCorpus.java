@@ -0,0 +1,106 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.devtools.j2objc.benchmark;
+
+import com.google.common.base.Splitter;
+import com.google.devtools.j2objc.J2ObjC;
+import com.google.devtools.j2objc.Options;
+import com.google.devtools.j2objc.ast.CompilationUnit;
+import com.google.devtools.j2objc.javac.JavacParser;
+import com.google.devtools.j2objc.util.ErrorUtil;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The sources translated by the benchmarks, and the options they are
+ * translated with. The corpus is the directory named by the
+ * "j2objc.benchmark.corpus" system property, and the options are the j2objc
+ * flags in "j2objc.benchmark.flags", separated by spaces. The Makefile's
+ * benchmark target sets both.
+ */
+final class BenchmarkCorpus {
+
+  private static final String CORPUS_PROPERTY = "j2objc.benchmark.corpus";
+  private static final String FLAGS_PROPERTY = "j2objc.benchmark.flags";
+
+  private BenchmarkCorpus() {}
+
+  static Options loadOptions() throws IOException {
+    Options options = new Options();
+    List<String> flags = Splitter.on(' ').omitEmptyStrings().splitToList(
+        System.getProperty(FLAGS_PROPERTY, ""));
+    options.load(flags.toArray(new String[0]));
+    options.getHeaderMap().loadMappings();
+    return options;
+  }
+
+  /**
+   * Returns the paths of the corpus's sources, in a stable order.
+   */
+  static List<String> sourcePaths() {
+    String corpus = System.getProperty(CORPUS_PROPERTY);
+    if (corpus == null) {
+      throw new IllegalStateException(CORPUS_PROPERTY + " is not set");
+    }
+    List<String> paths = new ArrayList<>();
+    collectSources(new File(corpus), paths);
+    if (paths.isEmpty()) {
+      throw new IllegalStateException("no sources in " + corpus);
+    }
+    Collections.sort(paths);
+    return paths;
+  }
+
+  private static void collectSources(File file, List<String> paths) {
+    if (file.isDirectory()) {
+      File[] children = file.listFiles();
+      if (children != null) {
+        for (File child : children) {
+          collectSources(child, paths);
+        }
+      }
+    } else if (file.getName().endsWith(".java")) {
+      paths.add(file.getPath());
+    }
+  }
+
+  static JavacParser createParser(Options options) {
+    return (JavacParser) J2ObjC.createParser(options);
+  }
+
+  /**
+   * Parses and converts the corpus.
+   */
+  static List<CompilationUnit> parse(JavacParser parser, List<String> paths) {
+    List<CompilationUnit> units = new ArrayList<>();
+    parser.parseFiles(paths, (path, unit) -> units.add(unit),
+        parser.options().getSourceVersion());
+    checkErrors();
+    return units;
+  }
+
+  /**
+   * Fails the benchmark if the corpus didn't translate cleanly, since the
+   * results wouldn't be comparable.
+   */
+  static void checkErrors() {
+    if (ErrorUtil.errorCount() > 0) {
+      throw new IllegalStateException("corpus has errors: " + ErrorUtil.getErrorMessages());
+    }
+  }
+}
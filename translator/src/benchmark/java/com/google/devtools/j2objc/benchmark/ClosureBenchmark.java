@@ -0,0 +1,124 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.devtools.j2objc.benchmark;
+
+import com.google.devtools.j2objc.Options;
+import com.google.devtools.j2objc.ast.CompilationUnit;
+import com.google.devtools.j2objc.gen.GeneratedType;
+import com.google.devtools.j2objc.gen.GenerationUnit;
+import com.google.devtools.j2objc.javac.JavacParser;
+import com.google.devtools.j2objc.pipeline.DependencySnapshot;
+import com.google.devtools.j2objc.pipeline.TranslationProcessor;
+import com.google.devtools.j2objc.types.Import;
+import com.google.devtools.j2objc.util.TimeTracker;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares the two ways --build-closure can find an up-to-date source's
+ * dependencies: loading the dependency snapshots saved with
+ * -Xclosure-snapshots, or parsing the sources again. Parsing is only a lower
+ * bound, since finding the dependencies also needs the mutation passes and
+ * type generation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class ClosureBenchmark {
+
+  private Options options;
+  private JavacParser parser;
+  private List<String> paths;
+  private final List<String> typeNames = new ArrayList<>();
+  private final List<Set<String>> dependencies = new ArrayList<>();
+
+  @Setup
+  public void setUp() throws IOException {
+    options = BenchmarkCorpus.loadOptions();
+    parser = BenchmarkCorpus.createParser(options);
+    paths = BenchmarkCorpus.sourcePaths();
+    for (CompilationUnit unit : BenchmarkCorpus.parse(parser, paths)) {
+      TranslationProcessor.applyMutations(
+          unit, null, options.externalAnnotations(), TimeTracker.noop());
+      Set<String> names = new TreeSet<>();
+      for (GeneratedType type : GenerationUnit.generateTypes(unit)) {
+        addNames(type.getHeaderForwardDeclarations(), names);
+        addNames(type.getHeaderIncludes(), names);
+        addNames(type.getImplementationForwardDeclarations(), names);
+        addNames(type.getImplementationIncludes(), names);
+      }
+      String typeName = unit.getMainTypeName();
+      if (unit.getPackage() != null && !unit.getPackage().isDefaultPackage()) {
+        typeName = unit.getPackage().getName().getFullyQualifiedName() + "." + typeName;
+      }
+      typeNames.add(typeName);
+      dependencies.add(names);
+    }
+    BenchmarkCorpus.checkErrors();
+    saveSnapshots();
+    options.outputFileWriter().finish();
+  }
+
+  private static void addNames(Set<Import> imports, Set<String> names) {
+    for (Import imp : imports) {
+      if (imp.getJavaQualifiedName() != null) {
+        names.add(imp.getJavaQualifiedName());
+      }
+    }
+  }
+
+  @TearDown
+  public void tearDown() throws IOException {
+    parser.close();
+  }
+
+  @Benchmark
+  public void saveSnapshots() {
+    for (int i = 0; i < typeNames.size(); i++) {
+      DependencySnapshot.write(options, typeNames.get(i), dependencies.get(i));
+    }
+  }
+
+  @Benchmark
+  public void loadSnapshots(Blackhole blackhole) throws IOException {
+    for (String typeName : typeNames) {
+      blackhole.consume(DependencySnapshot.read(options, typeName));
+    }
+  }
+
+  @Benchmark
+  public void reparse(Blackhole blackhole) {
+    blackhole.consume(BenchmarkCorpus.parse(parser, paths));
+  }
+}
@@ -0,0 +1,96 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.devtools.j2objc.benchmark;
+
+import com.google.devtools.j2objc.Options;
+import com.google.devtools.j2objc.ast.CompilationUnit;
+import com.google.devtools.j2objc.gen.GenerationUnit;
+import com.google.devtools.j2objc.gen.ObjectiveCHeaderGenerator;
+import com.google.devtools.j2objc.gen.ObjectiveCImplementationGenerator;
+import com.google.devtools.j2objc.javac.JavacParser;
+import com.google.devtools.j2objc.pipeline.TranslationProcessor;
+import com.google.devtools.j2objc.util.TimeTracker;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the back end: generating the declarations of translated types, and
+ * writing the header and implementation files.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class GenerationBenchmark {
+
+  private final List<CompilationUnit> units = new ArrayList<>();
+  private final List<GenerationUnit> generationUnits = new ArrayList<>();
+
+  @Setup
+  public void setUp() throws IOException {
+    Options options = BenchmarkCorpus.loadOptions();
+    JavacParser parser = BenchmarkCorpus.createParser(options);
+    try {
+      units.addAll(BenchmarkCorpus.parse(parser, BenchmarkCorpus.sourcePaths()));
+      for (CompilationUnit unit : units) {
+        TranslationProcessor.applyMutations(
+            unit, null, options.externalAnnotations(), TimeTracker.noop());
+        GenerationUnit generationUnit = new GenerationUnit(unit.getSourceFilePath(), options);
+        generationUnit.incrementInputs();
+        generationUnit.addCompilationUnit(unit);
+        generationUnits.add(generationUnit);
+      }
+      BenchmarkCorpus.checkErrors();
+    } finally {
+      parser.close();
+    }
+  }
+
+  @Benchmark
+  public void generateTypes(Blackhole blackhole) {
+    for (CompilationUnit unit : units) {
+      blackhole.consume(GenerationUnit.generateTypes(unit));
+    }
+  }
+
+  @Benchmark
+  public void generateHeaders() {
+    for (GenerationUnit unit : generationUnits) {
+      ObjectiveCHeaderGenerator.generate(unit);
+    }
+  }
+
+  @Benchmark
+  public void generateImplementations() {
+    for (GenerationUnit unit : generationUnits) {
+      ObjectiveCImplementationGenerator.generate(unit);
+    }
+  }
+}
@@ -0,0 +1,153 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.devtools.j2objc.benchmark;
+
+import com.google.devtools.j2objc.Options;
+import com.google.devtools.j2objc.ast.CompilationUnit;
+import com.google.devtools.j2objc.javac.JavacParser;
+import com.google.devtools.j2objc.pipeline.TranslationProcessor;
+import com.google.devtools.j2objc.util.TimeTracker;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the passes of {@link TranslationProcessor#applyMutations}.
+ * <p/>
+ * Each run applies the passes in order up to and including {@code lastPass},
+ * to freshly converted units, so a pass's cost is the difference between its
+ * score and the score of the pass before it. Passes that depend on flags the
+ * corpus isn't translated with, such as DeadCodeEliminator, are not listed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class MutationBenchmark {
+
+  @Param({
+    "LambdaTypeElementAdder",
+    "ExternalAnnotationInjector",
+    "OuterReferenceResolver",
+    "GwtConverter",
+    "SerializationStripper+NumberMethodRewriter",
+    "ConstantBranchPruner",
+    "Rewriter",
+    "AbstractMethodRewriter",
+    "VariableRenamer",
+    "EnhancedForRewriter",
+    "LambdaRewriter",
+    "Autoboxer",
+    "InnerClassExtractor",
+    "DefaultMethodShimGenerator",
+    "InitializationNormalizer",
+    "NilCheckResolver",
+    "LabelRewriter",
+    "VarargsRewriter+JavaCloneWriter+OcniExtractor",
+    "PackageInfoRewriter",
+    "AnnotationRewriter+EnumRewriter+DestructorGenerator+MetadataWriter",
+    "JavaToIOSMethodTranslator",
+    "Functionizer",
+    "SuperMethodInvocationRewriter",
+    "OperatorRewriter",
+    "StaticVarRewriter",
+    "ArrayRewriter",
+    "SwitchRewriter",
+    "ComplexExpressionExtractor",
+    "CastResolver",
+    "PrivateDeclarationResolver"
+  })
+  public String lastPass;
+
+  private Options options;
+  private JavacParser parser;
+  private JavacParser.AnalyzedFiles analyzedFiles;
+  private List<CompilationUnit> units;
+
+  @Setup(Level.Trial)
+  public void setUp() throws IOException {
+    options = BenchmarkCorpus.loadOptions();
+    parser = BenchmarkCorpus.createParser(options);
+    analyzedFiles = parser.analyzeFiles(BenchmarkCorpus.sourcePaths());
+    BenchmarkCorpus.checkErrors();
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws IOException {
+    parser.close();
+  }
+
+  // The passes modify the units, so each run starts from a new conversion.
+  @Setup(Level.Invocation)
+  public void convert() {
+    units = new ArrayList<>();
+    analyzedFiles.convert((path, unit) -> units.add(unit));
+  }
+
+  @Benchmark
+  public List<CompilationUnit> applyMutations() {
+    for (CompilationUnit unit : units) {
+      try {
+        TranslationProcessor.applyMutations(
+            unit, null, options.externalAnnotations(), new StopAfter(lastPass));
+      } catch (StopAfter.PassReached e) {
+        // Expected, the remaining passes aren't measured.
+      }
+    }
+    return units;
+  }
+
+  /**
+   * Ends applyMutations when the specified pass has finished.
+   */
+  private static class StopAfter extends TimeTracker {
+
+    @SuppressWarnings("serial")
+    private static class PassReached extends RuntimeException {
+      private PassReached() {
+        super(null, null, false, false);
+      }
+    }
+
+    private final String pass;
+
+    private StopAfter(String pass) {
+      this.pass = pass;
+    }
+
+    @Override
+    public void tick(String event) {
+      if (event.equals(pass)) {
+        throw new PassReached();
+      }
+    }
+  }
+}
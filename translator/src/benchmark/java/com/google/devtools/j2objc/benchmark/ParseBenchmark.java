@@ -0,0 +1,80 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.devtools.j2objc.benchmark;
+
+import com.google.devtools.j2objc.Options;
+import com.google.devtools.j2objc.javac.JavacParser;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the front end: javac's parsing and analysis of the corpus, and
+ * {@link com.google.devtools.j2objc.javac.TreeConverter}'s conversion of the
+ * javac trees to j2objc's AST.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class ParseBenchmark {
+
+  private JavacParser parser;
+  private List<String> paths;
+  private JavacParser.AnalyzedFiles analyzedFiles;
+
+  @Setup
+  public void setUp() throws IOException {
+    Options options = BenchmarkCorpus.loadOptions();
+    parser = BenchmarkCorpus.createParser(options);
+    paths = BenchmarkCorpus.sourcePaths();
+    analyzedFiles = parser.analyzeFiles(paths);
+    BenchmarkCorpus.checkErrors();
+  }
+
+  @TearDown
+  public void tearDown() throws IOException {
+    parser.close();
+  }
+
+  @Benchmark
+  public JavacParser.AnalyzedFiles analyze() throws IOException {
+    return parser.analyzeFiles(paths);
+  }
+
+  @Benchmark
+  public void convert(Blackhole blackhole) {
+    analyzedFiles.convert((path, unit) -> blackhole.consume(unit));
+  }
+
+  @Benchmark
+  public void parseAndConvert(Blackhole blackhole) {
+    blackhole.consume(BenchmarkCorpus.parse(parser, paths));
+  }
+}
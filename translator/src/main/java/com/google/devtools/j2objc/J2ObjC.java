@@ -22,6 +22,7 @@ import com.google.devtools.j2objc.Options.TimingLevel;
 import com.google.devtools.j2objc.pipeline.GenerationBatch;
 import com.google.devtools.j2objc.pipeline.InputFilePreprocessor;
 import com.google.devtools.j2objc.pipeline.ProcessingContext;
+import com.google.devtools.j2objc.pipeline.TranslationCache;
 import com.google.devtools.j2objc.pipeline.TranslationProcessor;
 import com.google.devtools.j2objc.util.CodeReferenceMap;
 import com.google.devtools.j2objc.util.ErrorUtil;
@@ -59,14 +60,12 @@ public class J2ObjC {
         : "";
   }
 
-  private static void checkErrors(boolean treatWarningsAsErrors) {
+  private static int errorStatus(boolean treatWarningsAsErrors) {
     int errors = ErrorUtil.errorCount();
     if (treatWarningsAsErrors) {
       errors += ErrorUtil.warningCount();
     }
-    if (errors > 0) {
-      System.exit(errors);
-    }
+    return errors;
   }
 
   @VisibleForTesting
@@ -78,8 +77,8 @@ public class J2ObjC {
     return parser;
   }
 
-  private static CodeReferenceMap loadDeadCodeMap() {
-    return ProGuardUsageParser.parseDeadCodeFile(Options.getProGuardUsageFile());
+  private static CodeReferenceMap loadDeadCodeMap(Options options) {
+    return ProGuardUsageParser.parseDeadCodeFile(options.getProGuardUsageFile());
   }
 
   /**
@@ -111,6 +110,15 @@ public class J2ObjC {
         parser.addSourcepathEntry(preProcessorTempDir.getAbsolutePath());
       }
 
+      // Copy the outputs of unchanged sources from the translation cache.
+      TranslationCache cache = TranslationCache.create(options, inputs);
+      if (cache != null) {
+        inputs = cache.restore(inputs);
+        // The restored sources are no longer javac inputs, but may declare types that the
+        // remaining ones reference.
+        parser.addSourceRootsOf(cache.getRestoredSources());
+      }
+
       InputFilePreprocessor inputFilePreprocessor = new InputFilePreprocessor(parser);
       inputFilePreprocessor.processInputs(inputs);
       if (ErrorUtil.errorCount() > 0) {
@@ -123,15 +131,32 @@ public class J2ObjC {
 
       options.getHeaderMap().loadMappings();
       TranslationProcessor translationProcessor =
-          new TranslationProcessor(parser, loadDeadCodeMap());
+          new TranslationProcessor(parser, loadDeadCodeMap(options));
+      translationProcessor.setTranslationCache(cache);
       translationProcessor.processInputs(inputs);
       if (ErrorUtil.errorCount() > 0) {
         return;
       }
       translationProcessor.postProcess();
+      // The translation cache reads the outputs back.
+      options.outputFileWriter().finish();
+      if (options.timingLevel() != TimingLevel.NONE) {
+        options.outputFileWriter().printStatistics(System.out);
+      }
+      // Writer threads report failed writes, which must not be cached.
+      if (ErrorUtil.errorCount() > 0) {
+        return;
+      }
+      if (cache != null) {
+        cache.store(inputs);
+        if (options.timingLevel() != TimingLevel.NONE) {
+          cache.printStatistics(System.out);
+        }
+      }
 
       options.getHeaderMap().printMappings();
     } finally {
+      options.outputFileWriter().finish();
       if (parser != null) {
         try {
           parser.close();
@@ -149,15 +174,12 @@ public class J2ObjC {
   }
 
   /**
-   * Entry point for tool.
-   * Initializes {@link Options}, calls {@link #run}, and exits.
+   * Initializes {@link Options} from command-line arguments and calls {@link #run}.
    *
    * @param args command-line arguments: flags and source file names
+   * @return the tool's exit status, which is the number of errors reported
    */
-  public static void main(String[] args) {
-    if (args.length == 0) {
-      Options.help(true);
-    }
+  static int translate(String[] args) {
     long startTime = System.currentTimeMillis();
 
     List<String> files = null;
@@ -170,17 +192,47 @@ public class J2ObjC {
       }
     } catch (IOException e) {
       ErrorUtil.error(e.getMessage());
-      System.exit(1);
+      return 1;
     }
 
     run(files, options);
 
+    if (options.timingProfile() != null) {
+      try {
+        options.timingProfile().write();
+      } catch (IOException e) {
+        ErrorUtil.error("failed writing timing profile: " + e.getMessage());
+      }
+    }
+
     TimingLevel timingLevel = options.timingLevel();
     if (timingLevel == TimingLevel.TOTAL || timingLevel == TimingLevel.ALL) {
       System.out.printf("j2objc execution time: %d ms\n", System.currentTimeMillis() - startTime);
     }
 
-    // Run last, since it calls System.exit() with the number of errors.
-    checkErrors(options.treatWarningsAsErrors());
+    return errorStatus(options.treatWarningsAsErrors());
+  }
+
+  /**
+   * Entry point for tool.
+   * Translates the specified files and exits, or serves translation requests
+   * when the only argument is {@value J2ObjCWorker#WORKER_FLAG}.
+   *
+   * @param args command-line arguments: flags and source file names
+   */
+  public static void main(String[] args) {
+    if (args.length == 0) {
+      Options.help(true);
+    }
+    if (args.length == 1 && args[0].equals(J2ObjCWorker.WORKER_FLAG)) {
+      J2ObjCWorker.main();
+      return;
+    }
+
+    // Exit with the number of errors.
+    int errors = translate(args);
+    if (errors > 0) {
+      System.exit(errors);
+    }
   }
 }
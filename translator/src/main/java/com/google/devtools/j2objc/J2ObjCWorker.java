@@ -0,0 +1,156 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.devtools.j2objc;
+
+import com.google.common.base.Splitter;
+import com.google.devtools.j2objc.util.ErrorUtil;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serves translation requests in a long-running process, so that build tools
+ * that run many small translations only pay for JVM startup and the
+ * translator's static initialization once.
+ * <p/>
+ * Requests and responses are UTF-8 messages, each preceded by its length in
+ * bytes as a four-byte big-endian integer. A request's lines are an identifier
+ * chosen by the client, followed by j2objc's command-line arguments, one per
+ * line. A response's lines are the identifier of its request, the exit status
+ * j2objc would have returned, and the errors and warnings that were reported.
+ * <p/>
+ * Requests are served concurrently, each with its own {@link ErrorUtil}
+ * report, and responses are sent as requests finish, so they may arrive out of
+ * order. The worker exits after serving all requests once its input is closed.
+ * <p/>
+ * Options are scoped to their request, except for -v and -q, which are
+ * ignored: logging is shared by all requests, so it stays at the default level.
+ */
+class J2ObjCWorker {
+
+  static final String WORKER_FLAG = "-Xworker";
+
+  private final DataInputStream in;
+  private final DataOutputStream out;
+  private final ExecutorService executor;
+
+  J2ObjCWorker(InputStream in, OutputStream out, int numThreads) {
+    this.in = new DataInputStream(in);
+    this.out = new DataOutputStream(out);
+    this.executor = Executors.newFixedThreadPool(numThreads);
+    Options.setWorker();
+  }
+
+  /**
+   * Serves requests until the input is closed, then waits for the pending
+   * requests to finish.
+   */
+  void serve() throws IOException {
+    try {
+      String request;
+      while ((request = readMessage()) != null) {
+        String currentRequest = request;
+        executor.execute(() -> respond(currentRequest));
+      }
+    } finally {
+      executor.shutdown();
+      try {
+        executor.awaitTermination(Long.MAX_VALUE, TimeUnit.SECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  private String readMessage() throws IOException {
+    int length;
+    try {
+      length = in.readInt();
+    } catch (EOFException e) {
+      return null;
+    }
+    byte[] message = new byte[length];
+    in.readFully(message);
+    return new String(message, StandardCharsets.UTF_8);
+  }
+
+  private void respond(String request) {
+    List<String> lines = Splitter.on('\n').splitToList(request);
+    String id = lines.get(0);
+    List<String> args = new ArrayList<>();
+    for (String arg : lines.subList(1, lines.size())) {
+      if (!arg.isEmpty()) {
+        args.add(arg);
+      }
+    }
+
+    ByteArrayOutputStream messages = new ByteArrayOutputStream();
+    PrintStream errorStream = new PrintStream(messages, true, StandardCharsets.UTF_8);
+    int status;
+    ErrorUtil.startIsolatedReport(errorStream);
+    try {
+      status = J2ObjC.translate(args.toArray(new String[0]));
+    } catch (Options.ExitException e) {
+      errorStream.println(e.getMessage());
+      status = e.getStatus();
+    } catch (RuntimeException | Error e) {
+      ErrorUtil.fatalError(e, id);
+      status = 1;
+    } finally {
+      ErrorUtil.endIsolatedReport();
+    }
+    errorStream.flush();
+
+    try {
+      sendMessage(id + '\n' + status + '\n' + messages.toString(StandardCharsets.UTF_8));
+    } catch (IOException e) {
+      // The client is gone, so there is nobody left to report to.
+      System.err.println("j2objc worker: unable to send response: " + e.getMessage());
+    }
+  }
+
+  private void sendMessage(String message) throws IOException {
+    byte[] bytes = message.getBytes(StandardCharsets.UTF_8);
+    synchronized (out) {
+      out.writeInt(bytes.length);
+      out.write(bytes);
+      out.flush();
+    }
+  }
+
+  static void main() {
+    PrintStream stdout = System.out;
+    // Responses are written to stdout, so anything else the translator prints,
+    // such as timing results, goes to stderr.
+    System.setOut(System.err);
+    try {
+      new J2ObjCWorker(System.in, stdout, Runtime.getRuntime().availableProcessors()).serve();
+    } catch (IOException e) {
+      System.err.println("j2objc worker: " + e.getMessage());
+      System.exit(1);
+    }
+  }
+}
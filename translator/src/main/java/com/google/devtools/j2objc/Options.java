@@ -22,15 +22,22 @@ import com.google.common.collect.Sets;
 import com.google.common.io.Files;
 import com.google.common.io.Resources;
 import com.google.devtools.j2objc.gen.GenerationUnit;
+import com.google.devtools.j2objc.gen.LiteralReport;
+import com.google.devtools.j2objc.gen.OutputFileWriter;
+import com.google.devtools.j2objc.util.CodeReferenceMap;
 import com.google.devtools.j2objc.util.ErrorUtil;
 import com.google.devtools.j2objc.util.ExternalAnnotations;
 import com.google.devtools.j2objc.util.FileUtil;
 import com.google.devtools.j2objc.util.HeaderMap;
 import com.google.devtools.j2objc.util.Mappings;
+import com.google.devtools.j2objc.util.MetadataReport;
 import com.google.devtools.j2objc.util.NameTable;
+import com.google.devtools.j2objc.util.NilCheckReport;
 import com.google.devtools.j2objc.util.PackageInfoLookup;
 import com.google.devtools.j2objc.util.PackagePrefixes;
+import com.google.devtools.j2objc.util.ProGuardUsageParser;
 import com.google.devtools.j2objc.util.SourceVersion;
+import com.google.devtools.j2objc.util.TimingProfile;
 import com.google.devtools.j2objc.util.Version;
 import java.io.File;
 import java.io.FileFilter;
@@ -41,6 +48,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.EnumSet;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Properties;
@@ -94,28 +102,51 @@ public class Options {
   private boolean emitKytheMappings = false;
   private boolean emitSourceHeaders = true;
   private boolean injectLogSites = false;
+  private int numThreads = 1;
+  private int parseShards = 1;
+  private File translationCacheDir = null;
+  private long translationCacheSize = DEFAULT_TRANSLATION_CACHE_SIZE_MB * 1024 * 1024;
+  private TimingProfile timingProfile = null;
+  private NilCheckReport nilCheckReport = null;
+  private CodeReferenceMap effectivelyFinalMethods = null;
+  private CodeReferenceMap reflectedClasses = null;
+  private MetadataReport metadataReport = null;
+  private LiteralReport literalReport = null;
+  private boolean includeReport = false;
+  private boolean closureSnapshots = false;
+  private boolean writeIfChanged = false;
+  private int outputWriterThreads = 0;
+  private File outputZip = null;
+  private String expandedArgs = "";
 
   private Mappings mappings = new Mappings();
   private FileUtil fileUtil = new FileUtil();
+  private final OutputFileWriter outputFileWriter = new OutputFileWriter(this);
   private PackageInfoLookup packageInfoLookup = new PackageInfoLookup(fileUtil);
   private PackagePrefixes packagePrefixes = new PackagePrefixes(packageInfoLookup);
   private final ExternalAnnotations externalAnnotations = new ExternalAnnotations();
   private final List<String> entryClasses = new ArrayList<>();
+  private final Set<String> reservedNames = new HashSet<>();
+  // Files named by flags, whose contents affect the translation.
+  private final List<String> flagFiles = new ArrayList<>();
+  private int maxExpressionDepth = DEFAULT_MAX_EXPRESSION_DEPTH;
 
   private SourceVersion sourceVersion = null;
 
-  private static File proGuardUsageFile = null;
+  private File proGuardUsageFile = null;
 
-  private static String fileHeader;
+  // Only loaded once, so they are safely shared by worker requests.
+  private static final String fileHeader;
   private static final String FILE_HEADER_KEY = "file-header";
-  private static String usageMessage;
-  private static String helpMessage;
-  private static String xhelpMessage;
+  private static final String usageMessage;
+  private static final String helpMessage;
+  private static final String xhelpMessage;
   private static final String USAGE_MSG_KEY = "usage-message";
   private static final String HELP_MSG_KEY = "help-message";
   private static final String X_HELP_MSG_KEY = "x-help-message";
   private static final String XBOOTCLASSPATH = "-Xbootclasspath:";
   private static final String TIMING_INFO_ARG = "--timing-info";
+  private static final long DEFAULT_TRANSLATION_CACHE_SIZE_MB = 1024;
 
   private static final Pattern KNOWN_FILE_SUFFIX_PATTERN
       = Pattern.compile(".*\\.(java|class|jar|zip)");
@@ -137,6 +168,13 @@ public class Options {
   );
   private static final String BATCH_PROCESSING_MAX_FLAG = "--batch-translate-max=";
 
+  // The ObjC compiler tends to fail with roughly 100 chained method calls.
+  private static final int DEFAULT_MAX_EXPRESSION_DEPTH = 50;
+
+  // Set when serving requests with -Xworker, so that a request that would exit
+  // the translator, such as one with an invalid flag, doesn't end the process.
+  private static volatile boolean isWorker = false;
+
   /**
    * Types of memory management to be used by translated code.
    */
@@ -243,7 +281,7 @@ public class Options {
   private final List<String> platformModuleSystemOptions = new ArrayList<>();
 
   private static final Logger logger = Logger.getLogger("com.google.devtools.j2objc");
-  private boolean logLevelSet = false;
+  private Level logLevel = null;
 
   static {
     // Load string resources.
@@ -279,15 +317,27 @@ public class Options {
   }
 
   /**
-   * Set all log handlers in this package with a common level.
+   * Set all log handlers in this package with a common level. The loggers are
+   * shared by all worker requests, so a worker keeps the level it started with.
    */
   private void setLogLevel(Level level) {
-    logger.setLevel(level);
-    logLevelSet = true;
+    logLevel = level;
+    if (!isWorker) {
+      logger.setLevel(level);
+    }
   }
 
   public boolean isVerbose() {
-    return logger.getLevel().equals(Level.FINEST);
+    return logLevel.equals(Level.FINEST);
+  }
+
+  /**
+   * Makes the methods that would exit the process throw an {@link ExitException}
+   * instead, so that a worker keeps serving other requests.
+   */
+  static void setWorker() {
+    isWorker = true;
+    logger.setLevel(Level.WARNING);
   }
 
   /**
@@ -306,7 +356,7 @@ public class Options {
     ArgProcessor processor = new ArgProcessor();
     processor.processArgs(args);
     processor.logExpandedArgs(args);
-    if (!logLevelSet) {
+    if (logLevel == null) {
       setLogLevel(Level.WARNING);
     }
     postProcessArgs();
@@ -358,17 +408,21 @@ public class Options {
       } else if (arg.equals("-d")) {
         fileUtil.setOutputDirectory(new File(getArgValue(args, arg)));
       } else if (arg.equals("--mapping")) {
-        mappings.addMappingsFiles(getArgValue(args, arg).split(","));
+        String[] files = getArgValue(args, arg).split(",");
+        flagFiles.addAll(Arrays.asList(files));
+        mappings.addMappingsFiles(files);
       } else if (arg.equals("--header-mapping")) {
-        headerMap.setMappingFiles(getArgValue(args, arg));
+        String files = getArgValue(args, arg);
+        flagFiles.addAll(Arrays.asList(files.split(",")));
+        headerMap.setMappingFiles(files);
       } else if (arg.equals("--output-header-mapping")) {
         headerMap.setOutputMappingFile(new File(getArgValue(args, arg)));
       } else if (arg.equals("--dead-code-report")) {
-        proGuardUsageFile = new File(getArgValue(args, arg));
+        proGuardUsageFile = new File(addFlagFile(getArgValue(args, arg)));
       } else if (arg.equals("--prefix")) {
         addPrefixOption(getArgValue(args, arg));
       } else if (arg.equals("--prefixes")) {
-        packagePrefixes.addPrefixesFile(getArgValue(args, arg));
+        packagePrefixes.addPrefixesFile(addFlagFile(getArgValue(args, arg)));
       } else if (arg.equals("-x")) {
         String s = getArgValue(args, arg);
         if (s.equals("objective-c")) {
@@ -417,6 +471,54 @@ public class Options {
         } catch (IllegalArgumentException e) {
           usage("invalid --timing-info argument");
         }
+      } else if (arg.equals("-j") || arg.equals("--threads")) {
+        String s = getArgValue(args, arg);
+        try {
+          numThreads = Integer.parseInt(s);
+        } catch (NumberFormatException e) {
+          usage("invalid thread count: " + s);
+        }
+        if (numThreads < 1) {
+          usage("invalid thread count: " + s);
+        }
+      } else if (arg.equals("-Xparse-shards")) {
+        String s = getArgValue(args, arg);
+        try {
+          parseShards = Integer.parseInt(s);
+        } catch (NumberFormatException e) {
+          usage("invalid shard count: " + s);
+        }
+        if (parseShards < 1) {
+          usage("invalid shard count: " + s);
+        }
+      } else if (arg.equals("-Xtiming-profile")) {
+        timingProfile = new TimingProfile(new File(getArgValue(args, arg)));
+      } else if (arg.equals("-Xtranslation-cache")) {
+        translationCacheDir = new File(getArgValue(args, arg));
+      } else if (arg.equals("-Xtranslation-cache-size")) {
+        String s = getArgValue(args, arg);
+        try {
+          translationCacheSize = Long.parseLong(s) * 1024 * 1024;
+        } catch (NumberFormatException e) {
+          usage("invalid translation cache size: " + s);
+        }
+        if (translationCacheSize <= 0) {
+          usage("invalid translation cache size: " + s);
+        }
+      } else if (arg.equals("-Xwrite-if-changed")) {
+        writeIfChanged = true;
+      } else if (arg.equals("-Xoutput-writers")) {
+        String s = getArgValue(args, arg);
+        try {
+          outputWriterThreads = Integer.parseInt(s);
+        } catch (NumberFormatException e) {
+          usage("invalid output writer count: " + s);
+        }
+        if (outputWriterThreads < 0) {
+          usage("invalid output writer count: " + s);
+        }
+      } else if (arg.equals("-Xoutput-zip")) {
+        outputZip = new File(getArgValue(args, arg));
       } else if (arg.equals("-v") || arg.equals("--verbose")) {
         setLogLevel(Level.FINEST);
       } else if (arg.startsWith(XBOOTCLASSPATH)) {
@@ -425,6 +527,22 @@ public class Options {
         // TODO(tball): remove flag when all client builds stop using it.
       } else if (arg.equals("-Xno-jsni-warnings")) {
         jsniWarnings = false;
+      } else if (arg.equals("-Xeffectively-final-methods")) {
+        effectivelyFinalMethods = ProGuardUsageParser.parseDeadCodeFile(
+            new File(addFlagFile(getArgValue(args, arg))));
+      } else if (arg.equals("-Xnil-check-report")) {
+        nilCheckReport = new NilCheckReport();
+      } else if (arg.equals("-Xreflected-classes")) {
+        reflectedClasses = ProGuardUsageParser.parseDeadCodeFile(
+            new File(addFlagFile(getArgValue(args, arg))));
+      } else if (arg.equals("-Xmetadata-report")) {
+        metadataReport = new MetadataReport();
+      } else if (arg.equals("-Xliteral-report")) {
+        literalReport = new LiteralReport();
+      } else if (arg.equals("-Xinclude-report")) {
+        includeReport = true;
+      } else if (arg.equals("-Xclosure-snapshots")) {
+        closureSnapshots = true;
       } else if (arg.equals("-encoding")) {
         try {
           fileUtil.setFileEncoding(getArgValue(args, arg));
@@ -518,9 +636,9 @@ public class Options {
       } else if (arg.equals("-Xno-source-headers")) {
         emitSourceHeaders = false;
       } else if (arg.equals("-external-annotation-file")) {
-        addExternalAnnotationFile(getArgValue(args, arg));
+        addExternalAnnotationFile(addFlagFile(getArgValue(args, arg)));
       } else if (arg.equals("--reserved-names")) {
-        NameTable.addReservedNames(getArgValue(args, arg));
+        reservedNames.addAll(NameTable.loadReservedNames(addFlagFile(getArgValue(args, arg))));
       } else if (arg.equals("-version")) {
         version();
       } else if (arg.startsWith("-h") || arg.equals("--help")) {
@@ -556,6 +674,11 @@ public class Options {
       }
     }
 
+    private String addFlagFile(String file) {
+      flagFiles.add(file);
+      return file;
+    }
+
     private void logExpandedArgs(String[] args) throws IOException {
       StringBuilder sb = new StringBuilder();
       for (String arg : args) {
@@ -569,7 +692,8 @@ public class Options {
           sb.append(arg);
         }
       }
-      logger.fine(sb.toString());
+      expandedArgs = sb.toString();
+      logger.fine(expandedArgs);
     }
   }
 
@@ -596,6 +720,17 @@ public class Options {
           + "-XincludeGeneratedSources");
     }
 
+    // The translation cache copies outputs from, and into, the output directories.
+    if (outputZip != null && translationCacheDir != null) {
+      ErrorUtil.error("-Xoutput-zip is not supported with -Xtranslation-cache");
+    }
+
+    // Snapshots are read back from the header directory, next to the headers whose times
+    // --build-closure checks.
+    if (outputZip != null && closureSnapshots) {
+      ErrorUtil.error("-Xoutput-zip is not supported with -Xclosure-snapshots");
+    }
+
     // Entry classes are only allowed with --build-closure flag.
     if (!entryClasses.isEmpty() && !buildClosure) {
       ErrorUtil.error("entry class names can only be specified with --build-closure flag");
@@ -667,25 +802,47 @@ public class Options {
   }
 
   public static void usage(String invalidUseMsg) {
-    System.err.println("j2objc: " + invalidUseMsg);
-    System.err.println(usageMessage);
-    System.exit(1);
+    exit(1, "j2objc: " + invalidUseMsg + '\n' + usageMessage);
   }
 
   public static void help(boolean errorExit) {
-    System.err.println(helpMessage);
     // javac exits with 2, but any non-zero value works.
-    System.exit(errorExit ? 2 : 0);
+    exit(errorExit ? 2 : 0, helpMessage);
   }
 
   public static void xhelp() {
-    System.err.println(xhelpMessage);
-    System.exit(0);
+    exit(0, xhelpMessage);
   }
 
   public static void version() {
-    System.err.println("j2objc " + Version.jarVersion(Options.class));
-    System.exit(0);
+    exit(0, "j2objc " + Version.jarVersion(Options.class));
+  }
+
+  private static void exit(int status, String message) {
+    if (isWorker) {
+      throw new ExitException(status, message);
+    }
+    System.err.println(message);
+    System.exit(status);
+  }
+
+  /**
+   * Thrown in a worker instead of exiting, with the message that would have
+   * been printed and the exit status.
+   */
+  @SuppressWarnings("serial")
+  public static class ExitException extends RuntimeException {
+
+    private final int status;
+
+    private ExitException(int status, String message) {
+      super(message);
+      this.status = status;
+    }
+
+    public int getStatus() {
+      return status;
+    }
   }
 
   private List<String> getPathArgument(String argument, boolean expandAarFiles,
@@ -724,6 +881,10 @@ public class Options {
     return fileUtil;
   }
 
+  public OutputFileWriter outputFileWriter() {
+    return outputFileWriter;
+  }
+
   public boolean docCommentsEnabled() {
     return docCommentsEnabled;
   }
@@ -810,11 +971,11 @@ public class Options {
     return fileHeader;
   }
 
-  public static void setProGuardUsageFile(File newProGuardUsageFile) {
+  public void setProGuardUsageFile(File newProGuardUsageFile) {
     proGuardUsageFile = newProGuardUsageFile;
   }
 
-  public static File getProGuardUsageFile() {
+  public File getProGuardUsageFile() {
     return proGuardUsageFile;
   }
 
@@ -869,6 +1030,19 @@ public class Options {
     buildClosure = b;
   }
 
+  /**
+   * Whether --build-closure saves the dependencies of each translated type,
+   * to follow them when the type is later skipped as up to date.
+   */
+  public boolean closureSnapshots() {
+    return closureSnapshots;
+  }
+
+  @VisibleForTesting
+  public void setClosureSnapshots(boolean b) {
+    closureSnapshots = b;
+  }
+
   public boolean stripReflection() {
     return !includedMetadata.contains(MetadataSupport.FULL);
   }
@@ -1047,6 +1221,31 @@ public class Options {
     return externalAnnotations;
   }
 
+  /**
+   * Returns the names added with --reserved-names, in addition to the names
+   * that are always reserved.
+   */
+  public Set<String> reservedNames() {
+    return reservedNames;
+  }
+
+  /**
+   * Returns the files named by flags such as --mapping and --prefixes, whose
+   * contents affect the translation.
+   */
+  public List<String> flagFiles() {
+    return flagFiles;
+  }
+
+  public int maxExpressionDepth() {
+    return maxExpressionDepth;
+  }
+
+  @VisibleForTesting
+  public void setMaxExpressionDepth(int depth) {
+    maxExpressionDepth = depth;
+  }
+
   @VisibleForTesting
   public void addExternalAnnotationFile(String file) throws IOException {
     externalAnnotations.addExternalAnnotationFile(file);
@@ -1082,4 +1281,186 @@ public class Options {
   public void setInjectLogSites(boolean b) {
     injectLogSites = b;
   }
+
+  /**
+   * The number of worker threads used to translate compilation units. A value of one (the
+   * default) translates every unit on the calling thread. More threads are experimental:
+   * translation passes can still complete javac symbols concurrently.
+   */
+  public int numThreads() {
+    return numThreads;
+  }
+
+  @VisibleForTesting
+  public void setNumThreads(int n) {
+    numThreads = n;
+  }
+
+  /**
+   * The command-line arguments, with any @ files expanded.
+   */
+  public String expandedArgs() {
+    return expandedArgs;
+  }
+
+  /**
+   * The directory of the persistent translation cache, or null if it is disabled.
+   */
+  public File translationCacheDir() {
+    return translationCacheDir;
+  }
+
+  @VisibleForTesting
+  public void setTranslationCacheDir(File dir) {
+    translationCacheDir = dir;
+  }
+
+  /**
+   * The maximum size of the translation cache, in bytes.
+   */
+  public long translationCacheSize() {
+    return translationCacheSize;
+  }
+
+  @VisibleForTesting
+  public void setTranslationCacheSize(long size) {
+    translationCacheSize = size;
+  }
+
+  /**
+   * The maximum number of javac tasks a batch of sources is split into. Shards
+   * are analyzed concurrently.
+   */
+  public int parseShards() {
+    return parseShards;
+  }
+
+  @VisibleForTesting
+  public void setParseShards(int n) {
+    parseShards = n;
+  }
+
+  /**
+   * The profile that the timings of all sources are recorded into, or null if
+   * profiling wasn't requested.
+   */
+  public TimingProfile timingProfile() {
+    return timingProfile;
+  }
+
+  @VisibleForTesting
+  public void setTimingProfile(TimingProfile profile) {
+    timingProfile = profile;
+  }
+
+  /**
+   * Returns the report of how many nil_chk calls each source needed, and how
+   * many of them nullness inference removed, or null if it isn't requested.
+   */
+  public NilCheckReport nilCheckReport() {
+    return nilCheckReport;
+  }
+
+  @VisibleForTesting
+  public void setNilCheckReport(boolean b) {
+    nilCheckReport = b ? new NilCheckReport() : null;
+  }
+
+  /**
+   * The instance methods that no class in the program overrides, as listed by
+   * the tree shaker's --effectively-final-methods report, or null.
+   */
+  public CodeReferenceMap effectivelyFinalMethods() {
+    return effectivelyFinalMethods;
+  }
+
+  @VisibleForTesting
+  public void setEffectivelyFinalMethods(CodeReferenceMap methods) {
+    effectivelyFinalMethods = methods;
+  }
+
+  /**
+   * The classes whose methods, fields and annotations are accessed through
+   * reflection, or null if every class's members may be.
+   */
+  public CodeReferenceMap reflectedClasses() {
+    return reflectedClasses;
+  }
+
+  @VisibleForTesting
+  public void setReflectedClasses(CodeReferenceMap classes) {
+    reflectedClasses = classes;
+  }
+
+  /**
+   * Returns the report of each class's estimated reflection metadata size, or
+   * null if it isn't requested.
+   */
+  public MetadataReport metadataReport() {
+    return metadataReport;
+  }
+
+  @VisibleForTesting
+  public void setMetadataReport(boolean b) {
+    metadataReport = b ? new MetadataReport() : null;
+  }
+
+  /**
+   * Returns the report of how many string and selector literals each generated
+   * implementation file repeats, or null if it isn't requested.
+   */
+  public LiteralReport literalReport() {
+    return literalReport;
+  }
+
+  @VisibleForTesting
+  public void setLiteralReport(boolean b) {
+    literalReport = b ? new LiteralReport() : null;
+  }
+
+  /**
+   * Whether to print the direct and transitive includes of each generated
+   * header.
+   */
+  public boolean includeReport() {
+    return includeReport;
+  }
+
+  /**
+   * Whether to leave generated files whose contents haven't changed untouched.
+   */
+  public boolean writeIfChanged() {
+    return writeIfChanged;
+  }
+
+  @VisibleForTesting
+  public void setWriteIfChanged(boolean b) {
+    writeIfChanged = b;
+  }
+
+  /**
+   * The number of threads that write output files while translation
+   * continues, or 0 to write them on the translating threads.
+   */
+  public int outputWriterThreads() {
+    return outputWriterThreads;
+  }
+
+  @VisibleForTesting
+  public void setOutputWriterThreads(int n) {
+    outputWriterThreads = n;
+  }
+
+  /**
+   * The zip file that all output files are written into, or null to write
+   * them to the output directories.
+   */
+  public File outputZip() {
+    return outputZip;
+  }
+
+  @VisibleForTesting
+  public void setOutputZip(File file) {
+    outputZip = file;
+  }
 }
@@ -14,11 +14,13 @@
 
 package com.google.devtools.j2objc.ast;
 
+import com.google.common.base.Supplier;
+
 /**
  * A link between a parent and child node that allows for efficient swapping of
  * nodes and handles reparenting of the old and new node when setting a child.
  */
-class ChildLink<T extends TreeNode> {
+class ChildLink<T extends TreeNode> implements ChildOwner {
 
   private final Class<T> childType;
   private final TreeNode parent;
@@ -33,10 +35,12 @@ class ChildLink<T extends TreeNode> {
     return new ChildLink<T>(childType, parent);
   }
 
+  @Override
   public Class<T> getChildType() {
     return childType;
   }
 
+  @Override
   public TreeNode getParent() {
     return parent;
   }
@@ -50,10 +54,10 @@ class ChildLink<T extends TreeNode> {
       return;
     }
     if (child != null) {
-      child.setOwner(null);
+      child.setOwner(null, 0);
     }
     if (newChild != null) {
-      newChild.setOwner(this);
+      newChild.setOwner(this, 0);
     }
     child = newChild;
   }
@@ -70,6 +74,22 @@ class ChildLink<T extends TreeNode> {
     set((T) newChild);
   }
 
+  @Override
+  public void setChild(int index, TreeNode newChild) {
+    setDynamic(newChild);
+  }
+
+  @Override
+  public void replaceChild(int index, Supplier<? extends TreeNode> supplier) {
+    set(null);
+    setDynamic(supplier.get());
+  }
+
+  @Override
+  public void removeChild(int index) {
+    remove();
+  }
+
   @SuppressWarnings("unchecked")
   public void copyFrom(T other) {
     set(other != null ? (T) other.copy() : null);
@@ -14,19 +14,36 @@
 
 package com.google.devtools.j2objc.ast;
 
+import com.google.common.base.Supplier;
 import java.util.AbstractList;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 /**
  * List type for lists of child nodes. Nodes added or removed from a ChildList
  * are reparented appropriately.
+ * <p/>
+ * The nodes are stored in an array and keep their own index, so there is no
+ * per-child link object. Visiting the list iterates over the slots it had when
+ * the visit began: nodes added during the visit aren't visited, removed ones
+ * aren't visited if not reached yet, and a replaced node's replacement is
+ * visited in its place. Adding or removing nodes while the list is being
+ * visited copies the array, and the old array is kept up to date with
+ * replacements and removals until those visits finish.
  */
-class ChildList<T extends TreeNode> extends AbstractList<T> {
+class ChildList<T extends TreeNode> extends AbstractList<T> implements ChildOwner {
+
+  private static final TreeNode[] EMPTY = new TreeNode[0];
 
   private final Class<T> childType;
   private final TreeNode parent;
-  private ArrayListImpl<ChildLink<T>> delegate = new ArrayListImpl<>();
+  private TreeNode[] elements = EMPTY;
+  private int size = 0;
+  // The number of visits iterating over the current elements array.
+  private int visitCount = 0;
+  // Earlier elements arrays that visits are still iterating over.
+  private List<TreeNode[]> visitedArrays = null;
 
   public ChildList(Class<T> childType, TreeNode parent) {
     this.childType = childType;
@@ -38,38 +55,115 @@ class ChildList<T extends TreeNode> extends AbstractList<T> {
   }
 
   @Override
+  public TreeNode getParent() {
+    return parent;
+  }
+
+  @Override
+  public Class<T> getChildType() {
+    return childType;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
   public T get(int index) {
-    return delegate.get(index).get();
+    checkIndex(index, size);
+    return (T) elements[index];
   }
 
   @Override
   public int size() {
-    return delegate.size();
+    return size;
   }
 
   @Override
+  @SuppressWarnings("unchecked")
   public T set(int index, T node) {
-    ChildLink<T> link = delegate.get(index);
-    T oldNode = link.get();
-    link.set(node);
+    checkIndex(index, size);
+    T oldNode = (T) elements[index];
+    if (oldNode == node) {
+      return oldNode;
+    }
+    if (oldNode != null) {
+      oldNode.setOwner(null, 0);
+    }
+    if (node != null) {
+      node.setOwner(this, index);
+    }
+    elements[index] = node;
+    replaceInVisitedArrays(oldNode, node);
     return oldNode;
   }
 
   @Override
   public void add(int index, T node) {
-    ChildLink<T> link = new Link(childType, parent);
-    link.set(node);
-    modifiableDelegate().add(index, link);
+    checkIndex(index, size + 1);
+    if (node != null) {
+      node.setOwner(this, index);
+    }
+    TreeNode[] src = elements;
+    if (visitCount > 0 || size == src.length) {
+      TreeNode[] dest = new TreeNode[Math.max(size + 1, size + (size >> 1))];
+      System.arraycopy(src, 0, dest, 0, index);
+      System.arraycopy(src, index, dest, index + 1, size - index);
+      replaceElements(dest);
+    } else {
+      System.arraycopy(src, index, src, index + 1, size - index);
+    }
+    elements[index] = node;
+    size++;
+    updateIndexes(index + 1);
   }
 
   @Override
+  @SuppressWarnings("unchecked")
   public T remove(int index) {
-    ChildLink<T> link = modifiableDelegate().remove(index);
-    T node = link.get();
-    link.set(null);
+    checkIndex(index, size);
+    T node = (T) elements[index];
+    if (visitCount > 0) {
+      replaceElements(Arrays.copyOf(elements, elements.length));
+    }
+    System.arraycopy(elements, index + 1, elements, index, size - index - 1);
+    elements[--size] = null;
+    updateIndexes(index);
+    if (node != null) {
+      node.setOwner(null, 0);
+      replaceInVisitedArrays(node, null);
+    }
     return node;
   }
 
+  @Override
+  public void clear() {
+    for (int i = size - 1; i >= 0; i--) {
+      remove(i);
+    }
+  }
+
+  @Override
+  public void setChild(int index, TreeNode newChild) {
+    set(index, checkType(newChild));
+  }
+
+  @Override
+  public void replaceChild(int index, Supplier<? extends TreeNode> supplier) {
+    TreeNode oldNode = elements[index];
+    oldNode.setOwner(null, 0);
+    elements[index] = null;
+    T newNode = checkType(supplier.get());
+    assert elements[index] == null : "Siblings were added or removed during replacement.";
+    if (newNode != null) {
+      newNode.setOwner(this, index);
+    }
+    elements[index] = newNode;
+    replaceInVisitedArrays(oldNode, newNode);
+  }
+
+  @Override
+  public void removeChild(int index) {
+    remove(index);
+  }
+
   @SuppressWarnings("unchecked")
   public void copyFrom(List<T> other) {
     for (T elem : other) {
@@ -83,70 +177,79 @@ class ChildList<T extends TreeNode> extends AbstractList<T> {
   }
 
   public void accept(TreeVisitor visitor) {
-    if (!delegate.isEmpty()) {
-      ArrayListImpl<ChildLink<T>> childLinks = delegate;
-      childLinks.incrementCount();
-      for (ChildLink<?> link : childLinks) {
-        link.accept(visitor);
+    if (size == 0) {
+      return;
+    }
+    TreeNode[] visited = elements;
+    int visitedSize = size;
+    visitCount++;
+    for (int i = 0; i < visitedSize; i++) {
+      TreeNode child = visited[i];
+      if (child != null) {
+        child.accept(visitor);
       }
-      childLinks.decrementCount();
     }
-  }
-
-  @Override
-  public String toString() {
-    return delegate.toString();
-  }
-
-  /**
-   * Returns an ArrayListImpl that is safe to modify. If delegate.count does not equal to zero,
-   * returns a copy of delegate.
-   */
-  private ArrayListImpl<ChildLink<T>> modifiableDelegate() {
-    if (delegate.getCount() != 0) {
-      delegate = new ArrayListImpl<>(delegate);
+    if (visited == elements) {
+      visitCount--;
+    } else {
+      visitedArrays.remove(visited);
+      if (visitedArrays.isEmpty()) {
+        visitedArrays = null;
+      }
     }
-    return delegate;
   }
 
-  private class Link extends ChildLink<T> {
-
-    public Link(Class<T> childType, TreeNode parent) {
-      super(childType, parent);
-    }
+  @SuppressWarnings("unchecked")
+  private T checkType(TreeNode node) {
+    assert node == null || childType.isInstance(node)
+        : "Cannot assign node of type " + node.getClass().getName() + " to child of type "
+            + childType.getName();
+    return (T) node;
+  }
 
-    @Override
-    public void remove() {
-      super.remove();
-      modifiableDelegate().remove(this);
+  private static void checkIndex(int index, int limit) {
+    if (index < 0 || index >= limit) {
+      throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + (limit));
     }
   }
 
   /**
-   * Mutation-safe ArrayList. Increment count before iterating through the list and decrement count
-   * after iteration is complete. If count equals to zero, it's safe to mutate the list.
+   * Replaces the elements array with a copy. If the current array is being
+   * visited, it's kept so that the visits see replacements and removals.
    */
-  private static class ArrayListImpl<T> extends ArrayList<T> {
-    private int count = 0;
-
-    public ArrayListImpl() {
-      super();
-    }
-
-    public ArrayListImpl(ArrayListImpl<T> list) {
-      super(list);
+  private void replaceElements(TreeNode[] newElements) {
+    if (visitCount > 0) {
+      if (visitedArrays == null) {
+        visitedArrays = new ArrayList<>();
+      }
+      for (int i = 0; i < visitCount; i++) {
+        visitedArrays.add(elements);
+      }
+      visitCount = 0;
     }
+    elements = newElements;
+  }
 
-    public int getCount() {
-      return count;
+  private void replaceInVisitedArrays(TreeNode oldNode, TreeNode newNode) {
+    if (visitedArrays == null || oldNode == null) {
+      return;
     }
-
-    public void incrementCount() {
-      ++count;
+    for (TreeNode[] visited : visitedArrays) {
+      for (int i = 0; i < visited.length; i++) {
+        if (visited[i] == oldNode) {
+          visited[i] = newNode;
+          break;
+        }
+      }
     }
+  }
 
-    public void decrementCount() {
-      --count;
+  private void updateIndexes(int start) {
+    for (int i = start; i < size; i++) {
+      TreeNode node = elements[i];
+      if (node != null) {
+        node.setOwnerIndex(i);
+      }
     }
   }
 }
@@ -0,0 +1,41 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.devtools.j2objc.ast;
+
+import com.google.common.base.Supplier;
+
+/**
+ * The parent side of a child node's position in the tree: either a ChildLink,
+ * or a ChildList together with the index that the child node keeps.
+ */
+interface ChildOwner {
+
+  TreeNode getParent();
+
+  Class<?> getChildType();
+
+  /**
+   * Replaces the child at the specified index, which is ignored by ChildLink.
+   */
+  void setChild(int index, TreeNode newChild);
+
+  /**
+   * Detaches the child at the specified index, then replaces it with the
+   * supplied node. The supplier must not add or remove siblings of the child.
+   */
+  void replaceChild(int index, Supplier<? extends TreeNode> supplier);
+
+  void removeChild(int index);
+}
@@ -0,0 +1,1799 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.devtools.j2objc.ast;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Runs several visitors in a single traversal of a tree. Each node is visited
+ * by the visitors in the order they were given, and a visitor returning false
+ * from preVisit or visit only stops its own traversal of the node's children.
+ * A visitor is only called for the node types it overrides visit or endVisit
+ * for.
+ * <p/>
+ * This is equivalent to running the visitors one after the other when each
+ * one only reads and edits the node it is visiting and that node's subtree,
+ * and doesn't need to visit nodes that an earlier visitor adds in an endVisit.
+ * Passes are fused explicitly where that has been checked.
+ */
+public class FusedTreeVisitor extends TreeVisitor {
+
+  private static final ClassValue<VisitorInfo> VISITOR_INFO = new ClassValue<VisitorInfo>() {
+    @Override
+    protected VisitorInfo computeValue(Class<?> type) {
+      return new VisitorInfo(type);
+    }
+  };
+
+  private final TreeVisitor[] visitors;
+  private final VisitorInfo[] infos;
+  private final long preVisitors;
+  private final long postVisitors;
+  private final long[] kindMasks = new long[TreeNode.Kind.values().length];
+  private final boolean[] hasKindMask = new boolean[kindMasks.length];
+
+  // Bit masks of visitors, indexed by the depth of the node being visited:
+  // the visitors that traverse its children, that get its visit and endVisit
+  // calls, and that get its postVisit call.
+  private long[] children = new long[32];
+  private long[] calls = new long[32];
+  private long[] posts = new long[32];
+  private int depth = 0;
+
+  public FusedTreeVisitor(TreeVisitor... visitors) {
+    if (visitors.length > Long.SIZE) {
+      throw new IllegalArgumentException("Too many visitors: " + visitors.length);
+    }
+    this.visitors = visitors.clone();
+    infos = new VisitorInfo[visitors.length];
+    long pre = 0;
+    long post = 0;
+    for (int i = 0; i < visitors.length; i++) {
+      infos[i] = VISITOR_INFO.get(visitors[i].getClass());
+      if (infos[i].hasPreVisit) {
+        pre |= 1L << i;
+      }
+      if (infos[i].hasPostVisit) {
+        post |= 1L << i;
+      }
+    }
+    preVisitors = pre;
+    postVisitors = post;
+    children[0] = visitors.length == Long.SIZE ? -1L : (1L << visitors.length) - 1;
+  }
+
+  @Override
+  public boolean preVisit(TreeNode node) {
+    long parent = children[depth];
+    if (++depth == children.length) {
+      children = Arrays.copyOf(children, depth * 2);
+      calls = Arrays.copyOf(calls, depth * 2);
+      posts = Arrays.copyOf(posts, depth * 2);
+    }
+    long active = parent;
+    for (long m = parent & preVisitors; m != 0; m &= m - 1) {
+      int i = Long.numberOfTrailingZeros(m);
+      if (!visitors[i].preVisit(node)) {
+        active &= ~(1L << i);
+      }
+    }
+    children[depth] = active;
+    calls[depth] = active & kindMask(node);
+    posts[depth] = parent;
+    return active != 0;
+  }
+
+  @Override
+  public void postVisit(TreeNode node) {
+    for (long m = posts[depth] & postVisitors; m != 0; m &= m - 1) {
+      visitors[Long.numberOfTrailingZeros(m)].postVisit(node);
+    }
+    depth--;
+  }
+
+  private long kindMask(TreeNode node) {
+    int kind = node.getKind().ordinal();
+    if (!hasKindMask[kind]) {
+      long mask = 0;
+      for (int i = 0; i < infos.length; i++) {
+        if (infos[i].visits(node.getClass())) {
+          mask |= 1L << i;
+        }
+      }
+      kindMasks[kind] = mask;
+      hasKindMask[kind] = true;
+    }
+    return kindMasks[kind];
+  }
+
+  private void prune(int i) {
+    children[depth] &= ~(1L << i);
+  }
+
+  private boolean descends() {
+    return children[depth] != 0;
+  }
+
+  /**
+   * The node types a visitor class overrides visit or endVisit for, and
+   * whether it overrides preVisit or postVisit.
+   */
+  private static class VisitorInfo {
+
+    private final List<Class<?>> nodeTypes = new ArrayList<>();
+    private boolean hasPreVisit = false;
+    private boolean hasPostVisit = false;
+
+    private VisitorInfo(Class<?> type) {
+      for (Class<?> c = type; c != TreeVisitor.class; c = c.getSuperclass()) {
+        for (Method method : c.getDeclaredMethods()) {
+          if (method.getParameterCount() != 1 || Modifier.isStatic(method.getModifiers())) {
+            continue;
+          }
+          Class<?> paramType = method.getParameterTypes()[0];
+          switch (method.getName()) {
+            case "visit":
+            case "endVisit":
+              if (TreeNode.class.isAssignableFrom(paramType)) {
+                nodeTypes.add(paramType);
+              }
+              break;
+            case "preVisit":
+              hasPreVisit |= paramType == TreeNode.class;
+              break;
+            case "postVisit":
+              hasPostVisit |= paramType == TreeNode.class;
+              break;
+            default:
+              break;
+          }
+        }
+      }
+    }
+
+    private boolean visits(Class<?> nodeType) {
+      for (Class<?> type : nodeTypes) {
+        if (type.isAssignableFrom(nodeType)) {
+          return true;
+        }
+      }
+      return false;
+    }
+  }
+
+  @Override
+  public boolean visit(AnnotationTypeDeclaration node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      int i = Long.numberOfTrailingZeros(m);
+      if (!visitors[i].visit(node)) {
+        prune(i);
+      }
+    }
+    return descends();
+  }
+
+  @Override
+  public void endVisit(AnnotationTypeDeclaration node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      visitors[Long.numberOfTrailingZeros(m)].endVisit(node);
+    }
+  }
+
+  @Override
+  public boolean visit(AnnotationTypeMemberDeclaration node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      int i = Long.numberOfTrailingZeros(m);
+      if (!visitors[i].visit(node)) {
+        prune(i);
+      }
+    }
+    return descends();
+  }
+
+  @Override
+  public void endVisit(AnnotationTypeMemberDeclaration node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      visitors[Long.numberOfTrailingZeros(m)].endVisit(node);
+    }
+  }
+
+  @Override
+  public boolean visit(ArrayAccess node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      int i = Long.numberOfTrailingZeros(m);
+      if (!visitors[i].visit(node)) {
+        prune(i);
+      }
+    }
+    return descends();
+  }
+
+  @Override
+  public void endVisit(ArrayAccess node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      visitors[Long.numberOfTrailingZeros(m)].endVisit(node);
+    }
+  }
+
+  @Override
+  public boolean visit(ArrayCreation node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      int i = Long.numberOfTrailingZeros(m);
+      if (!visitors[i].visit(node)) {
+        prune(i);
+      }
+    }
+    return descends();
+  }
+
+  @Override
+  public void endVisit(ArrayCreation node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      visitors[Long.numberOfTrailingZeros(m)].endVisit(node);
+    }
+  }
+
+  @Override
+  public boolean visit(ArrayInitializer node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      int i = Long.numberOfTrailingZeros(m);
+      if (!visitors[i].visit(node)) {
+        prune(i);
+      }
+    }
+    return descends();
+  }
+
+  @Override
+  public void endVisit(ArrayInitializer node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      visitors[Long.numberOfTrailingZeros(m)].endVisit(node);
+    }
+  }
+
+  @Override
+  public boolean visit(ArrayType node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      int i = Long.numberOfTrailingZeros(m);
+      if (!visitors[i].visit(node)) {
+        prune(i);
+      }
+    }
+    return descends();
+  }
+
+  @Override
+  public void endVisit(ArrayType node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      visitors[Long.numberOfTrailingZeros(m)].endVisit(node);
+    }
+  }
+
+  @Override
+  public boolean visit(AssertStatement node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      int i = Long.numberOfTrailingZeros(m);
+      if (!visitors[i].visit(node)) {
+        prune(i);
+      }
+    }
+    return descends();
+  }
+
+  @Override
+  public void endVisit(AssertStatement node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      visitors[Long.numberOfTrailingZeros(m)].endVisit(node);
+    }
+  }
+
+  @Override
+  public boolean visit(Assignment node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      int i = Long.numberOfTrailingZeros(m);
+      if (!visitors[i].visit(node)) {
+        prune(i);
+      }
+    }
+    return descends();
+  }
+
+  @Override
+  public void endVisit(Assignment node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      visitors[Long.numberOfTrailingZeros(m)].endVisit(node);
+    }
+  }
+
+  @Override
+  public boolean visit(Block node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      int i = Long.numberOfTrailingZeros(m);
+      if (!visitors[i].visit(node)) {
+        prune(i);
+      }
+    }
+    return descends();
+  }
+
+  @Override
+  public void endVisit(Block node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      visitors[Long.numberOfTrailingZeros(m)].endVisit(node);
+    }
+  }
+
+  @Override
+  public boolean visit(BlockComment node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      int i = Long.numberOfTrailingZeros(m);
+      if (!visitors[i].visit(node)) {
+        prune(i);
+      }
+    }
+    return descends();
+  }
+
+  @Override
+  public void endVisit(BlockComment node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      visitors[Long.numberOfTrailingZeros(m)].endVisit(node);
+    }
+  }
+
+  @Override
+  public boolean visit(BooleanLiteral node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      int i = Long.numberOfTrailingZeros(m);
+      if (!visitors[i].visit(node)) {
+        prune(i);
+      }
+    }
+    return descends();
+  }
+
+  @Override
+  public void endVisit(BooleanLiteral node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      visitors[Long.numberOfTrailingZeros(m)].endVisit(node);
+    }
+  }
+
+  @Override
+  public boolean visit(BreakStatement node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      int i = Long.numberOfTrailingZeros(m);
+      if (!visitors[i].visit(node)) {
+        prune(i);
+      }
+    }
+    return descends();
+  }
+
+  @Override
+  public void endVisit(BreakStatement node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      visitors[Long.numberOfTrailingZeros(m)].endVisit(node);
+    }
+  }
+
+  @Override
+  public boolean visit(CStringLiteral node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      int i = Long.numberOfTrailingZeros(m);
+      if (!visitors[i].visit(node)) {
+        prune(i);
+      }
+    }
+    return descends();
+  }
+
+  @Override
+  public void endVisit(CStringLiteral node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      visitors[Long.numberOfTrailingZeros(m)].endVisit(node);
+    }
+  }
+
+  @Override
+  public boolean visit(CastExpression node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      int i = Long.numberOfTrailingZeros(m);
+      if (!visitors[i].visit(node)) {
+        prune(i);
+      }
+    }
+    return descends();
+  }
+
+  @Override
+  public void endVisit(CastExpression node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      visitors[Long.numberOfTrailingZeros(m)].endVisit(node);
+    }
+  }
+
+  @Override
+  public boolean visit(CatchClause node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      int i = Long.numberOfTrailingZeros(m);
+      if (!visitors[i].visit(node)) {
+        prune(i);
+      }
+    }
+    return descends();
+  }
+
+  @Override
+  public void endVisit(CatchClause node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      visitors[Long.numberOfTrailingZeros(m)].endVisit(node);
+    }
+  }
+
+  @Override
+  public boolean visit(CharacterLiteral node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      int i = Long.numberOfTrailingZeros(m);
+      if (!visitors[i].visit(node)) {
+        prune(i);
+      }
+    }
+    return descends();
+  }
+
+  @Override
+  public void endVisit(CharacterLiteral node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      visitors[Long.numberOfTrailingZeros(m)].endVisit(node);
+    }
+  }
+
+  @Override
+  public boolean visit(ClassInstanceCreation node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      int i = Long.numberOfTrailingZeros(m);
+      if (!visitors[i].visit(node)) {
+        prune(i);
+      }
+    }
+    return descends();
+  }
+
+  @Override
+  public void endVisit(ClassInstanceCreation node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      visitors[Long.numberOfTrailingZeros(m)].endVisit(node);
+    }
+  }
+
+  @Override
+  public boolean visit(CommaExpression node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      int i = Long.numberOfTrailingZeros(m);
+      if (!visitors[i].visit(node)) {
+        prune(i);
+      }
+    }
+    return descends();
+  }
+
+  @Override
+  public void endVisit(CommaExpression node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      visitors[Long.numberOfTrailingZeros(m)].endVisit(node);
+    }
+  }
+
+  @Override
+  public boolean visit(CompilationUnit node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      int i = Long.numberOfTrailingZeros(m);
+      if (!visitors[i].visit(node)) {
+        prune(i);
+      }
+    }
+    return descends();
+  }
+
+  @Override
+  public void endVisit(CompilationUnit node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      visitors[Long.numberOfTrailingZeros(m)].endVisit(node);
+    }
+  }
+
+  @Override
+  public boolean visit(ConditionalExpression node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      int i = Long.numberOfTrailingZeros(m);
+      if (!visitors[i].visit(node)) {
+        prune(i);
+      }
+    }
+    return descends();
+  }
+
+  @Override
+  public void endVisit(ConditionalExpression node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      visitors[Long.numberOfTrailingZeros(m)].endVisit(node);
+    }
+  }
+
+  @Override
+  public boolean visit(ConstructorInvocation node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      int i = Long.numberOfTrailingZeros(m);
+      if (!visitors[i].visit(node)) {
+        prune(i);
+      }
+    }
+    return descends();
+  }
+
+  @Override
+  public void endVisit(ConstructorInvocation node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      visitors[Long.numberOfTrailingZeros(m)].endVisit(node);
+    }
+  }
+
+  @Override
+  public boolean visit(ContinueStatement node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      int i = Long.numberOfTrailingZeros(m);
+      if (!visitors[i].visit(node)) {
+        prune(i);
+      }
+    }
+    return descends();
+  }
+
+  @Override
+  public void endVisit(ContinueStatement node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      visitors[Long.numberOfTrailingZeros(m)].endVisit(node);
+    }
+  }
+
+  @Override
+  public boolean visit(CreationReference node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      int i = Long.numberOfTrailingZeros(m);
+      if (!visitors[i].visit(node)) {
+        prune(i);
+      }
+    }
+    return descends();
+  }
+
+  @Override
+  public void endVisit(CreationReference node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      visitors[Long.numberOfTrailingZeros(m)].endVisit(node);
+    }
+  }
+
+  @Override
+  public boolean visit(DoStatement node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      int i = Long.numberOfTrailingZeros(m);
+      if (!visitors[i].visit(node)) {
+        prune(i);
+      }
+    }
+    return descends();
+  }
+
+  @Override
+  public void endVisit(DoStatement node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      visitors[Long.numberOfTrailingZeros(m)].endVisit(node);
+    }
+  }
+
+  @Override
+  public boolean visit(EmptyStatement node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      int i = Long.numberOfTrailingZeros(m);
+      if (!visitors[i].visit(node)) {
+        prune(i);
+      }
+    }
+    return descends();
+  }
+
+  @Override
+  public void endVisit(EmptyStatement node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      visitors[Long.numberOfTrailingZeros(m)].endVisit(node);
+    }
+  }
+
+  @Override
+  public boolean visit(EnhancedForStatement node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      int i = Long.numberOfTrailingZeros(m);
+      if (!visitors[i].visit(node)) {
+        prune(i);
+      }
+    }
+    return descends();
+  }
+
+  @Override
+  public void endVisit(EnhancedForStatement node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      visitors[Long.numberOfTrailingZeros(m)].endVisit(node);
+    }
+  }
+
+  @Override
+  public boolean visit(EnumConstantDeclaration node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      int i = Long.numberOfTrailingZeros(m);
+      if (!visitors[i].visit(node)) {
+        prune(i);
+      }
+    }
+    return descends();
+  }
+
+  @Override
+  public void endVisit(EnumConstantDeclaration node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      visitors[Long.numberOfTrailingZeros(m)].endVisit(node);
+    }
+  }
+
+  @Override
+  public boolean visit(EnumDeclaration node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      int i = Long.numberOfTrailingZeros(m);
+      if (!visitors[i].visit(node)) {
+        prune(i);
+      }
+    }
+    return descends();
+  }
+
+  @Override
+  public void endVisit(EnumDeclaration node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      visitors[Long.numberOfTrailingZeros(m)].endVisit(node);
+    }
+  }
+
+  @Override
+  public boolean visit(ExpressionMethodReference node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      int i = Long.numberOfTrailingZeros(m);
+      if (!visitors[i].visit(node)) {
+        prune(i);
+      }
+    }
+    return descends();
+  }
+
+  @Override
+  public void endVisit(ExpressionMethodReference node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      visitors[Long.numberOfTrailingZeros(m)].endVisit(node);
+    }
+  }
+
+  @Override
+  public boolean visit(ExpressionStatement node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      int i = Long.numberOfTrailingZeros(m);
+      if (!visitors[i].visit(node)) {
+        prune(i);
+      }
+    }
+    return descends();
+  }
+
+  @Override
+  public void endVisit(ExpressionStatement node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      visitors[Long.numberOfTrailingZeros(m)].endVisit(node);
+    }
+  }
+
+  @Override
+  public boolean visit(FieldAccess node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      int i = Long.numberOfTrailingZeros(m);
+      if (!visitors[i].visit(node)) {
+        prune(i);
+      }
+    }
+    return descends();
+  }
+
+  @Override
+  public void endVisit(FieldAccess node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      visitors[Long.numberOfTrailingZeros(m)].endVisit(node);
+    }
+  }
+
+  @Override
+  public boolean visit(FieldDeclaration node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      int i = Long.numberOfTrailingZeros(m);
+      if (!visitors[i].visit(node)) {
+        prune(i);
+      }
+    }
+    return descends();
+  }
+
+  @Override
+  public void endVisit(FieldDeclaration node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      visitors[Long.numberOfTrailingZeros(m)].endVisit(node);
+    }
+  }
+
+  @Override
+  public boolean visit(ForStatement node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      int i = Long.numberOfTrailingZeros(m);
+      if (!visitors[i].visit(node)) {
+        prune(i);
+      }
+    }
+    return descends();
+  }
+
+  @Override
+  public void endVisit(ForStatement node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      visitors[Long.numberOfTrailingZeros(m)].endVisit(node);
+    }
+  }
+
+  @Override
+  public boolean visit(FunctionDeclaration node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      int i = Long.numberOfTrailingZeros(m);
+      if (!visitors[i].visit(node)) {
+        prune(i);
+      }
+    }
+    return descends();
+  }
+
+  @Override
+  public void endVisit(FunctionDeclaration node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      visitors[Long.numberOfTrailingZeros(m)].endVisit(node);
+    }
+  }
+
+  @Override
+  public boolean visit(FunctionInvocation node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      int i = Long.numberOfTrailingZeros(m);
+      if (!visitors[i].visit(node)) {
+        prune(i);
+      }
+    }
+    return descends();
+  }
+
+  @Override
+  public void endVisit(FunctionInvocation node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      visitors[Long.numberOfTrailingZeros(m)].endVisit(node);
+    }
+  }
+
+  @Override
+  public boolean visit(IfStatement node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      int i = Long.numberOfTrailingZeros(m);
+      if (!visitors[i].visit(node)) {
+        prune(i);
+      }
+    }
+    return descends();
+  }
+
+  @Override
+  public void endVisit(IfStatement node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      visitors[Long.numberOfTrailingZeros(m)].endVisit(node);
+    }
+  }
+
+  @Override
+  public boolean visit(InfixExpression node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      int i = Long.numberOfTrailingZeros(m);
+      if (!visitors[i].visit(node)) {
+        prune(i);
+      }
+    }
+    return descends();
+  }
+
+  @Override
+  public void endVisit(InfixExpression node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      visitors[Long.numberOfTrailingZeros(m)].endVisit(node);
+    }
+  }
+
+  @Override
+  public boolean visit(Initializer node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      int i = Long.numberOfTrailingZeros(m);
+      if (!visitors[i].visit(node)) {
+        prune(i);
+      }
+    }
+    return descends();
+  }
+
+  @Override
+  public void endVisit(Initializer node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      visitors[Long.numberOfTrailingZeros(m)].endVisit(node);
+    }
+  }
+
+  @Override
+  public boolean visit(InstanceofExpression node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      int i = Long.numberOfTrailingZeros(m);
+      if (!visitors[i].visit(node)) {
+        prune(i);
+      }
+    }
+    return descends();
+  }
+
+  @Override
+  public void endVisit(InstanceofExpression node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      visitors[Long.numberOfTrailingZeros(m)].endVisit(node);
+    }
+  }
+
+  @Override
+  public boolean visit(IntersectionType node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      int i = Long.numberOfTrailingZeros(m);
+      if (!visitors[i].visit(node)) {
+        prune(i);
+      }
+    }
+    return descends();
+  }
+
+  @Override
+  public void endVisit(IntersectionType node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      visitors[Long.numberOfTrailingZeros(m)].endVisit(node);
+    }
+  }
+
+  @Override
+  public boolean visit(Javadoc node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      int i = Long.numberOfTrailingZeros(m);
+      if (!visitors[i].visit(node)) {
+        prune(i);
+      }
+    }
+    return descends();
+  }
+
+  @Override
+  public void endVisit(Javadoc node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      visitors[Long.numberOfTrailingZeros(m)].endVisit(node);
+    }
+  }
+
+  @Override
+  public boolean visit(LabeledStatement node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      int i = Long.numberOfTrailingZeros(m);
+      if (!visitors[i].visit(node)) {
+        prune(i);
+      }
+    }
+    return descends();
+  }
+
+  @Override
+  public void endVisit(LabeledStatement node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      visitors[Long.numberOfTrailingZeros(m)].endVisit(node);
+    }
+  }
+
+  @Override
+  public boolean visit(LambdaExpression node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      int i = Long.numberOfTrailingZeros(m);
+      if (!visitors[i].visit(node)) {
+        prune(i);
+      }
+    }
+    return descends();
+  }
+
+  @Override
+  public void endVisit(LambdaExpression node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      visitors[Long.numberOfTrailingZeros(m)].endVisit(node);
+    }
+  }
+
+  @Override
+  public boolean visit(LineComment node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      int i = Long.numberOfTrailingZeros(m);
+      if (!visitors[i].visit(node)) {
+        prune(i);
+      }
+    }
+    return descends();
+  }
+
+  @Override
+  public void endVisit(LineComment node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      visitors[Long.numberOfTrailingZeros(m)].endVisit(node);
+    }
+  }
+
+  @Override
+  public boolean visit(MarkerAnnotation node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      int i = Long.numberOfTrailingZeros(m);
+      if (!visitors[i].visit(node)) {
+        prune(i);
+      }
+    }
+    return descends();
+  }
+
+  @Override
+  public void endVisit(MarkerAnnotation node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      visitors[Long.numberOfTrailingZeros(m)].endVisit(node);
+    }
+  }
+
+  @Override
+  public boolean visit(MemberValuePair node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      int i = Long.numberOfTrailingZeros(m);
+      if (!visitors[i].visit(node)) {
+        prune(i);
+      }
+    }
+    return descends();
+  }
+
+  @Override
+  public void endVisit(MemberValuePair node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      visitors[Long.numberOfTrailingZeros(m)].endVisit(node);
+    }
+  }
+
+  @Override
+  public boolean visit(MethodDeclaration node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      int i = Long.numberOfTrailingZeros(m);
+      if (!visitors[i].visit(node)) {
+        prune(i);
+      }
+    }
+    return descends();
+  }
+
+  @Override
+  public void endVisit(MethodDeclaration node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      visitors[Long.numberOfTrailingZeros(m)].endVisit(node);
+    }
+  }
+
+  @Override
+  public boolean visit(MethodInvocation node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      int i = Long.numberOfTrailingZeros(m);
+      if (!visitors[i].visit(node)) {
+        prune(i);
+      }
+    }
+    return descends();
+  }
+
+  @Override
+  public void endVisit(MethodInvocation node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      visitors[Long.numberOfTrailingZeros(m)].endVisit(node);
+    }
+  }
+
+  @Override
+  public boolean visit(NativeDeclaration node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      int i = Long.numberOfTrailingZeros(m);
+      if (!visitors[i].visit(node)) {
+        prune(i);
+      }
+    }
+    return descends();
+  }
+
+  @Override
+  public void endVisit(NativeDeclaration node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      visitors[Long.numberOfTrailingZeros(m)].endVisit(node);
+    }
+  }
+
+  @Override
+  public boolean visit(NativeExpression node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      int i = Long.numberOfTrailingZeros(m);
+      if (!visitors[i].visit(node)) {
+        prune(i);
+      }
+    }
+    return descends();
+  }
+
+  @Override
+  public void endVisit(NativeExpression node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      visitors[Long.numberOfTrailingZeros(m)].endVisit(node);
+    }
+  }
+
+  @Override
+  public boolean visit(NativeStatement node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      int i = Long.numberOfTrailingZeros(m);
+      if (!visitors[i].visit(node)) {
+        prune(i);
+      }
+    }
+    return descends();
+  }
+
+  @Override
+  public void endVisit(NativeStatement node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      visitors[Long.numberOfTrailingZeros(m)].endVisit(node);
+    }
+  }
+
+  @Override
+  public boolean visit(NormalAnnotation node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      int i = Long.numberOfTrailingZeros(m);
+      if (!visitors[i].visit(node)) {
+        prune(i);
+      }
+    }
+    return descends();
+  }
+
+  @Override
+  public void endVisit(NormalAnnotation node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      visitors[Long.numberOfTrailingZeros(m)].endVisit(node);
+    }
+  }
+
+  @Override
+  public boolean visit(NullLiteral node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      int i = Long.numberOfTrailingZeros(m);
+      if (!visitors[i].visit(node)) {
+        prune(i);
+      }
+    }
+    return descends();
+  }
+
+  @Override
+  public void endVisit(NullLiteral node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      visitors[Long.numberOfTrailingZeros(m)].endVisit(node);
+    }
+  }
+
+  @Override
+  public boolean visit(NumberLiteral node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      int i = Long.numberOfTrailingZeros(m);
+      if (!visitors[i].visit(node)) {
+        prune(i);
+      }
+    }
+    return descends();
+  }
+
+  @Override
+  public void endVisit(NumberLiteral node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      visitors[Long.numberOfTrailingZeros(m)].endVisit(node);
+    }
+  }
+
+  @Override
+  public boolean visit(PackageDeclaration node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      int i = Long.numberOfTrailingZeros(m);
+      if (!visitors[i].visit(node)) {
+        prune(i);
+      }
+    }
+    return descends();
+  }
+
+  @Override
+  public void endVisit(PackageDeclaration node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      visitors[Long.numberOfTrailingZeros(m)].endVisit(node);
+    }
+  }
+
+  @Override
+  public boolean visit(ParameterizedType node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      int i = Long.numberOfTrailingZeros(m);
+      if (!visitors[i].visit(node)) {
+        prune(i);
+      }
+    }
+    return descends();
+  }
+
+  @Override
+  public void endVisit(ParameterizedType node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      visitors[Long.numberOfTrailingZeros(m)].endVisit(node);
+    }
+  }
+
+  @Override
+  public boolean visit(ParenthesizedExpression node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      int i = Long.numberOfTrailingZeros(m);
+      if (!visitors[i].visit(node)) {
+        prune(i);
+      }
+    }
+    return descends();
+  }
+
+  @Override
+  public void endVisit(ParenthesizedExpression node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      visitors[Long.numberOfTrailingZeros(m)].endVisit(node);
+    }
+  }
+
+  @Override
+  public boolean visit(PostfixExpression node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      int i = Long.numberOfTrailingZeros(m);
+      if (!visitors[i].visit(node)) {
+        prune(i);
+      }
+    }
+    return descends();
+  }
+
+  @Override
+  public void endVisit(PostfixExpression node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      visitors[Long.numberOfTrailingZeros(m)].endVisit(node);
+    }
+  }
+
+  @Override
+  public boolean visit(PrefixExpression node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      int i = Long.numberOfTrailingZeros(m);
+      if (!visitors[i].visit(node)) {
+        prune(i);
+      }
+    }
+    return descends();
+  }
+
+  @Override
+  public void endVisit(PrefixExpression node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      visitors[Long.numberOfTrailingZeros(m)].endVisit(node);
+    }
+  }
+
+  @Override
+  public boolean visit(PrimitiveType node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      int i = Long.numberOfTrailingZeros(m);
+      if (!visitors[i].visit(node)) {
+        prune(i);
+      }
+    }
+    return descends();
+  }
+
+  @Override
+  public void endVisit(PrimitiveType node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      visitors[Long.numberOfTrailingZeros(m)].endVisit(node);
+    }
+  }
+
+  @Override
+  public boolean visit(PropertyAnnotation node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      int i = Long.numberOfTrailingZeros(m);
+      if (!visitors[i].visit(node)) {
+        prune(i);
+      }
+    }
+    return descends();
+  }
+
+  @Override
+  public void endVisit(PropertyAnnotation node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      visitors[Long.numberOfTrailingZeros(m)].endVisit(node);
+    }
+  }
+
+  @Override
+  public boolean visit(QualifiedName node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      int i = Long.numberOfTrailingZeros(m);
+      if (!visitors[i].visit(node)) {
+        prune(i);
+      }
+    }
+    return descends();
+  }
+
+  @Override
+  public void endVisit(QualifiedName node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      visitors[Long.numberOfTrailingZeros(m)].endVisit(node);
+    }
+  }
+
+  @Override
+  public boolean visit(QualifiedType node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      int i = Long.numberOfTrailingZeros(m);
+      if (!visitors[i].visit(node)) {
+        prune(i);
+      }
+    }
+    return descends();
+  }
+
+  @Override
+  public void endVisit(QualifiedType node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      visitors[Long.numberOfTrailingZeros(m)].endVisit(node);
+    }
+  }
+
+  @Override
+  public boolean visit(ReturnStatement node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      int i = Long.numberOfTrailingZeros(m);
+      if (!visitors[i].visit(node)) {
+        prune(i);
+      }
+    }
+    return descends();
+  }
+
+  @Override
+  public void endVisit(ReturnStatement node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      visitors[Long.numberOfTrailingZeros(m)].endVisit(node);
+    }
+  }
+
+  @Override
+  public boolean visit(SimpleName node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      int i = Long.numberOfTrailingZeros(m);
+      if (!visitors[i].visit(node)) {
+        prune(i);
+      }
+    }
+    return descends();
+  }
+
+  @Override
+  public void endVisit(SimpleName node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      visitors[Long.numberOfTrailingZeros(m)].endVisit(node);
+    }
+  }
+
+  @Override
+  public boolean visit(SimpleType node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      int i = Long.numberOfTrailingZeros(m);
+      if (!visitors[i].visit(node)) {
+        prune(i);
+      }
+    }
+    return descends();
+  }
+
+  @Override
+  public void endVisit(SimpleType node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      visitors[Long.numberOfTrailingZeros(m)].endVisit(node);
+    }
+  }
+
+  @Override
+  public boolean visit(SingleMemberAnnotation node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      int i = Long.numberOfTrailingZeros(m);
+      if (!visitors[i].visit(node)) {
+        prune(i);
+      }
+    }
+    return descends();
+  }
+
+  @Override
+  public void endVisit(SingleMemberAnnotation node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      visitors[Long.numberOfTrailingZeros(m)].endVisit(node);
+    }
+  }
+
+  @Override
+  public boolean visit(SingleVariableDeclaration node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      int i = Long.numberOfTrailingZeros(m);
+      if (!visitors[i].visit(node)) {
+        prune(i);
+      }
+    }
+    return descends();
+  }
+
+  @Override
+  public void endVisit(SingleVariableDeclaration node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      visitors[Long.numberOfTrailingZeros(m)].endVisit(node);
+    }
+  }
+
+  @Override
+  public boolean visit(StringLiteral node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      int i = Long.numberOfTrailingZeros(m);
+      if (!visitors[i].visit(node)) {
+        prune(i);
+      }
+    }
+    return descends();
+  }
+
+  @Override
+  public void endVisit(StringLiteral node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      visitors[Long.numberOfTrailingZeros(m)].endVisit(node);
+    }
+  }
+
+  @Override
+  public boolean visit(SuperConstructorInvocation node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      int i = Long.numberOfTrailingZeros(m);
+      if (!visitors[i].visit(node)) {
+        prune(i);
+      }
+    }
+    return descends();
+  }
+
+  @Override
+  public void endVisit(SuperConstructorInvocation node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      visitors[Long.numberOfTrailingZeros(m)].endVisit(node);
+    }
+  }
+
+  @Override
+  public boolean visit(SuperMethodInvocation node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      int i = Long.numberOfTrailingZeros(m);
+      if (!visitors[i].visit(node)) {
+        prune(i);
+      }
+    }
+    return descends();
+  }
+
+  @Override
+  public void endVisit(SuperMethodInvocation node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      visitors[Long.numberOfTrailingZeros(m)].endVisit(node);
+    }
+  }
+
+  @Override
+  public boolean visit(SuperMethodReference node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      int i = Long.numberOfTrailingZeros(m);
+      if (!visitors[i].visit(node)) {
+        prune(i);
+      }
+    }
+    return descends();
+  }
+
+  @Override
+  public void endVisit(SuperMethodReference node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      visitors[Long.numberOfTrailingZeros(m)].endVisit(node);
+    }
+  }
+
+  @Override
+  public boolean visit(SuperFieldAccess node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      int i = Long.numberOfTrailingZeros(m);
+      if (!visitors[i].visit(node)) {
+        prune(i);
+      }
+    }
+    return descends();
+  }
+
+  @Override
+  public void endVisit(SuperFieldAccess node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      visitors[Long.numberOfTrailingZeros(m)].endVisit(node);
+    }
+  }
+
+  @Override
+  public boolean visit(SwitchCase node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      int i = Long.numberOfTrailingZeros(m);
+      if (!visitors[i].visit(node)) {
+        prune(i);
+      }
+    }
+    return descends();
+  }
+
+  @Override
+  public void endVisit(SwitchCase node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      visitors[Long.numberOfTrailingZeros(m)].endVisit(node);
+    }
+  }
+
+  @Override
+  public boolean visit(SwitchStatement node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      int i = Long.numberOfTrailingZeros(m);
+      if (!visitors[i].visit(node)) {
+        prune(i);
+      }
+    }
+    return descends();
+  }
+
+  @Override
+  public void endVisit(SwitchStatement node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      visitors[Long.numberOfTrailingZeros(m)].endVisit(node);
+    }
+  }
+
+  @Override
+  public boolean visit(SynchronizedStatement node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      int i = Long.numberOfTrailingZeros(m);
+      if (!visitors[i].visit(node)) {
+        prune(i);
+      }
+    }
+    return descends();
+  }
+
+  @Override
+  public void endVisit(SynchronizedStatement node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      visitors[Long.numberOfTrailingZeros(m)].endVisit(node);
+    }
+  }
+
+  @Override
+  public boolean visit(TagElement node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      int i = Long.numberOfTrailingZeros(m);
+      if (!visitors[i].visit(node)) {
+        prune(i);
+      }
+    }
+    return descends();
+  }
+
+  @Override
+  public void endVisit(TagElement node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      visitors[Long.numberOfTrailingZeros(m)].endVisit(node);
+    }
+  }
+
+  @Override
+  public boolean visit(TextElement node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      int i = Long.numberOfTrailingZeros(m);
+      if (!visitors[i].visit(node)) {
+        prune(i);
+      }
+    }
+    return descends();
+  }
+
+  @Override
+  public void endVisit(TextElement node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      visitors[Long.numberOfTrailingZeros(m)].endVisit(node);
+    }
+  }
+
+  @Override
+  public boolean visit(ThisExpression node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      int i = Long.numberOfTrailingZeros(m);
+      if (!visitors[i].visit(node)) {
+        prune(i);
+      }
+    }
+    return descends();
+  }
+
+  @Override
+  public void endVisit(ThisExpression node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      visitors[Long.numberOfTrailingZeros(m)].endVisit(node);
+    }
+  }
+
+  @Override
+  public boolean visit(ThrowStatement node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      int i = Long.numberOfTrailingZeros(m);
+      if (!visitors[i].visit(node)) {
+        prune(i);
+      }
+    }
+    return descends();
+  }
+
+  @Override
+  public void endVisit(ThrowStatement node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      visitors[Long.numberOfTrailingZeros(m)].endVisit(node);
+    }
+  }
+
+  @Override
+  public boolean visit(TryStatement node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      int i = Long.numberOfTrailingZeros(m);
+      if (!visitors[i].visit(node)) {
+        prune(i);
+      }
+    }
+    return descends();
+  }
+
+  @Override
+  public void endVisit(TryStatement node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      visitors[Long.numberOfTrailingZeros(m)].endVisit(node);
+    }
+  }
+
+  @Override
+  public boolean visit(TypeDeclaration node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      int i = Long.numberOfTrailingZeros(m);
+      if (!visitors[i].visit(node)) {
+        prune(i);
+      }
+    }
+    return descends();
+  }
+
+  @Override
+  public void endVisit(TypeDeclaration node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      visitors[Long.numberOfTrailingZeros(m)].endVisit(node);
+    }
+  }
+
+  @Override
+  public boolean visit(TypeDeclarationStatement node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      int i = Long.numberOfTrailingZeros(m);
+      if (!visitors[i].visit(node)) {
+        prune(i);
+      }
+    }
+    return descends();
+  }
+
+  @Override
+  public void endVisit(TypeDeclarationStatement node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      visitors[Long.numberOfTrailingZeros(m)].endVisit(node);
+    }
+  }
+
+  @Override
+  public boolean visit(TypeLiteral node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      int i = Long.numberOfTrailingZeros(m);
+      if (!visitors[i].visit(node)) {
+        prune(i);
+      }
+    }
+    return descends();
+  }
+
+  @Override
+  public void endVisit(TypeLiteral node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      visitors[Long.numberOfTrailingZeros(m)].endVisit(node);
+    }
+  }
+
+  @Override
+  public boolean visit(TypeMethodReference node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      int i = Long.numberOfTrailingZeros(m);
+      if (!visitors[i].visit(node)) {
+        prune(i);
+      }
+    }
+    return descends();
+  }
+
+  @Override
+  public void endVisit(TypeMethodReference node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      visitors[Long.numberOfTrailingZeros(m)].endVisit(node);
+    }
+  }
+
+  @Override
+  public boolean visit(UnionType node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      int i = Long.numberOfTrailingZeros(m);
+      if (!visitors[i].visit(node)) {
+        prune(i);
+      }
+    }
+    return descends();
+  }
+
+  @Override
+  public void endVisit(UnionType node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      visitors[Long.numberOfTrailingZeros(m)].endVisit(node);
+    }
+  }
+
+  @Override
+  public boolean visit(VariableDeclarationExpression node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      int i = Long.numberOfTrailingZeros(m);
+      if (!visitors[i].visit(node)) {
+        prune(i);
+      }
+    }
+    return descends();
+  }
+
+  @Override
+  public void endVisit(VariableDeclarationExpression node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      visitors[Long.numberOfTrailingZeros(m)].endVisit(node);
+    }
+  }
+
+  @Override
+  public boolean visit(VariableDeclarationFragment node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      int i = Long.numberOfTrailingZeros(m);
+      if (!visitors[i].visit(node)) {
+        prune(i);
+      }
+    }
+    return descends();
+  }
+
+  @Override
+  public void endVisit(VariableDeclarationFragment node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      visitors[Long.numberOfTrailingZeros(m)].endVisit(node);
+    }
+  }
+
+  @Override
+  public boolean visit(VariableDeclarationStatement node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      int i = Long.numberOfTrailingZeros(m);
+      if (!visitors[i].visit(node)) {
+        prune(i);
+      }
+    }
+    return descends();
+  }
+
+  @Override
+  public void endVisit(VariableDeclarationStatement node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      visitors[Long.numberOfTrailingZeros(m)].endVisit(node);
+    }
+  }
+
+  @Override
+  public boolean visit(WhileStatement node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      int i = Long.numberOfTrailingZeros(m);
+      if (!visitors[i].visit(node)) {
+        prune(i);
+      }
+    }
+    return descends();
+  }
+
+  @Override
+  public void endVisit(WhileStatement node) {
+    for (long m = calls[depth]; m != 0; m &= m - 1) {
+      visitors[Long.numberOfTrailingZeros(m)].endVisit(node);
+    }
+  }
+}
@@ -21,7 +21,9 @@ import com.google.common.base.Supplier;
  */
 public abstract class TreeNode {
 
-  private ChildLink<? extends TreeNode> owner = null;
+  private ChildOwner owner = null;
+  // The index of this node in its owner, if the owner is a ChildList.
+  private int ownerIndex = 0;
   private int startPosition = -1;
   private int length = 0;
   private int lineNumber = -1;
@@ -41,14 +43,19 @@ public abstract class TreeNode {
     return owner == null ? null : owner.getParent();
   }
 
-  /* package */ void setOwner(ChildLink<? extends TreeNode> newOwner) {
+  /* package */ void setOwner(ChildOwner newOwner, int index) {
     assert owner == null || newOwner == null : "Node is already parented";
     owner = newOwner;
+    ownerIndex = index;
+  }
+
+  /* package */ void setOwnerIndex(int index) {
+    ownerIndex = index;
   }
 
   public void remove() {
     if (owner != null) {
-      owner.remove();
+      owner.removeChild(ownerIndex);
     }
   }
 
@@ -58,14 +65,12 @@ public abstract class TreeNode {
 
   public void replaceWith(TreeNode other) {
     assert owner != null : "Can't replace a parentless node.";
-    owner.setDynamic(other);
+    owner.setChild(ownerIndex, other);
   }
 
   public void replaceWith(Supplier<? extends TreeNode> supplier) {
-    ChildLink<? extends TreeNode> owner = this.owner;
     assert owner != null : "Can't replace a parentless node.";
-    owner.set(null);
-    owner.setDynamic(supplier.get());
+    owner.replaceChild(ownerIndex, supplier);
   }
 
   public final int getStartPosition() {
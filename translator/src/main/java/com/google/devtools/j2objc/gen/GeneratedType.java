@@ -90,14 +90,9 @@ public class GeneratedType {
       superTypes.add(nameTable.getFullName(superInterface));
     }
 
-    HeaderImportCollector headerCollector =
-        new HeaderImportCollector(unit, HeaderImportCollector.Filter.PUBLIC_ONLY);
+    HeaderImportCollector headerCollector = new HeaderImportCollector(unit);
     typeNode.accept(headerCollector);
 
-    HeaderImportCollector privateDeclarationCollector =
-        new HeaderImportCollector(unit, HeaderImportCollector.Filter.PRIVATE_ONLY);
-    typeNode.accept(privateDeclarationCollector);
-
     ImplementationImportCollector importCollector = new ImplementationImportCollector(unit);
     typeNode.accept(importCollector);
 
@@ -106,9 +101,6 @@ public class GeneratedType {
     TypeDeclarationGenerator.generate(builder, typeNode, generatedSourceMappings);
     String publicDeclarationCode = builder.toString();
 
-    builder = new SourceBuilder(emitLineDirectives);
-    TypePrivateDeclarationGenerator.generate(builder, typeNode);
-
     String privateDeclarationCode;
     String implementationCode;
     Options options = unit.getEnv().options();
@@ -128,7 +120,7 @@ public class GeneratedType {
     }
 
     ImmutableSet.Builder<Import> implementationIncludes = ImmutableSet.builder();
-    implementationIncludes.addAll(privateDeclarationCollector.getSuperTypes());
+    implementationIncludes.addAll(headerCollector.getPrivateSuperTypes());
     implementationIncludes.addAll(importCollector.getImports());
 
     return new GeneratedType(
@@ -137,7 +129,7 @@ public class GeneratedType {
         superTypes.build(),
         ImmutableSet.copyOf(headerCollector.getForwardDeclarations()),
         ImmutableSet.copyOf(headerCollector.getSuperTypes()),
-        ImmutableSet.copyOf(privateDeclarationCollector.getForwardDeclarations()),
+        ImmutableSet.copyOf(headerCollector.getPrivateForwardDeclarations()),
         implementationIncludes.build(),
         publicDeclarationCode,
         privateDeclarationCode,
@@ -25,7 +25,9 @@ import com.google.devtools.j2objc.ast.TreeUtil;
 import com.google.devtools.j2objc.file.InputFile;
 import com.google.devtools.j2objc.util.ElementUtil;
 import java.io.File;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.TreeMap;
 import javax.annotation.Nullable;
 
@@ -142,6 +144,27 @@ public class GenerationUnit {
   }
 
   public void addCompilationUnit(CompilationUnit unit) {
+    addCompilationUnit(unit, generateTypes(unit));
+  }
+
+  /**
+   * Generates the types declared by a compilation unit, without adding them to
+   * any GenerationUnit. This only reads the unit's tree, so different units may
+   * be generated concurrently.
+   */
+  public static List<GeneratedType> generateTypes(CompilationUnit unit) {
+    List<GeneratedType> types = new ArrayList<>();
+    for (AbstractTypeDeclaration type : unit.getTypes()) {
+      types.add(GeneratedType.fromTypeDeclaration(type));
+    }
+    return types;
+  }
+
+  /**
+   * Adds a compilation unit whose types were already generated by
+   * {@link #generateTypes}.
+   */
+  public void addCompilationUnit(CompilationUnit unit, List<GeneratedType> types) {
     assert state != State.FINISHED : "Adding to a finished GenerationUnit.";
     if (state != State.ACTIVE) {
       return;  // Ignore any added units.
@@ -174,8 +197,8 @@ public class GenerationUnit {
     addPackageJavadoc(unit, qualifiedMainType);
     addNativeBlocks(unit, qualifiedMainType);
 
+    generatedTypes.putAll(qualifiedMainType, types);
     for (AbstractTypeDeclaration type : unit.getTypes()) {
-      generatedTypes.put(qualifiedMainType, GeneratedType.fromTypeDeclaration(type));
       if (ElementUtil.isEnum(type.getTypeElement())) {
         hasNullabilityAnnotations = true;
       }
@@ -230,8 +253,16 @@ public class GenerationUnit {
     state = State.FAILED;
   }
 
+  /**
+   * Marks this unit as generated, releasing its generated code so it can be
+   * collected while the remaining inputs are translated.
+   */
   public void finished() {
     state = State.FINISHED;
+    javadocBlocks.clear();
+    nativeHeaderBlocks.clear();
+    nativeImplementationBlocks.clear();
+    generatedTypes.clear();
   }
 
   /**
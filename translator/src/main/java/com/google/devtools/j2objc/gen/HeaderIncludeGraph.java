@@ -0,0 +1,141 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.devtools.j2objc.gen;
+
+import com.google.devtools.j2objc.types.Import;
+import java.io.PrintStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * The graph of #includes between the headers generated in a translation run,
+ * for -Xinclude-report. Headers only include the headers of their types'
+ * supertypes, everything else is forward declared, so the cost of a header
+ * is the chain of supertype headers it transitively pulls in. Segmented
+ * headers only pull in the sections declaring the needed types, so the
+ * report shows the transitive includes both with and without segments.
+ * Headers that weren't generated in this run are counted, but their own
+ * includes aren't known.
+ */
+public class HeaderIncludeGraph {
+
+  // Public types, by header.
+  private final Map<String, List<String>> headerTypes = new TreeMap<>();
+  // The headers included for each type, by the name of the included type.
+  private final Map<String, Map<String, String>> typeIncludes = new HashMap<>();
+
+  /**
+   * Adds the headers and types of a generation unit, which must be fully parsed.
+   */
+  public synchronized void addUnit(GenerationUnit unit) {
+    String header = unit.getOutputPath() + ".h";
+    List<String> types = headerTypes.computeIfAbsent(header, k -> new ArrayList<>());
+    for (GeneratedType type : unit.getGeneratedTypes()) {
+      if (type.isPrivate()) {
+        continue;
+      }
+      String name = type.getTypeName();
+      types.add(name);
+      Map<String, String> includes = new TreeMap<>();
+      for (Import imp : type.getHeaderIncludes()) {
+        includes.put(imp.getTypeName(), imp.getImportFileName());
+      }
+      typeIncludes.put(name, includes);
+    }
+  }
+
+  /**
+   * Returns the headers that are directly included by a generated header,
+   * excluding the header itself.
+   */
+  Set<String> getDirectIncludes(String header) {
+    Set<String> result = new LinkedHashSet<>();
+    for (String type : headerTypes.get(header)) {
+      result.addAll(typeIncludes.get(type).values());
+    }
+    result.remove(header);
+    return result;
+  }
+
+  /**
+   * Returns the headers transitively included by a generated header. With
+   * segmented headers, only the included types' own includes are followed,
+   * otherwise all includes of the included headers are.
+   */
+  Set<String> getTransitiveIncludes(String header, boolean segmented) {
+    Set<String> result = new HashSet<>();
+    Deque<String> pendingTypes = new ArrayDeque<>(headerTypes.get(header));
+    Set<String> visitedTypes = new HashSet<>(pendingTypes);
+    while (!pendingTypes.isEmpty()) {
+      Map<String, String> includes = typeIncludes.get(pendingTypes.remove());
+      if (includes == null) {
+        continue;  // Declared by a header that wasn't generated in this run.
+      }
+      for (Map.Entry<String, String> include : includes.entrySet()) {
+        String includedHeader = include.getValue();
+        result.add(includedHeader);
+        List<String> needed = new ArrayList<>();
+        if (segmented || !headerTypes.containsKey(includedHeader)) {
+          needed.add(include.getKey());
+        } else {
+          needed.addAll(headerTypes.get(includedHeader));
+        }
+        for (String type : needed) {
+          if (visitedTypes.add(type)) {
+            pendingTypes.add(type);
+          }
+        }
+      }
+    }
+    result.remove(header);
+    return result;
+  }
+
+  /**
+   * Prints each generated header's direct and transitive includes, and how
+   * many headers include it, most expensive headers first. The ordering and
+   * the count of including headers follow whether headers are segmented.
+   */
+  public synchronized void printReport(PrintStream out, boolean segmented) {
+    Map<String, Set<String>> transitive = new HashMap<>();
+    Map<String, Integer> includedBy = new HashMap<>();
+    for (String header : headerTypes.keySet()) {
+      Set<String> includes = getTransitiveIncludes(header, segmented);
+      transitive.put(header, includes);
+      for (String include : includes) {
+        includedBy.merge(include, 1, Integer::sum);
+      }
+    }
+    List<String> headers = new ArrayList<>(headerTypes.keySet());
+    headers.sort(Comparator.comparing((String h) -> -transitive.get(h).size())
+        .thenComparing(Comparator.naturalOrder()));
+    for (String header : headers) {
+      out.println(String.format(
+          "%s: %d direct includes, %d transitive with segmented headers, %d without, "
+          + "included by %d",
+          header, getDirectIncludes(header).size(), getTransitiveIncludes(header, true).size(),
+          getTransitiveIncludes(header, false).size(), includedBy.getOrDefault(header, 0)));
+    }
+  }
+}
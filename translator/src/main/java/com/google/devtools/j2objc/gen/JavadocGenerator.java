@@ -22,8 +22,8 @@ import com.google.devtools.j2objc.ast.TagElement;
 import com.google.devtools.j2objc.ast.TagElement.TagKind;
 import com.google.devtools.j2objc.ast.TextElement;
 import com.google.devtools.j2objc.ast.TreeNode;
+import com.google.devtools.j2objc.ast.TreeUtil;
 import com.google.devtools.j2objc.util.ElementUtil;
-import com.google.devtools.j2objc.util.NameTable;
 import java.text.BreakIterator;
 import java.util.HashMap;
 import java.util.List;
@@ -230,8 +230,10 @@ public class JavadocGenerator extends AbstractSourceGenerator {
         sb.append(printTag((TagElement) fragment));
       } else if (fragment instanceof SimpleName) {
         Element element = ((Name) fragment).getElement();
-        if (element != null && ElementUtil.isVariable(element)) {
-          sb.append(NameTable.getDocCommentVariableName(((VariableElement) element)));
+        CompilationUnit unit = TreeUtil.getCompilationUnit(fragment);
+        if (element != null && ElementUtil.isVariable(element) && unit != null) {
+          sb.append(unit.getEnv().nameTable().getDocCommentVariableName(
+              (VariableElement) element));
         } else {
           sb.append(fragment.toString());
         }
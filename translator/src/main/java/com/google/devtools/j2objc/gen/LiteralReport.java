@@ -0,0 +1,43 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.devtools.j2objc.gen;
+
+import java.io.PrintStream;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * The literals each generated implementation file repeats, printed with
+ * -Xliteral-report after all sources are translated. Files are recorded
+ * concurrently by translation threads, and printed in path order.
+ */
+public class LiteralReport {
+
+  private final Map<String, String> entries = new TreeMap<>();
+  private long totalRepeatedBytes = 0;
+
+  synchronized void addFile(String path, LiteralUsage usage) {
+    entries.put(path, usage.getReport(path));
+    totalRepeatedBytes += usage.getRepeatedBytes();
+  }
+
+  public synchronized void print(PrintStream out) {
+    for (String entry : entries.values()) {
+      out.println(entry);
+    }
+    out.println(String.format(
+        "%d bytes of repeated literals in %d files", totalRepeatedBytes, entries.size()));
+  }
+}
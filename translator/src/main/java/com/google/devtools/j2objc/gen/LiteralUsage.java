@@ -0,0 +1,182 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.devtools.j2objc.gen;
+
+import com.google.common.collect.HashMultiset;
+import com.google.common.collect.Multiset;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Counts the NSString, C string and selector literals in generated source,
+ * for -Xliteral-report. Combined outputs repeat many of them, such as the
+ * metadata type strings of related classes. Since a generated .m file is a
+ * single translation unit, the compiler already emits each distinct literal
+ * once, so the repeated bytes are only in the source, not the object file.
+ */
+class LiteralUsage {
+
+  private final Multiset<String> nsStrings = HashMultiset.create();
+  private final Multiset<String> cStrings = HashMultiset.create();
+  private final Multiset<String> selectors = HashMultiset.create();
+
+  private LiteralUsage() {}
+
+  static LiteralUsage scan(CharSequence source) {
+    LiteralUsage usage = new LiteralUsage();
+    usage.scanSource(source);
+    return usage;
+  }
+
+  int getNSStringCount() {
+    return nsStrings.size();
+  }
+
+  int getUniqueNSStringCount() {
+    return nsStrings.elementSet().size();
+  }
+
+  int getCStringCount() {
+    return cStrings.size();
+  }
+
+  int getUniqueCStringCount() {
+    return cStrings.elementSet().size();
+  }
+
+  int getSelectorCount() {
+    return selectors.size();
+  }
+
+  int getUniqueSelectorCount() {
+    return selectors.elementSet().size();
+  }
+
+  /**
+   * Returns the bytes of the literals that are repeats of an earlier literal,
+   * counting each literal's text and terminating null.
+   */
+  int getRepeatedBytes() {
+    return repeatedBytes(nsStrings) + repeatedBytes(cStrings) + repeatedBytes(selectors);
+  }
+
+  private static int repeatedBytes(Multiset<String> literals) {
+    int bytes = 0;
+    for (Multiset.Entry<String> entry : literals.entrySet()) {
+      int size = entry.getElement().getBytes(StandardCharsets.UTF_8).length + 1;
+      bytes += (entry.getCount() - 1) * size;
+    }
+    return bytes;
+  }
+
+  String getReport(String path) {
+    return String.format(
+        "%s: %d NSString literals (%d unique), %d C strings (%d unique), "
+        + "%d selectors (%d unique), %d bytes repeated",
+        path, getNSStringCount(), getUniqueNSStringCount(), getCStringCount(),
+        getUniqueCStringCount(), getSelectorCount(), getUniqueSelectorCount(),
+        getRepeatedBytes());
+  }
+
+  private void scanSource(CharSequence source) {
+    int length = source.length();
+    boolean lineStart = true;
+    int i = 0;
+    while (i < length) {
+      char c = source.charAt(i);
+      if (c == '\n') {
+        lineStart = true;
+        i++;
+        continue;
+      }
+      if (Character.isWhitespace(c)) {
+        i++;
+        continue;
+      }
+      if (lineStart && c == '#') {
+        // Preprocessor lines, which include the #include file names.
+        i = skipToLineEnd(source, i);
+      } else if (startsWith(source, i, "//")) {
+        i = skipToLineEnd(source, i);
+      } else if (startsWith(source, i, "/*")) {
+        int end = indexOf(source, "*/", i + 2);
+        i = end < 0 ? length : end + 2;
+      } else if (c == '\'') {
+        i = skipQuoted(source, i, '\'');
+      } else if (c == '"') {
+        int end = skipQuoted(source, i, '"');
+        String literal = source.subSequence(i + 1, Math.max(i + 1, end - 1)).toString();
+        if (i > 0 && source.charAt(i - 1) == '@') {
+          nsStrings.add(literal);
+        } else {
+          cStrings.add(literal);
+        }
+        i = end;
+      } else if (startsWith(source, i, "@selector(")) {
+        int start = i + "@selector(".length();
+        int end = indexOf(source, ")", start);
+        if (end < 0) {
+          break;
+        }
+        selectors.add(source.subSequence(start, end).toString().trim());
+        i = end + 1;
+      } else {
+        i++;
+      }
+      lineStart = false;
+    }
+  }
+
+  // Returns the index after the closing quote, or the end of the source.
+  private static int skipQuoted(CharSequence source, int start, char quote) {
+    int i = start + 1;
+    while (i < source.length()) {
+      char c = source.charAt(i);
+      if (c == '\\') {
+        i += 2;
+      } else if (c == quote || c == '\n') {
+        return i + 1;
+      } else {
+        i++;
+      }
+    }
+    return source.length();
+  }
+
+  private static int skipToLineEnd(CharSequence source, int start) {
+    int end = indexOf(source, "\n", start);
+    return end < 0 ? source.length() : end;
+  }
+
+  private static boolean startsWith(CharSequence source, int offset, String prefix) {
+    if (offset + prefix.length() > source.length()) {
+      return false;
+    }
+    for (int i = 0; i < prefix.length(); i++) {
+      if (source.charAt(offset + i) != prefix.charAt(i)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static int indexOf(CharSequence source, String str, int fromIndex) {
+    for (int i = fromIndex; i <= source.length() - str.length(); i++) {
+      if (startsWith(source, i, str)) {
+        return i;
+      }
+    }
+    return -1;
+  }
+}
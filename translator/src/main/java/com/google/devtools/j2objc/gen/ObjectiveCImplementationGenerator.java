@@ -63,6 +63,9 @@ public class ObjectiveCImplementationGenerator extends ObjectiveCSourceFileGener
       print(generatedType.getImplementationCode());
     }
     popIgnoreDeprecatedDeclarationsPragma();
+    if (options.literalReport() != null) {
+      options.literalReport().addFile(getOutputPath(), LiteralUsage.scan(getBuilder()));
+    }
     save(getOutputPath(), options.fileUtil().getOutputDirectory());
   }
 
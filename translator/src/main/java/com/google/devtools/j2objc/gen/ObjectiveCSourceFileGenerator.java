@@ -16,13 +16,11 @@
 
 package com.google.devtools.j2objc.gen;
 
-import com.google.common.io.Files;
 import com.google.devtools.j2objc.types.Import;
 import com.google.devtools.j2objc.util.ErrorUtil;
 import com.google.devtools.j2objc.util.UnicodeUtils;
 
 import java.io.File;
-import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
@@ -92,23 +90,16 @@ public abstract class ObjectiveCSourceFileGenerator extends AbstractSourceGenera
 
   protected void save(String path, File outputDirectory) {
     try {
-      File outputFile = new File(outputDirectory, path);
-      File dir = outputFile.getParentFile();
-      if (dir != null && !dir.exists()) {
-        if (!dir.mkdirs()) {
-          ErrorUtil.warning("cannot create output directory: " + outputDirectory);
-        }
-      }
-      String source = getBuilder().toString();
+      SourceBuilder builder = getBuilder();
 
       // Make sure file ends with a new-line.
-      if (!source.endsWith("\n")) {
-        source += '\n';
+      if (builder.length() == 0 || builder.charAt(builder.length() - 1) != '\n') {
+        builder.append('\n');
       }
 
-      Files.asCharSink(outputFile, unit.options().fileUtil().getCharset()).write(source);
-    } catch (IOException e) {
-      ErrorUtil.error(e.getMessage());
+      // Write failures are reported by the writer, which may run later on another thread.
+      OutputFileWriter writer = unit.options().outputFileWriter();
+      writer.write(outputDirectory, path, builder.encode(writer.getCharset()));
     } finally {
       reset();
     }
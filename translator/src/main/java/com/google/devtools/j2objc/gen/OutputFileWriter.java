@@ -0,0 +1,196 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.devtools.j2objc.gen;
+
+import com.google.common.io.Files;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.devtools.j2objc.Options;
+import com.google.devtools.j2objc.util.ErrorUtil;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.InvalidPathException;
+import java.nio.file.StandardOpenOption;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Writes generated files to the output directories. With -Xwrite-if-changed,
+ * files whose contents are unchanged aren't rewritten, so their timestamps
+ * don't trigger recompiling everything that includes them.
+ *
+ * <p>With -Xoutput-writers, files are written by a pool of writer threads,
+ * so that translation continues while earlier outputs are written. The queue
+ * of pending files is bounded; when it's full, the translating thread writes
+ * the file itself. With -Xoutput-zip, all files are written as entries of a
+ * single zip file instead, named by their path in their output directory.
+ */
+public class OutputFileWriter {
+
+  // Pending files per writer thread, before translation threads are held up.
+  private static final int QUEUE_SIZE_PER_WRITER = 16;
+
+  private final Options options;
+  private final AtomicInteger written = new AtomicInteger();
+  private final AtomicInteger unchanged = new AtomicInteger();
+  // Directories known to exist, so each is only checked once.
+  private final Set<File> directories = ConcurrentHashMap.newKeySet();
+  private ExecutorService writers = null;
+  private ZipOutputStream zip = null;
+
+  public OutputFileWriter(Options options) {
+    this.options = options;
+  }
+
+  public Charset getCharset() {
+    return options.fileUtil().getCharset();
+  }
+
+  /**
+   * Writes a generated file, given its path in its output directory. The
+   * buffer must not be modified afterwards, since it may be written later.
+   */
+  public void write(File outputDirectory, String path, ByteBuffer contents) {
+    ExecutorService executor = getWriters();
+    if (executor != null) {
+      executor.execute(() -> writeReportingErrors(outputDirectory, path, contents));
+    } else {
+      writeReportingErrors(outputDirectory, path, contents);
+    }
+  }
+
+  /**
+   * Copies a previously generated file, such as a cached translation.
+   */
+  public void copy(File source, File outputDirectory, String path) throws IOException {
+    write(outputDirectory, path, ByteBuffer.wrap(Files.toByteArray(source)));
+  }
+
+  private synchronized ExecutorService getWriters() {
+    int nThreads = options.outputWriterThreads();
+    if (writers == null && nThreads > 0) {
+      writers = new ThreadPoolExecutor(nThreads, nThreads, 0, TimeUnit.MILLISECONDS,
+          new ArrayBlockingQueue<>(nThreads * QUEUE_SIZE_PER_WRITER),
+          new ThreadFactoryBuilder().setDaemon(true).setNameFormat("output-writer-%d").build(),
+          new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+    return writers;
+  }
+
+  private void writeReportingErrors(File outputDirectory, String path, ByteBuffer contents) {
+    try {
+      if (options.outputZip() != null) {
+        writeZipEntry(path, contents);
+      } else {
+        writeFile(new File(outputDirectory, path), contents);
+      }
+    } catch (IOException e) {
+      ErrorUtil.error(e.getMessage());
+    } catch (InvalidPathException e) {
+      // Thrown for names the platform's file name encoding can't represent.
+      ErrorUtil.error("cannot write " + path + ": " + e.getMessage());
+    }
+  }
+
+  private void writeFile(File file, ByteBuffer contents) throws IOException {
+    if (options.writeIfChanged() && isUnchanged(file, contents)) {
+      unchanged.incrementAndGet();
+      return;
+    }
+    File dir = file.getParentFile();
+    if (dir != null && !directories.contains(dir)) {
+      if (!dir.exists() && !dir.mkdirs() && !dir.isDirectory()) {
+        ErrorUtil.warning("cannot create output directory: " + dir);
+      }
+      directories.add(dir);
+    }
+    try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+        StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+      ByteBuffer buffer = contents.duplicate();
+      while (buffer.hasRemaining()) {
+        channel.write(buffer);
+      }
+    }
+    written.incrementAndGet();
+  }
+
+  private static boolean isUnchanged(File file, ByteBuffer contents) throws IOException {
+    // Comparing the lengths first avoids reading most files that did change.
+    return file.length() == contents.remaining()
+        && ByteBuffer.wrap(Files.toByteArray(file)).equals(contents);
+  }
+
+  private synchronized void writeZipEntry(String path, ByteBuffer contents) throws IOException {
+    if (zip == null) {
+      File zipFile = options.outputZip();
+      File dir = zipFile.getParentFile();
+      if (dir != null) {
+        dir.mkdirs();
+      }
+      zip = new ZipOutputStream(new BufferedOutputStream(new FileOutputStream(zipFile)));
+    }
+    zip.putNextEntry(new ZipEntry(path.replace(File.separatorChar, '/')));
+    ByteBuffer buffer = contents.duplicate();
+    zip.write(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+    zip.closeEntry();
+    written.incrementAndGet();
+  }
+
+  /**
+   * Waits for all pending files to be written, and closes the zip file.
+   */
+  public void finish() {
+    ExecutorService executor;
+    synchronized (this) {
+      executor = writers;
+      writers = null;
+    }
+    if (executor != null) {
+      executor.shutdown();
+      try {
+        executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        ErrorUtil.error("interrupted while writing output files");
+      }
+    }
+    synchronized (this) {
+      if (zip != null) {
+        try {
+          zip.close();
+        } catch (IOException e) {
+          ErrorUtil.error(e.getMessage());
+        }
+        zip = null;
+      }
+    }
+  }
+
+  public void printStatistics(PrintStream out) {
+    out.printf("output files: %d written, %d unchanged\n", written.get(), unchanged.get());
+  }
+}
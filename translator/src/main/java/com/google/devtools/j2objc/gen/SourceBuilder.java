@@ -22,6 +22,9 @@ import com.google.devtools.j2objc.ast.TreeNode;
 import com.google.devtools.j2objc.util.UnicodeUtils;
 import java.io.IOException;
 import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
 
 /**
  * Builds source text.  This is similar to a StringBuilder, but tracks line
@@ -29,7 +32,7 @@ import java.io.StringReader;
  *
  * @author Tom Ball
  */
-public class SourceBuilder {
+public class SourceBuilder implements CharSequence {
   private final StringBuilder buffer = new StringBuilder();
   private String currentFile;
   private int indention = 0;
@@ -72,6 +75,13 @@ public class SourceBuilder {
     return buffer.toString();
   }
 
+  /**
+   * Encodes the source text without first copying it to a String.
+   */
+  public ByteBuffer encode(Charset charset) {
+    return charset.encode(CharBuffer.wrap(buffer));
+  }
+
   private static final CharMatcher NEWLINE_MATCHER = CharMatcher.is('\n');
 
   public void print(String s) {
@@ -151,14 +161,21 @@ public class SourceBuilder {
     return this;
   }
 
+  @Override
   public char charAt(int i) {
     return buffer.charAt(i);
   }
 
+  @Override
   public int length() {
     return buffer.length();
   }
 
+  @Override
+  public CharSequence subSequence(int start, int end) {
+    return buffer.subSequence(start, end);
+  }
+
   public String substring(int start, int end) {
     return buffer.substring(start, end);
   }
@@ -14,6 +14,7 @@
 
 package com.google.devtools.j2objc.javac;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.Lists;
 import com.google.devtools.j2objc.Options;
 import com.google.devtools.j2objc.ast.CompilationUnit;
@@ -34,12 +35,23 @@ import java.io.IOException;
 import java.io.StreamTokenizer;
 import java.io.StringReader;
 import java.io.UnsupportedEncodingException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.ServiceLoader;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import javax.annotation.processing.Processor;
@@ -59,12 +71,22 @@ import javax.tools.ToolProvider;
  */
 public class JavacParser extends Parser {
 
-  private StandardJavaFileManager fileManager;
+  // Every file manager created, so that close() releases them all.
+  private final List<StandardJavaFileManager> fileManagers = new ArrayList<>();
 
   public JavacParser(Options options){
     super(options);
   }
 
+  @Override
+  public void addSourceRootsOf(Collection<String> sourcePaths) {
+    for (String root : sourceRoots(sourcePaths)) {
+      if (!sourcepathEntries.contains(root)) {
+        addSourcepathEntry(root);
+      }
+    }
+  }
+
   @Override
   public String version() {
     // Avoid using private API (Java 9+) to get version string.
@@ -123,12 +145,16 @@ public class JavacParser extends Parser {
     return null;
   }
 
-  private StandardJavaFileManager getFileManager(JavaCompiler compiler,
-      DiagnosticCollector<JavaFileObject> diagnostics) throws IOException {
-    fileManager =
+  private synchronized StandardJavaFileManager getFileManager(JavaCompiler compiler,
+      DiagnosticCollector<JavaFileObject> diagnostics, List<String> inputSourceRoots)
+      throws IOException {
+    StandardJavaFileManager fileManager =
         compiler.getStandardFileManager(diagnostics, null, options.fileUtil().getCharset());
+    fileManagers.add(fileManager);
+    List<String> sourcepath = new ArrayList<>(inputSourceRoots);
+    sourcepath.addAll(sourcepathEntries);
     addPaths(StandardLocation.CLASS_PATH, classpathEntries, fileManager);
-    addPaths(StandardLocation.SOURCE_PATH, sourcepathEntries, fileManager);
+    addPaths(StandardLocation.SOURCE_PATH, sourcepath, fileManager);
     addPaths(StandardLocation.PLATFORM_CLASS_PATH, options.getBootClasspath(), fileManager);
     List<String> processorPathEntries = options.getProcessorPathEntries();
     if (!processorPathEntries.isEmpty()) {
@@ -184,30 +210,206 @@ public class JavacParser extends Parser {
 
   @Override
   public void parseFiles(Collection<String> paths, Handler handler, SourceVersion sourceVersion) {
+    int numShards = Math.min(options.parseShards(), paths.size());
+    if (numShards > 1) {
+      parseShards(partitionByPackage(paths, numShards), handler);
+      return;
+    }
+    try {
+      AnalyzedFiles analyzedFiles = analyzeFiles(paths);
+      if (ErrorUtil.errorCount() == 0) {
+        analyzedFiles.convert(handler);
+      }
+    } catch (IOException e) {
+      ErrorUtil.fatalError(e, "javac file manager error");
+    }
+  }
+
+  /**
+   * Parses and analyzes source files with javac, without converting them.
+   * Conversion is a separate step so that the cost of each can be measured.
+   */
+  @VisibleForTesting
+  public AnalyzedFiles analyzeFiles(Collection<String> paths) throws IOException {
+    return analyzeFiles(paths, Collections.emptyList());
+  }
+
+  private AnalyzedFiles analyzeFiles(Collection<String> paths, List<String> inputSourceRoots)
+      throws IOException {
     List<File> files = new ArrayList<>();
     for (String path : paths) {
       files.add(new File(path));
     }
-    try {
-      JavacEnvironment env = createEnvironment(files, null, false);
-      List<CompilationUnitTree> units = new ArrayList<>();
-      for (CompilationUnitTree unit : env.task().parse()) {
-        units.add(unit);
+    JavacEnvironment env = createEnvironment(files, null, false, inputSourceRoots);
+    List<CompilationUnitTree> units = new ArrayList<>();
+    for (CompilationUnitTree unit : env.task().parse()) {
+      units.add(unit);
+    }
+    env.task().analyze();
+    processDiagnostics(env.diagnostics());
+    return new AnalyzedFiles(env, units);
+  }
+
+  /**
+   * Source files that javac has parsed and analyzed.
+   */
+  @VisibleForTesting
+  public class AnalyzedFiles {
+    private final JavacEnvironment env;
+    private final List<CompilationUnitTree> units;
+
+    private AnalyzedFiles(JavacEnvironment env, List<CompilationUnitTree> units) {
+      this.env = env;
+      this.units = units;
+    }
+
+    /**
+     * Returns true if javac reported errors for these files. Unlike
+     * {@link ErrorUtil#errorCount()}, this ignores errors reported for other
+     * files, such as by other shards.
+     */
+    private boolean hasErrors() {
+      for (Diagnostic<? extends JavaFileObject> diagnostic : env.diagnostics().getDiagnostics()) {
+        if (diagnostic.getKind() == Diagnostic.Kind.ERROR) {
+          return true;
+        }
       }
-      env.task().analyze();
-      processDiagnostics(env.diagnostics());
+      return false;
+    }
 
-      if (ErrorUtil.errorCount() == 0) {
-        for (CompilationUnitTree ast : units) {
-          com.google.devtools.j2objc.ast.CompilationUnit unit = TreeConverter
-              .convertCompilationUnit(options, env, ast);
-          processDiagnostics(env.diagnostics());
+    /**
+     * Converts each file's javac tree, passing each unit to the handler as
+     * soon as it is converted.
+     */
+    public void convert(Handler handler) {
+      for (CompilationUnitTree ast : units) {
+        com.google.devtools.j2objc.ast.CompilationUnit unit = TreeConverter
+            .convertCompilationUnit(options, env, ast);
+        processDiagnostics(env.diagnostics());
+        handler.handleParsedUnit(unit.getSourceFilePath(), unit);
+      }
+    }
+  }
+
+  /**
+   * Parses and analyzes each shard with its own javac task, concurrently. Types
+   * declared in other shards are resolved through the sourcepath, which starts
+   * with the source roots of all the shards' inputs. The converted units are
+   * passed to the handler on the calling thread, in shard order, as soon as
+   * each shard has finished.
+   */
+  private void parseShards(List<List<String>> shards, Handler handler) {
+    List<String> inputSourceRoots = new ArrayList<>();
+    for (List<String> shard : shards) {
+      inputSourceRoots.addAll(sourceRoots(shard));
+    }
+    ExecutorService executor = Executors.newFixedThreadPool(shards.size());
+    try {
+      List<Future<List<com.google.devtools.j2objc.ast.CompilationUnit>>> results =
+          new ArrayList<>();
+      for (List<String> shard : shards) {
+        results.add(executor.submit(() -> parseShard(shard, inputSourceRoots)));
+      }
+      for (Future<List<com.google.devtools.j2objc.ast.CompilationUnit>> result : results) {
+        List<com.google.devtools.j2objc.ast.CompilationUnit> units;
+        try {
+          units = result.get();
+        } catch (ExecutionException e) {
+          ErrorUtil.fatalError(e.getCause(), "javac shard");
+          continue;
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          ErrorUtil.fatalError(e, "javac shard");
+          return;
+        }
+        for (com.google.devtools.j2objc.ast.CompilationUnit unit : units) {
           handler.handleParsedUnit(unit.getSourceFilePath(), unit);
         }
       }
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  private List<com.google.devtools.j2objc.ast.CompilationUnit> parseShard(
+      List<String> paths, List<String> inputSourceRoots) {
+    List<com.google.devtools.j2objc.ast.CompilationUnit> result = new ArrayList<>();
+    try {
+      AnalyzedFiles analyzedFiles = analyzeFiles(paths, inputSourceRoots);
+      if (!analyzedFiles.hasErrors()) {
+        analyzedFiles.convert((path, unit) -> result.add(unit));
+      }
     } catch (IOException e) {
       ErrorUtil.fatalError(e, "javac file manager error");
     }
+    return result;
+  }
+
+  /**
+   * Returns the source roots of the package directories of the specified
+   * sources. Only the first source in each directory is read, to find its
+   * package; directories that don't match their package are skipped.
+   */
+  private List<String> sourceRoots(Collection<String> paths) {
+    Set<File> dirs = new HashSet<>();
+    Set<String> roots = new LinkedHashSet<>();
+    for (String path : paths) {
+      File dir = new File(path).getAbsoluteFile().getParentFile();
+      if (dir == null || !dirs.add(dir)) {
+        continue;
+      }
+      String pkg;
+      try {
+        pkg = packageName(new String(
+            Files.readAllBytes(Paths.get(path)), options.fileUtil().getCharset()));
+      } catch (IOException e) {
+        // The shard's javac task reports unreadable sources.
+        continue;
+      }
+      String dirPath = dir.getPath();
+      if (pkg == null) {
+        roots.add(dirPath);
+      } else {
+        String pkgPath = File.separatorChar + pkg.replace('.', File.separatorChar);
+        if (dirPath.endsWith(pkgPath)) {
+          roots.add(dirPath.substring(0, dirPath.length() - pkgPath.length()));
+        }
+      }
+    }
+    return new ArrayList<>(roots);
+  }
+
+  /**
+   * Splits source paths into shards, keeping the sources of each package
+   * directory together. Packages are assigned largest first to the shard with
+   * the fewest sources, so shards have similar sizes and the result does not
+   * depend on the order of the paths.
+   */
+  @VisibleForTesting
+  static List<List<String>> partitionByPackage(Collection<String> paths, int numShards) {
+    Map<String, List<String>> packages = new TreeMap<>();
+    for (String path : paths) {
+      String parent = new File(path).getParent();
+      packages.computeIfAbsent(parent != null ? parent : "", k -> new ArrayList<>()).add(path);
+    }
+    List<List<String>> packageList = new ArrayList<>(packages.values());
+    // Stable sort, so equal-sized packages keep their path order.
+    packageList.sort((a, b) -> b.size() - a.size());
+    numShards = Math.min(numShards, packageList.size());
+    List<List<String>> shards = new ArrayList<>();
+    for (int i = 0; i < numShards; i++) {
+      shards.add(new ArrayList<>());
+    }
+    for (List<String> pkg : packageList) {
+      List<String> smallest = shards.get(0);
+      for (List<String> shard : shards) {
+        if (shard.size() < smallest.size()) {
+          smallest = shard;
+        }
+      }
+      smallest.addAll(pkg);
+    }
+    return shards;
   }
 
   /**
@@ -250,9 +452,15 @@ public class JavacParser extends Parser {
   // Creates a javac environment from a collection of files and/or file objects.
   private JavacEnvironment createEnvironment(List<File> files, List<JavaFileObject> fileObjects,
       boolean processAnnotations) throws IOException {
+    return createEnvironment(files, fileObjects, processAnnotations, Collections.emptyList());
+  }
+
+  // Creates a javac environment whose sourcepath starts with the specified source roots.
+  private JavacEnvironment createEnvironment(List<File> files, List<JavaFileObject> fileObjects,
+      boolean processAnnotations, List<String> inputSourceRoots) throws IOException {
     JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
     DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
-    StandardJavaFileManager fileManager = getFileManager(compiler, diagnostics);
+    StandardJavaFileManager fileManager = getFileManager(compiler, diagnostics, inputSourceRoots);
     List<String> javacOptions = getJavacOptions(processAnnotations);
     if (fileObjects == null) {
       fileObjects = new ArrayList<>();
@@ -319,14 +527,23 @@ public class JavacParser extends Parser {
   }
 
   @Override
-  public void close() throws IOException {
-    if (fileManager != null) {
+  public synchronized void close() throws IOException {
+    IOException failure = null;
+    for (StandardJavaFileManager fileManager : fileManagers) {
       try {
         fileManager.close();
-      } finally {
-        fileManager = null;
+      } catch (IOException e) {
+        if (failure == null) {
+          failure = e;
+        } else {
+          failure.addSuppressed(e);
+        }
       }
     }
+    fileManagers.clear();
+    if (failure != null) {
+      throw failure;
+    }
   }
 
   private void collectGeneratedInputs(
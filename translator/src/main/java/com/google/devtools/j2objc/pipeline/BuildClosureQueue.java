@@ -21,7 +21,9 @@ import com.google.devtools.j2objc.util.ErrorUtil;
 import java.io.File;
 import java.io.IOException;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Set;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
@@ -46,7 +48,9 @@ public class BuildClosureQueue {
    * queue is empty.
    */
   public InputFile getNextFile() {
-    for (Iterator<String> iter = queuedNames.iterator(); iter.hasNext(); ) {
+    // Looking up a name may queue more names, from a dependency snapshot.
+    while (!queuedNames.isEmpty()) {
+      Iterator<String> iter = queuedNames.iterator();
       String name = iter.next();
       iter.remove();
       processedNames.add(name);
@@ -86,8 +90,9 @@ public class BuildClosureQueue {
     }
 
     if (inputFile == null) {
-      // Check if class exists on classpath.
-      if (findClassFile(name)) {
+      // Check if class exists on classpath. This is only logged, and loading
+      // classes is expensive, so skip it unless the message is printed.
+      if (logger.isLoggable(Level.FINEST) && findClassFile(name)) {
         logger.finest("no source for " + name + ", class found");
       }
       return null;
@@ -98,12 +103,34 @@ public class BuildClosureQueue {
         options.fileUtil().getHeaderOutputDirectory(),
         name.replace('.', File.separatorChar) + ".h");
     if (headerSource.exists() && inputFile.lastModified() < headerSource.lastModified()) {
+      if (options.closureSnapshots()) {
+        queueSnapshotDependencies(name);
+      }
       return null;
     }
 
     return inputFile;
   }
 
+  /**
+   * Queues the dependencies of an up-to-date type, from the snapshot saved
+   * when it was last translated.
+   */
+  private void queueSnapshotDependencies(String name) {
+    try {
+      List<String> dependencies = DependencySnapshot.read(options, name);
+      if (dependencies == null) {
+        logger.finest("no dependency snapshot for " + name);
+        return;
+      }
+      for (String dependency : dependencies) {
+        addName(dependency);
+      }
+    } catch (IOException e) {
+      ErrorUtil.warning(e.getMessage());
+    }
+  }
+
   private boolean findClassFile(String name) {
     InputFile f = null;
     try {
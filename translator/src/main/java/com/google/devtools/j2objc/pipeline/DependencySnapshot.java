@@ -0,0 +1,98 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.devtools.j2objc.pipeline;
+
+import com.google.devtools.j2objc.Options;
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * The types a translated source depends on, saved next to its header with
+ * -Xclosure-snapshots. When --build-closure skips a dependency because its
+ * header is newer than its source, the dependency's snapshot is read
+ * instead, so that the closure still reaches the types it depends on without
+ * parsing it again.
+ *
+ * <p>A snapshot is a magic number and version, followed by the number of
+ * dependencies and their qualified names in modified UTF-8.
+ */
+public class DependencySnapshot {
+
+  private static final String SUFFIX = ".deps";
+  private static final int MAGIC = 0x4a324453;  // "J2DS"
+  private static final int VERSION = 1;
+
+  private DependencySnapshot() {}
+
+  /**
+   * Returns the path of a type's snapshot, relative to the header output
+   * directory.
+   */
+  static String getPath(String qualifiedName) {
+    return qualifiedName.replace('.', File.separatorChar) + SUFFIX;
+  }
+
+  public static void write(
+      Options options, String qualifiedName, Collection<String> dependencies) {
+    try {
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      DataOutputStream out = new DataOutputStream(bytes);
+      out.writeInt(MAGIC);
+      out.writeShort(VERSION);
+      out.writeInt(dependencies.size());
+      for (String name : dependencies) {
+        out.writeUTF(name);
+      }
+      out.flush();
+      options.outputFileWriter().write(options.fileUtil().getHeaderOutputDirectory(),
+          getPath(qualifiedName), ByteBuffer.wrap(bytes.toByteArray()));
+    } catch (IOException e) {
+      // Only thrown by the in-memory stream, for names too long to encode.
+      throw new AssertionError(e);
+    }
+  }
+
+  /**
+   * Reads a type's snapshot. Returns null if there's no snapshot, or it was
+   * written by a different version.
+   */
+  public static List<String> read(Options options, String qualifiedName) throws IOException {
+    File file = new File(options.fileUtil().getHeaderOutputDirectory(), getPath(qualifiedName));
+    if (!file.exists()) {
+      return null;
+    }
+    try (DataInputStream in =
+        new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+      if (in.readInt() != MAGIC || in.readShort() != VERSION) {
+        return null;
+      }
+      int count = in.readInt();
+      List<String> dependencies = new ArrayList<>(count);
+      for (int i = 0; i < count; i++) {
+        dependencies.add(in.readUTF());
+      }
+      return dependencies;
+    }
+  }
+}
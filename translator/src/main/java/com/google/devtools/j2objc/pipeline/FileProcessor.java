@@ -19,20 +19,41 @@ import com.google.common.collect.Lists;
 import com.google.devtools.j2objc.Options;
 import com.google.devtools.j2objc.ast.CompilationUnit;
 import com.google.devtools.j2objc.file.InputFile;
+import com.google.devtools.j2objc.gen.GenerationUnit;
 import com.google.devtools.j2objc.util.ErrorUtil;
 import com.google.devtools.j2objc.util.FileUtil;
 import com.google.devtools.j2objc.util.Parser;
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
 import java.util.logging.Logger;
 
 /**
  * Class for processing GenerationUnits in minimum increments of one GenerationUnit.
+ * <p/>
+ * When more than one thread is requested, converted trees are translated by a
+ * worker pool, then collected on the calling thread in the order they were
+ * parsed, so the output is the same as when translating serially. Trees are
+ * only handed to the pool once their batch has been converted, and collected
+ * once the whole batch has been translated, so the calling thread doesn't use
+ * javac while workers run. This is experimental: javac completes symbols
+ * lazily, and only the queries made through TypeUtil and ElementUtil instances
+ * are serialized, so workers can still race on symbols that aren't completed.
+ * <p/>
+ * Each GenerationUnit is generated as soon as all of its inputs have been
+ * translated, so peak memory use depends on the batch size rather than on
+ * the total number of inputs.
  *
  * @author Tom Ball, Keith Stanger, Mike Thvedt
  */
@@ -45,10 +66,13 @@ abstract class FileProcessor {
   protected final Options options;
   private final Set<ProcessingContext> batchInputs = new HashSet<>();
   private final Set<ProcessingContext> outputs = new HashSet<>();
+  private final ExecutorService workers;
+  private final List<PendingUnit> pendingUnits = new ArrayList<>();
 
   public FileProcessor(Parser parser) {
     this.parser = Preconditions.checkNotNull(parser);
     this.options = parser.options();
+    workers = options.numThreads() > 1 ? new ForkJoinPool(options.numThreads()) : null;
     if (options.buildClosure()) {
       // Should be an error if the user specifies this with --build-closure
       assert !options.getHeaderMap().useSourceDirectories();
@@ -61,12 +85,18 @@ abstract class FileProcessor {
   }
 
   public void processInputs(Iterable<ProcessingContext> inputs) {
-    for (ProcessingContext input : inputs) {
-      processInput(input);
+    try {
+      for (ProcessingContext input : inputs) {
+        processInput(input);
+      }
+      processBatch();
+      processBuildClosureDependencies();
+      processOutputs(outputs);
+    } finally {
+      if (workers != null) {
+        workers.shutdown();
+      }
     }
-    processBatch();
-    processBuildClosureDependencies();
-    processOutputs(outputs);
   }
 
   private void processBuildClosureDependencies() {
@@ -114,6 +144,7 @@ abstract class FileProcessor {
 
   private void processBatch() {
     if (batchInputs.isEmpty()) {
+      finishPendingUnits();
       return;
     }
 
@@ -142,6 +173,7 @@ abstract class FileProcessor {
     }
 
     batchInputs.clear();
+    finishPendingUnits();
   }
 
   private void processCompiledSource(ProcessingContext input,
@@ -150,15 +182,139 @@ abstract class FileProcessor {
     if (closureQueue != null) {
       closureQueue.addProcessedName(FileUtil.getQualifiedMainTypeName(file, unit));
     }
+    if (workers != null) {
+      pendingUnits.add(new PendingUnit(input, unit));
+      return;
+    }
     try {
+      translateConvertedTree(input, unit);
       processConvertedTree(input, unit);
-      outputs.add(input);
+      if (isReadyForOutput(input)) {
+        processReadyOutputs(Collections.singletonList(input));
+      } else {
+        outputs.add(input);
+      }
     } catch (Throwable t) {
       // Report any uncaught exceptions.
       ErrorUtil.fatalError(t, input.getOriginalSourcePath());
     }
   }
 
+  /**
+   * Returns true if all of an input's GenerationUnit has been translated. The
+   * global combined unit gains inputs as the build closure grows, so it is only
+   * generated after all inputs are processed.
+   */
+  private boolean isReadyForOutput(ProcessingContext input) {
+    return options.globalCombinedOutput() == null && input.getGenerationUnit().isFullyParsed();
+  }
+
+  /**
+   * Generates outputs whose GenerationUnits have received all of their inputs,
+   * and forgets any other inputs that share those units.
+   */
+  private void processReadyOutputs(List<ProcessingContext> readyOutputs) {
+    Set<GenerationUnit> readyUnits = new HashSet<>();
+    for (ProcessingContext output : readyOutputs) {
+      readyUnits.add(output.getGenerationUnit());
+    }
+    outputs.removeIf(output -> readyUnits.contains(output.getGenerationUnit()));
+    processOutputs(readyOutputs);
+  }
+
+  /**
+   * Translates all converted units on the worker pool, then collects them in
+   * the order they were converted. Collecting a unit reads its symbols, so
+   * it waits until no translation is running.
+   */
+  private void finishPendingUnits() {
+    if (pendingUnits.isEmpty()) {
+      return;
+    }
+    List<Future<?>> translations = new ArrayList<>(pendingUnits.size());
+    for (PendingUnit pending : pendingUnits) {
+      translations.add(
+          workers.submit(() -> translateConvertedTree(pending.input, pending.unit)));
+    }
+    awaitAll(translations);
+    List<ProcessingContext> readyOutputs = new ArrayList<>();
+    for (int i = 0; i < pendingUnits.size(); i++) {
+      PendingUnit pending = pendingUnits.get(i);
+      try {
+        translations.get(i).get();
+        processConvertedTree(pending.input, pending.unit);
+        if (isReadyForOutput(pending.input)) {
+          readyOutputs.add(pending.input);
+        } else {
+          outputs.add(pending.input);
+        }
+      } catch (ExecutionException e) {
+        ErrorUtil.fatalError(e.getCause(), pending.input.getOriginalSourcePath());
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        ErrorUtil.fatalError(e, pending.input.getOriginalSourcePath());
+      } catch (Throwable t) {
+        ErrorUtil.fatalError(t, pending.input.getOriginalSourcePath());
+      }
+    }
+    pendingUnits.clear();
+    if (!readyOutputs.isEmpty()) {
+      processReadyOutputs(readyOutputs);
+    }
+  }
+
+  // Waits for the futures to complete, without reporting their failures.
+  private static void awaitAll(List<Future<?>> futures) {
+    for (Future<?> future : futures) {
+      try {
+        future.get();
+      } catch (ExecutionException e) {
+        // Reported when the future's unit is collected.
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      }
+    }
+  }
+
+  /**
+   * Runs a task for each of the specified values, using the worker pool when
+   * translating in parallel. Returns after all tasks have finished.
+   */
+  protected <T> void runTasks(Iterable<T> values, Consumer<T> task) {
+    if (workers == null) {
+      for (T value : values) {
+        task.accept(value);
+      }
+      return;
+    }
+    List<Future<?>> futures = new ArrayList<>();
+    for (T value : values) {
+      futures.add(workers.submit(() -> task.accept(value)));
+    }
+    for (Future<?> future : futures) {
+      try {
+        future.get();
+      } catch (ExecutionException e) {
+        ErrorUtil.fatalError(e.getCause(), "parallel translation task");
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        ErrorUtil.fatalError(e, "parallel translation task");
+      }
+    }
+  }
+
+  /**
+   * Translates a converted tree. When translating in parallel this is invoked
+   * on a worker thread, so it must only modify state owned by the unit.
+   */
+  protected abstract void translateConvertedTree(
+      ProcessingContext input, com.google.devtools.j2objc.ast.CompilationUnit unit);
+
+  /**
+   * Collects a translated tree. Always invoked on the thread that called
+   * {@link #processInputs}, in the order the trees were converted.
+   */
   protected abstract void processConvertedTree(
       ProcessingContext input, com.google.devtools.j2objc.ast.CompilationUnit unit);
 
@@ -166,6 +322,21 @@ abstract class FileProcessor {
 
   protected abstract void handleError(ProcessingContext input);
 
+  /**
+   * A converted tree waiting to be translated by the worker pool.
+   */
+  private static class PendingUnit {
+
+    private final ProcessingContext input;
+    private final com.google.devtools.j2objc.ast.CompilationUnit unit;
+
+    private PendingUnit(ProcessingContext input,
+        com.google.devtools.j2objc.ast.CompilationUnit unit) {
+      this.input = input;
+      this.unit = unit;
+    }
+  }
+
   /**
    * Maps processing contexts using their canonical paths. This allows a
    * front-end to refer to a source file using a different but equivalent
@@ -0,0 +1,478 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.devtools.j2objc.pipeline;
+
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.google.common.io.Files;
+import com.google.devtools.j2objc.Options;
+import com.google.devtools.j2objc.file.InputFile;
+import com.google.devtools.j2objc.file.RegularInputFile;
+import com.google.devtools.j2objc.util.ErrorUtil;
+import com.google.devtools.j2objc.util.FileUtil;
+import com.google.devtools.j2objc.util.Version;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.logging.Logger;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * A persistent cache of generated sources, so that unchanged sources are
+ * copied to the output directories instead of being translated again.
+ * <p/>
+ * An entry is keyed by a hash of the source's path and contents, and of the
+ * environment it was translated in: the translator version, the command-line
+ * flags and the contents of the files they name, the classpath and the jar
+ * inputs. A source's translation also depends on the sources of the types it
+ * references, so each entry records the source files of the types its outputs
+ * import, and of their supertypes, with their hashes. An entry is only
+ * restored while those files are unchanged, so editing a source only
+ * invalidates the entries that depend on it. Unlike the modification time
+ * check of --build-closure, nothing depends on file times, so entries can be
+ * reused from a clean checkout.
+ * <p/>
+ * Entries are directories holding a manifest and the generated files. When
+ * the cache grows beyond its maximum size, the least recently used entries
+ * are removed.
+ */
+public class TranslationCache {
+
+  private static final Logger logger = Logger.getLogger(TranslationCache.class.getName());
+  private static final String MANIFEST = "manifest";
+  private static final String HEADER_TAG = "h ";
+  private static final String IMPLEMENTATION_TAG = "m ";
+  private static final String DEPENDENCY_TAG = "d ";
+  private static final String TMP_SUFFIX = ".tmp";
+
+  private final Options options;
+  private final File cacheDir;
+  private final Map<ProcessingContext, String> keys = new HashMap<>();
+  private final Map<ProcessingContext, Set<String>> dependencies = new HashMap<>();
+  // The original paths of the cacheable inputs, which javac may read from stripped copies.
+  private final Map<ProcessingContext, String> sourcePaths = new HashMap<>();
+  // Maps the paths javac read the inputs from to their original paths, once they're parsed.
+  private Map<String, String> originalPaths = null;
+  // The hashes of the dependency sources read by this translation.
+  private final Map<String, String> dependencyHashes = new HashMap<>();
+  // Directories that are not part of the translation environment.
+  private final Set<File> excludedDirs = new HashSet<>();
+  private final List<String> restoredSources = new ArrayList<>();
+  private int hits = 0;
+  private int misses = 0;
+  private int stored = 0;
+
+  private TranslationCache(Options options) throws IOException {
+    this.options = options;
+    this.cacheDir = options.translationCacheDir();
+    excludedDirs.add(cacheDir.getCanonicalFile());
+    excludedDirs.add(options.fileUtil().getOutputDirectory().getCanonicalFile());
+    excludedDirs.add(options.fileUtil().getHeaderOutputDirectory().getCanonicalFile());
+  }
+
+  /**
+   * Returns a cache for the specified inputs, or null if the cache is disabled
+   * or can't be used with the current flags.
+   */
+  public static TranslationCache create(Options options, List<ProcessingContext> inputs) {
+    if (options.translationCacheDir() == null) {
+      return null;
+    }
+    // The outputs of these modes depend on sources that aren't inputs, or are shared by
+    // several inputs.
+    if (options.buildClosure() || options.globalCombinedOutput() != null
+        || options.getHeaderMap().useSourceDirectories() || options.dumpAST()) {
+      logger.fine("translation cache is not supported with the specified flags");
+      return null;
+    }
+    try {
+      TranslationCache cache = new TranslationCache(options);
+      cache.computeKeys(inputs);
+      return cache;
+    } catch (IOException e) {
+      ErrorUtil.warning("translation cache disabled: " + e.getMessage());
+      return null;
+    }
+  }
+
+  private void computeKeys(List<ProcessingContext> inputs) throws IOException {
+    List<ProcessingContext> cacheableInputs = new ArrayList<>();
+    Set<String> jarInputs = new HashSet<>();
+    for (ProcessingContext input : inputs) {
+      if (isCacheable(input.getFile())) {
+        cacheableInputs.add(input);
+      } else {
+        // Jar entries aren't cached, but the types they declare may be referenced by sources
+        // that are, so their jars are signed.
+        jarInputs.add(input.getFile().getAbsolutePath());
+      }
+    }
+
+    Hasher env = Hashing.sha256().newHasher();
+    putString(env, Version.jarVersion(Options.class));
+    putString(env, options.expandedArgs());
+    // The arguments only name these files, so their contents are signed too.
+    for (String path : options.flagFiles()) {
+      putPathSignature(env, new File(path));
+    }
+    List<String> jarInputList = new ArrayList<>(jarInputs);
+    Collections.sort(jarInputList);
+    for (String path : jarInputList) {
+      putPathSignature(env, new File(path));
+    }
+    for (String path : options.fileUtil().getClassPathEntries()) {
+      putPathSignature(env, new File(path));
+    }
+    // The sources of sourcepath directories are recorded by each entry that depends on them,
+    // but the types of sourcepath jars aren't read from source files.
+    for (String path : options.fileUtil().getSourcePathEntries()) {
+      if (isJar(path)) {
+        putPathSignature(env, new File(path));
+      }
+    }
+    for (String path : options.getBootClasspath()) {
+      putPathSignature(env, new File(path));
+    }
+    HashCode envHash = env.hash();
+
+    for (ProcessingContext input : cacheableInputs) {
+      String path = input.getFile().getAbsolutePath();
+      Hasher key = Hashing.sha256().newHasher();
+      key.putBytes(envHash.asBytes());
+      putString(key, input.getOriginalSourcePath());
+      putString(key, hashFile(path));
+      keys.put(input, key.hash().toString());
+      sourcePaths.put(input, path);
+    }
+  }
+
+  private static boolean isJar(String path) {
+    return path.endsWith(".jar") || path.endsWith(".zip");
+  }
+
+  private static String hashFile(String path) throws IOException {
+    return Files.asByteSource(new File(path)).hash(Hashing.sha256()).toString();
+  }
+
+  /**
+   * Returns the hash of a dependency source, or null if it can't be read. Each
+   * file is only read once, since many entries share their dependencies.
+   */
+  private String dependencyHash(String path) {
+    if (!dependencyHashes.containsKey(path)) {
+      String hash = null;
+      try {
+        if (new File(path).isFile()) {
+          hash = hashFile(path);
+        }
+      } catch (IOException e) {
+        logger.fine("unable to read translation cache dependency " + path + ": " + e);
+      }
+      dependencyHashes.put(path, hash);
+    }
+    return dependencyHashes.get(path);
+  }
+
+  private static boolean isCacheable(InputFile file) {
+    return file instanceof RegularInputFile && file.getUnitName().endsWith(".java");
+  }
+
+  private static void putString(Hasher hasher, String s) {
+    hasher.putInt(s.length());
+    hasher.putString(s, StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Adds a signature of a classpath entry or a file named by a flag. Jars are signed by the
+   * names and checksums in their central directory, which doesn't require
+   * reading their entries. Directories are signed by the contents of their files.
+   */
+  private void putPathSignature(Hasher hasher, File path) throws IOException {
+    putString(hasher, path.getPath());
+    if (path.isDirectory()) {
+      if (excludedDirs.contains(path.getCanonicalFile())) {
+        return;
+      }
+      File[] children = path.listFiles();
+      if (children != null) {
+        Arrays.sort(children);
+        for (File child : children) {
+          putPathSignature(hasher, child);
+        }
+      }
+    } else if (isJar(path.getName())) {
+      try (ZipFile zip = new ZipFile(path)) {
+        for (Enumeration<? extends ZipEntry> e = zip.entries(); e.hasMoreElements(); ) {
+          ZipEntry entry = e.nextElement();
+          putString(hasher, entry.getName());
+          hasher.putLong(entry.getCrc());
+          hasher.putLong(entry.getSize());
+        }
+      }
+    } else if (path.isFile()) {
+      hasher.putBytes(Files.toByteArray(path));
+    }
+  }
+
+  /**
+   * Copies the cached outputs of any inputs that have them, returning the
+   * inputs that still need to be translated.
+   */
+  public List<ProcessingContext> restore(List<ProcessingContext> inputs) {
+    List<ProcessingContext> remaining = new ArrayList<>();
+    for (ProcessingContext input : inputs) {
+      String key = keys.get(input);
+      if (key != null && restoreEntry(new File(cacheDir, key))) {
+        hits++;
+        restoredSources.add(input.getFile().getAbsolutePath());
+      } else {
+        misses++;
+        remaining.add(input);
+      }
+    }
+    return remaining;
+  }
+
+  /**
+   * Returns the paths of the inputs whose outputs were restored. The remaining
+   * inputs may still reference the types they declare.
+   */
+  public List<String> getRestoredSources() {
+    return restoredSources;
+  }
+
+  private boolean restoreEntry(File entryDir) {
+    File manifest = new File(entryDir, MANIFEST);
+    if (!manifest.exists()) {
+      return false;
+    }
+    try {
+      List<String> lines = Files.readLines(manifest, StandardCharsets.UTF_8);
+      List<String> outputLines = new ArrayList<>();
+      for (String line : lines) {
+        if (!line.startsWith(DEPENDENCY_TAG)) {
+          outputLines.add(line);
+          continue;
+        }
+        // "d <hash> <path>": the entry is stale if the dependency changed.
+        int pathStart = line.indexOf(' ', DEPENDENCY_TAG.length());
+        if (pathStart < 0 || !line.substring(DEPENDENCY_TAG.length(), pathStart)
+            .equals(dependencyHash(line.substring(pathStart + 1)))) {
+          return false;
+        }
+      }
+      for (String line : outputLines) {
+        File source = entryFile(entryDir, line);
+        File outputDirectory = outputDirectory(line);
+        if (outputDirectory == null || !source.exists()) {
+          return false;
+        }
+        options.outputFileWriter().copy(source, outputDirectory, outputPath(line));
+      }
+      // Record the use, for LRU eviction.
+      entryDir.setLastModified(System.currentTimeMillis());
+      return true;
+    } catch (IOException e) {
+      logger.fine("ignoring unreadable translation cache entry " + entryDir + ": " + e);
+      return false;
+    }
+  }
+
+  private static File entryFile(File entryDir, String manifestLine) {
+    // Headers and implementations are kept in separate directories, like the outputs.
+    return new File(entryDir, manifestLine.replaceFirst(" ", File.separator));
+  }
+
+  private File outputDirectory(String manifestLine) {
+    if (manifestLine.startsWith(HEADER_TAG)) {
+      return options.fileUtil().getHeaderOutputDirectory();
+    } else if (manifestLine.startsWith(IMPLEMENTATION_TAG)) {
+      return options.fileUtil().getOutputDirectory();
+    }
+    return null;
+  }
+
+  // Both tags are the same length.
+  private static String outputPath(String manifestLine) {
+    return manifestLine.substring(HEADER_TAG.length());
+  }
+
+  private File outputFile(String manifestLine) {
+    File outputDirectory = outputDirectory(manifestLine);
+    return outputDirectory != null ? new File(outputDirectory, outputPath(manifestLine)) : null;
+  }
+
+  /**
+   * Records the source files of the types an input's translation depends on,
+   * as javac read them.
+   */
+  public void addDependencies(ProcessingContext input, Collection<String> sourceFiles) {
+    if (!keys.containsKey(input)) {
+      return;
+    }
+    if (originalPaths == null) {
+      originalPaths = new HashMap<>();
+      for (Map.Entry<ProcessingContext, String> entry : sourcePaths.entrySet()) {
+        originalPaths.put(entry.getKey().getFile().getAbsolutePath(), entry.getValue());
+      }
+    }
+    Set<String> paths = dependencies.computeIfAbsent(input, k -> new TreeSet<>());
+    for (String path : sourceFiles) {
+      paths.add(originalPaths.getOrDefault(path, path));
+    }
+    // The input's own contents are already part of its key.
+    paths.remove(sourcePaths.get(input));
+  }
+
+  /**
+   * Adds the generated outputs of the specified translated inputs, then
+   * evicts entries if the cache is over its maximum size.
+   */
+  public void store(List<ProcessingContext> inputs) {
+    for (ProcessingContext input : inputs) {
+      String key = keys.get(input);
+      String outputPath = input.getGenerationUnit().getOutputPath();
+      if (key == null || outputPath == null) {
+        continue;
+      }
+      List<String> lines = new ArrayList<>();
+      lines.add(HEADER_TAG + outputPath + options.getLanguage().headerSuffix());
+      lines.add(IMPLEMENTATION_TAG + outputPath + options.getLanguage().suffix());
+      if (!addDependencyLines(input, lines)) {
+        continue;
+      }
+      try {
+        if (storeEntry(key, lines)) {
+          stored++;
+        }
+      } catch (IOException e) {
+        logger.fine("unable to store translation cache entry for "
+            + input.getOriginalSourcePath() + ": " + e);
+      }
+    }
+    evict();
+  }
+
+  // Returns false if a dependency can't be read, so the input can't be cached.
+  private boolean addDependencyLines(ProcessingContext input, List<String> lines) {
+    Set<String> sourceFiles = dependencies.get(input);
+    if (sourceFiles == null) {
+      return true;
+    }
+    for (String path : sourceFiles) {
+      String hash = dependencyHash(path);
+      if (hash == null) {
+        return false;
+      }
+      lines.add(DEPENDENCY_TAG + hash + ' ' + path);
+    }
+    return true;
+  }
+
+  private boolean storeEntry(String key, List<String> lines) throws IOException {
+    File entryDir = new File(cacheDir, key);
+    cacheDir.mkdirs();
+    // Build the entry in a temporary directory and rename it, so that concurrent
+    // translations never see a partial entry.
+    File tmpDir = new File(cacheDir, key + TMP_SUFFIX + System.nanoTime());
+    try {
+      for (String line : lines) {
+        if (line.startsWith(DEPENDENCY_TAG)) {
+          continue;
+        }
+        File output = outputFile(line);
+        if (output == null || !output.exists()) {
+          return false;
+        }
+        File copy = entryFile(tmpDir, line);
+        copy.getParentFile().mkdirs();
+        Files.copy(output, copy);
+      }
+      Files.asCharSink(new File(tmpDir, MANIFEST), StandardCharsets.UTF_8)
+          .writeLines(lines, "\n");
+      // An existing entry for the same source was stale, since the source wasn't restored.
+      if (entryDir.exists()) {
+        FileUtil.deleteTempDir(entryDir);
+      }
+      return tmpDir.renameTo(entryDir);
+    } finally {
+      FileUtil.deleteTempDir(tmpDir);
+    }
+  }
+
+  /**
+   * Removes the least recently used entries until the cache is no larger than
+   * its maximum size.
+   */
+  private void evict() {
+    // Entries that are still being built, possibly by another translation, are skipped.
+    File[] entries = cacheDir.listFiles(
+        file -> file.isDirectory() && !file.getName().contains(TMP_SUFFIX));
+    if (entries == null) {
+      return;
+    }
+    Map<File, Long> sizes = new HashMap<>();
+    long totalSize = 0;
+    for (File entry : entries) {
+      long size = size(entry);
+      sizes.put(entry, size);
+      totalSize += size;
+    }
+    long maxSize = options.translationCacheSize();
+    if (totalSize <= maxSize) {
+      return;
+    }
+    Arrays.sort(entries, (a, b) -> Long.compare(a.lastModified(), b.lastModified()));
+    for (File entry : entries) {
+      if (totalSize <= maxSize) {
+        break;
+      }
+      FileUtil.deleteTempDir(entry);
+      totalSize -= sizes.get(entry);
+    }
+  }
+
+  private static long size(File file) {
+    if (file.isFile()) {
+      return file.length();
+    }
+    long size = 0;
+    File[] children = file.listFiles();
+    if (children != null) {
+      for (File child : children) {
+        size += size(child);
+      }
+    }
+    return size;
+  }
+
+  public void printStatistics(PrintStream out) {
+    out.printf("translation cache: %d hits, %d misses, %d stored\n", hits, misses, stored);
+  }
+}
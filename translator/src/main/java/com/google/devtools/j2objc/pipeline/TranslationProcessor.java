@@ -15,9 +15,14 @@
 package com.google.devtools.j2objc.pipeline;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.devtools.j2objc.ast.AbstractTypeDeclaration;
 import com.google.devtools.j2objc.ast.CompilationUnit;
 import com.google.devtools.j2objc.ast.DebugASTDump;
+import com.google.devtools.j2objc.ast.FusedTreeVisitor;
+import com.google.devtools.j2objc.ast.NativeDeclaration;
+import com.google.devtools.j2objc.gen.GeneratedType;
 import com.google.devtools.j2objc.gen.GenerationUnit;
+import com.google.devtools.j2objc.gen.HeaderIncludeGraph;
 import com.google.devtools.j2objc.gen.ObjectiveCHeaderGenerator;
 import com.google.devtools.j2objc.gen.ObjectiveCImplementationGenerator;
 import com.google.devtools.j2objc.gen.ObjectiveCSegmentedHeaderGenerator;
@@ -60,19 +65,26 @@ import com.google.devtools.j2objc.translate.SwitchRewriter;
 import com.google.devtools.j2objc.translate.UnsequencedExpressionRewriter;
 import com.google.devtools.j2objc.translate.VarargsRewriter;
 import com.google.devtools.j2objc.translate.VariableRenamer;
-import com.google.devtools.j2objc.types.HeaderImportCollector;
 import com.google.devtools.j2objc.types.ImplementationImportCollector;
 import com.google.devtools.j2objc.types.Import;
 import com.google.devtools.j2objc.util.CodeReferenceMap;
+import com.google.devtools.j2objc.util.ElementUtil;
 import com.google.devtools.j2objc.util.ErrorUtil;
 import com.google.devtools.j2objc.util.ExternalAnnotations;
+import com.google.devtools.j2objc.util.FileUtil;
 import com.google.devtools.j2objc.util.Parser;
 import com.google.devtools.j2objc.util.TimeTracker;
-import java.util.ArrayList;
+import java.io.File;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import javax.lang.model.element.TypeElement;
 
 /**
  * Processes source files by translating each source into an Objective-C header
@@ -85,36 +97,61 @@ public class TranslationProcessor extends FileProcessor {
   private static final Logger logger = Logger.getLogger(TranslationProcessor.class.getName());
 
   private final CodeReferenceMap deadCodeMap;
-  private final List<GenerationUnit> outputs = new ArrayList<>();
+  // Types generated by translateConvertedTree(), waiting to be collected by processConvertedTree().
+  private final Map<CompilationUnit, List<GeneratedType>> translatedTypes =
+      new ConcurrentHashMap<>();
   private int processedCount = 0;
+  private final HeaderIncludeGraph includeGraph;
+  private TranslationCache translationCache = null;
 
   public TranslationProcessor(Parser parser, CodeReferenceMap deadCodeMap) {
     super(parser);
     this.deadCodeMap = deadCodeMap;
+    includeGraph = options.includeReport() ? new HeaderIncludeGraph() : null;
+  }
+
+  /**
+   * Sets the cache that records the sources each translated input depends on.
+   */
+  public void setTranslationCache(TranslationCache cache) {
+    translationCache = cache;
   }
 
   @Override
-  protected void processConvertedTree(ProcessingContext input, CompilationUnit unit) {
+  protected void translateConvertedTree(ProcessingContext input, CompilationUnit unit) {
     String unitName = input.getOriginalSourcePath();
     if (logger.isLoggable(Level.INFO)) {
       System.out.println("translating " + unitName);
     }
-    TimeTracker ticker = TimeTracker.getTicker(unitName, options.timingLevel());
+    TimeTracker ticker = TimeTracker.getTicker(unitName, options);
     if (options.dumpAST()) {
       // Dump compilation unit to an .ast output file instead of translating.
       DebugASTDump.dumpUnit(unit);
     } else {
       applyMutations(unit, deadCodeMap, options.externalAnnotations(), ticker);
       ticker.tick("Tree mutations");
+      translatedTypes.put(unit, GenerationUnit.generateTypes(unit));
+      ticker.tick("Type generation");
       ticker.printResults(System.out);
+    }
+  }
 
+  @Override
+  protected void processConvertedTree(ProcessingContext input, CompilationUnit unit) {
+    if (!options.dumpAST()) {
       GenerationUnit genUnit = input.getGenerationUnit();
-      genUnit.addCompilationUnit(unit);
-      outputs.add(genUnit);
-
-      // Add out-of-date dependencies to translation list.
-      if (closureQueue != null) {
-        checkDependencies(unit);
+      List<GeneratedType> types = translatedTypes.remove(unit);
+      genUnit.addCompilationUnit(unit, types);
+
+      if (closureQueue != null || translationCache != null) {
+        Set<Import> imports = collectImports(unit, types);
+        // Add out-of-date dependencies to translation list.
+        if (closureQueue != null) {
+          checkDependencies(input, unit, imports);
+        }
+        if (translationCache != null) {
+          translationCache.addDependencies(input, getDependencySources(unit, imports));
+        }
       }
     }
     processedCount++;
@@ -122,9 +159,17 @@ public class TranslationProcessor extends FileProcessor {
 
   @Override
   protected void processOutputs(Iterable<ProcessingContext> outputs) {
+    // Combined outputs are shared by several inputs, but only need to be generated once.
+    Set<GenerationUnit> generationUnits = new LinkedHashSet<>();
     for (ProcessingContext output : outputs) {
-      generateObjectiveCSource(output.getGenerationUnit());
+      generationUnits.add(output.getGenerationUnit());
     }
+    if (includeGraph != null) {
+      for (GenerationUnit unit : generationUnits) {
+        includeGraph.addUnit(unit);
+      }
+    }
+    runTasks(generationUnits, TranslationProcessor::generateObjectiveCSource);
   }
 
   /**
@@ -165,13 +210,13 @@ public class TranslationProcessor extends FileProcessor {
     new GwtConverter(unit).run();
     ticker.tick("GwtConverter");
 
-    // Remove serialization related members if needed.
-    new SerializationStripper(unit).run();
-    ticker.tick("SerializationStripper");
-
-    // Add default equals/hashCode methods to Number subclasses, if necessary.
-    new NumberMethodRewriter(unit).run();
-    ticker.tick("NumberMethodRewriter");
+    // Remove serialization related members if needed, and add default
+    // equals/hashCode methods to Number subclasses, if necessary.
+    // Fused: Both only edit the members of the type being visited.
+    unit.accept(new FusedTreeVisitor(
+        new SerializationStripper(unit),
+        new NumberMethodRewriter(unit)));
+    ticker.tick("SerializationStripper+NumberMethodRewriter");
 
     // Before: Rewriter - Pruning unreachable statements must happen before
     //   rewriting labeled break statements.
@@ -231,41 +276,43 @@ public class TranslationProcessor extends FileProcessor {
     unit.accept(new LabelRewriter());
     ticker.tick("LabelRewriter");
 
+    // VarargsRewriter:
     // Before: ArrayRewriter - Adds ArrayCreation nodes.
     // Before: Functionizer - Can't rewrite function arguments.
-    new VarargsRewriter(unit).run();
-    ticker.tick("VarargsRewriter");
-
-    new JavaCloneWriter(unit).run();
-    ticker.tick("JavaCloneWriter");
-
-    new OcniExtractor(unit, deadCodeMap).run();
-    ticker.tick("OcniExtractor");
+    // Fused: VarargsRewriter only edits invocations and array initializers,
+    //   the others only edit the declarations being visited, and the methods
+    //   JavaCloneWriter adds need neither varargs rewriting nor OCNI extraction.
+    unit.accept(new FusedTreeVisitor(
+        new VarargsRewriter(unit),
+        new JavaCloneWriter(unit),
+        new OcniExtractor(unit, deadCodeMap)));
+    ticker.tick("VarargsRewriter+JavaCloneWriter+OcniExtractor");
 
     // Before: AnnotationRewriter - Needs AnnotationRewriter to add the
     //   annotation metadata to the generated package-info type.
     PackageInfoRewriter.run(unit);
     ticker.tick("PackageInfoRewriter");
 
+    // AnnotationRewriter:
     // Before: DestructorGenerator - Annotation types need a destructor to
     //   release the added fields.
-    new AnnotationRewriter(unit).run();
-    ticker.tick("AnnotationRewriter");
-
+    // EnumRewriter:
     // Before: Functionizer - Edits constructor invocations before they are
     //   functionized.
-    new EnumRewriter(unit).run();
-    ticker.tick("EnumRewriter");
-
-    // Add dealloc/finalize method(s), if necessary.  This is done
-    // after inner class extraction, so that each class releases
-    // only its own instance variables.
-    new DestructorGenerator(unit).run();
-    ticker.tick("DestructorGenerator");
-
+    // DestructorGenerator: Add dealloc/finalize method(s), if necessary. This
+    //   is done after inner class extraction, so that each class releases
+    //   only its own instance variables.
+    // MetadataWriter:
     // Before: StaticVarRewriter - Generates static variable access expressions.
-    new MetadataWriter(unit, deadCodeMap).run();
-    ticker.tick("MetadataWriter");
+    // Fused: Types are all top-level by now, and each of these passes only
+    //   edits the type declaration being visited, which the later ones see
+    //   completed by the earlier ones, as when run separately.
+    unit.accept(new FusedTreeVisitor(
+        new AnnotationRewriter(unit),
+        new EnumRewriter(unit),
+        new DestructorGenerator(unit),
+        new MetadataWriter(unit, deadCodeMap)));
+    ticker.tick("AnnotationRewriter+EnumRewriter+DestructorGenerator+MetadataWriter");
 
     // Before: Functionizer - Needs to rewrite some ClassInstanceCreation nodes
     //   before Functionizer does.
@@ -302,7 +349,7 @@ public class TranslationProcessor extends FileProcessor {
     // Breaks up deeply nested expressions such as chained method calls.
     // Should be one of the last translations because other mutations will
     // affect how deep the expressions are.
-    unit.accept(new ComplexExpressionExtractor());
+    unit.accept(new ComplexExpressionExtractor(unit.getEnv().options().maxExpressionDepth()));
     ticker.tick("ComplexExpressionExtractor");
 
     // Should be one of the last translations because methods and functions
@@ -330,7 +377,7 @@ public class TranslationProcessor extends FileProcessor {
   public static void generateObjectiveCSource(GenerationUnit unit) {
     assert unit.getOutputPath() != null;
     assert unit.isFullyParsed();
-    TimeTracker ticker = TimeTracker.getTicker(unit.getSourceName(), unit.options().timingLevel());
+    TimeTracker ticker = TimeTracker.getTicker(unit.getSourceName(), unit.options());
     logger.fine("Generating " + unit.getOutputPath());
     logger.finest("writing source file(s) to "
         + unit.options().fileUtil().getOutputDirectory().getAbsolutePath());
@@ -370,22 +417,117 @@ public class TranslationProcessor extends FileProcessor {
           nFiles, nFiles == 1 ? "file" : "files", ErrorUtil.errorCount(),
           ErrorUtil.warningCount()));
     }
+    if (includeGraph != null) {
+      includeGraph.printReport(System.out, options.generateSegmentedHeaders());
+    }
+    if (options.metadataReport() != null) {
+      options.metadataReport().print(System.out);
+    }
+    if (options.nilCheckReport() != null) {
+      options.nilCheckReport().print(System.out);
+    }
+    if (options.literalReport() != null) {
+      options.literalReport().print(System.out);
+    }
   }
 
-  private void checkDependencies(CompilationUnit unit) {
-    HeaderImportCollector hdrCollector =
-        new HeaderImportCollector(unit, HeaderImportCollector.Filter.INCLUDE_ALL);
-    hdrCollector.run();
+  /**
+   * Returns the types referenced by a unit, using the imports already collected
+   * when its types were generated.
+   */
+  private static Set<Import> collectImports(CompilationUnit unit, List<GeneratedType> types) {
+    // Only the declarations outside the unit's types haven't been visited yet.
     ImplementationImportCollector implCollector = new ImplementationImportCollector(unit);
-    implCollector.run();
-    Set<Import> imports = hdrCollector.getForwardDeclarations();
-    imports.addAll(hdrCollector.getSuperTypes());
-    imports.addAll(implCollector.getImports());
+    if (unit.getPackage() != null) {
+      unit.getPackage().accept(implCollector);
+    }
+    for (NativeDeclaration nativeBlock : unit.getNativeBlocks()) {
+      nativeBlock.accept(implCollector);
+    }
+    Set<Import> imports = implCollector.getImports();
+    for (GeneratedType type : types) {
+      imports.addAll(type.getHeaderForwardDeclarations());
+      imports.addAll(type.getHeaderIncludes());
+      imports.addAll(type.getImplementationForwardDeclarations());
+      imports.addAll(type.getImplementationIncludes());
+    }
+    return imports;
+  }
+
+  /**
+   * Returns the source files of the types a unit's translation depends on: the
+   * types it references and declares, their supertypes, whose members it may
+   * use or override without referencing them, and the package-info.java files
+   * of their packages.
+   */
+  private static Set<String> getDependencySources(CompilationUnit unit, Set<Import> imports) {
+    Set<TypeElement> types = new HashSet<>();
+    for (Import imp : imports) {
+      String qualifiedName = imp.getJavaQualifiedName();
+      TypeElement type =
+          qualifiedName != null ? unit.getEnv().typeUtil().resolveJavaType(qualifiedName) : null;
+      if (type != null) {
+        addSupertypes(type, types);
+      }
+    }
+    for (AbstractTypeDeclaration type : unit.getTypes()) {
+      addSupertypes(type.getTypeElement(), types);
+    }
+    Set<String> sources = new TreeSet<>();
+    for (TypeElement type : types) {
+      String sourceFile = ElementUtil.getSourceFile(type);
+      // Types read from classfiles and jars are signed with the classpath.
+      if (sourceFile == null || !sourceFile.endsWith(".java") || !new File(sourceFile).isFile()) {
+        continue;
+      }
+      File file = new File(sourceFile).getAbsoluteFile();
+      sources.add(file.getPath());
+      File packageInfo = new File(file.getParentFile(), "package-info.java");
+      if (packageInfo.isFile()) {
+        sources.add(packageInfo.getPath());
+      }
+    }
+    return sources;
+  }
+
+  private static void addSupertypes(TypeElement type, Set<TypeElement> types) {
+    if (type == null || !types.add(type)) {
+      return;
+    }
+    addSupertypes(ElementUtil.getSuperclass(type), types);
+    for (TypeElement intrface : ElementUtil.getInterfaces(type)) {
+      addSupertypes(intrface, types);
+    }
+  }
+
+  /**
+   * Queues the types referenced by a unit. With -Xclosure-snapshots, the
+   * referenced types are also saved, for when the unit is skipped as up to
+   * date.
+   */
+  private void checkDependencies(
+      ProcessingContext input, CompilationUnit unit, Set<Import> imports) {
+    Set<String> dependencies = new TreeSet<>();
     for (Import imp : imports) {
       String qualifiedName = imp.getJavaQualifiedName();
       if (qualifiedName != null) {
+        dependencies.add(qualifiedName);
         closureQueue.addName(qualifiedName);
       }
     }
+    if (options.closureSnapshots()) {
+      // The closure looks up each top-level type by its own name, so each gets a snapshot.
+      Set<String> names = new LinkedHashSet<>();
+      names.add(FileUtil.getQualifiedMainTypeName(input.getFile(), unit));
+      for (AbstractTypeDeclaration type : unit.getTypes()) {
+        TypeElement element = type.getTypeElement();
+        if (ElementUtil.isTopLevel(element)) {
+          names.add(ElementUtil.getQualifiedName(element));
+        }
+      }
+      for (String name : names) {
+        DependencySnapshot.write(options, name, dependencies);
+      }
+    }
   }
 }
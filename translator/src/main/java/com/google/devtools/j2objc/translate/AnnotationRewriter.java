@@ -85,7 +85,7 @@ public class AnnotationRewriter extends UnitTreeVisitor {
     Map<ExecutableElement, VariableElement> fieldElements = new HashMap<>();
     for (AnnotationTypeMemberDeclaration member : members) {
       ExecutableElement memberElement = member.getExecutableElement();
-      String propName = NameTable.getAnnotationPropertyName(memberElement);
+      String propName = nameTable.getAnnotationPropertyName(memberElement);
       VariableElement field = GeneratedVariableElement.newField(
           propName, memberElement.getReturnType(), type);
       node.addBodyDeclaration(new FieldDeclaration(field, null));
@@ -105,7 +105,7 @@ public class AnnotationRewriter extends UnitTreeVisitor {
     StringBuilder propertyImpls = new StringBuilder();
     for (AnnotationTypeMemberDeclaration member : members) {
       ExecutableElement memberElement = member.getExecutableElement();
-      String propName = NameTable.getAnnotationPropertyName(memberElement);
+      String propName = nameTable.getAnnotationPropertyName(memberElement);
       String memberTypeStr = nameTable.getObjCType(memberElement.getReturnType());
 
       String fieldName = nameTable.getVariableShortName(fieldElements.get(memberElement));
@@ -133,7 +133,7 @@ public class AnnotationRewriter extends UnitTreeVisitor {
       }
 
       TypeMirror memberType = memberElement.getReturnType();
-      String propName = NameTable.getAnnotationPropertyName(memberElement);
+      String propName = nameTable.getAnnotationPropertyName(memberElement);
 
       ExecutableElement defaultGetterElement = GeneratedExecutableElement.newMethodWithSelector(
           propName + "Default", memberType, type)
@@ -163,7 +163,7 @@ public class AnnotationRewriter extends UnitTreeVisitor {
 
     for (ExecutableElement memberElement : ElementUtil.getSortedAnnotationMembers(type)) {
       TypeMirror memberType = memberElement.getReturnType();
-      String propName = NameTable.getAnnotationPropertyName(memberElement);
+      String propName = nameTable.getAnnotationPropertyName(memberElement);
       String fieldName = nameTable.getVariableShortName(fieldElements.get(memberElement));
 
       VariableElement param = GeneratedVariableElement.newParameter(propName, memberType, null);
@@ -206,7 +206,7 @@ public class AnnotationRewriter extends UnitTreeVisitor {
       while (iter.hasNext()) {
         AnnotationTypeMemberDeclaration member = iter.next();
         ExecutableElement memberElement = member.getExecutableElement();
-        String propName = NameTable.getAnnotationPropertyName(memberElement);
+        String propName = nameTable.getAnnotationPropertyName(memberElement);
         String fieldName = nameTable.getVariableShortName(fieldElements.get(memberElement));
 
         description.append(
@@ -0,0 +1,306 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.devtools.j2objc.translate;
+
+import com.google.common.collect.Sets;
+import com.google.devtools.j2objc.ast.ArrayAccess;
+import com.google.devtools.j2objc.ast.Assignment;
+import com.google.devtools.j2objc.ast.CompilationUnit;
+import com.google.devtools.j2objc.ast.Expression;
+import com.google.devtools.j2objc.ast.FieldAccess;
+import com.google.devtools.j2objc.ast.ForStatement;
+import com.google.devtools.j2objc.ast.FunctionInvocation;
+import com.google.devtools.j2objc.ast.InfixExpression;
+import com.google.devtools.j2objc.ast.NumberLiteral;
+import com.google.devtools.j2objc.ast.ParenthesizedExpression;
+import com.google.devtools.j2objc.ast.PostfixExpression;
+import com.google.devtools.j2objc.ast.PrefixExpression;
+import com.google.devtools.j2objc.ast.QualifiedName;
+import com.google.devtools.j2objc.ast.TreeNode;
+import com.google.devtools.j2objc.ast.TreeUtil;
+import com.google.devtools.j2objc.ast.TreeVisitor;
+import com.google.devtools.j2objc.ast.UnitTreeVisitor;
+import com.google.devtools.j2objc.ast.VariableDeclarationExpression;
+import com.google.devtools.j2objc.ast.VariableDeclarationFragment;
+import com.google.devtools.j2objc.util.ElementUtil;
+import com.google.devtools.j2objc.util.TypeUtil;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+
+/**
+ * Finds the primitive array accesses whose index is known to be in bounds, so
+ * that ArrayRewriter can access the array's buffer without a range check.
+ *
+ * <p>Recognizes counted loops over an array that the loop doesn't reassign,
+ * and that only change the index in their updater:
+ * <pre>
+ *   for (int i = 0; i < a.length; i++) { ... a[i] ... }
+ *   for (int i = a.length - 1; i >= 0; i--) { ... a[i] ... }
+ * </pre>
+ * The array may be a local variable, a parameter, or a final field qualified
+ * by such variables or "this".
+ */
+class ArrayBoundsAnalyzer extends UnitTreeVisitor {
+
+  private final Set<ArrayAccess> inBoundsAccesses = Sets.newIdentityHashSet();
+  // The counted loops enclosing the visited node.
+  private final List<CountedLoop> loops = new ArrayList<>();
+
+  ArrayBoundsAnalyzer(CompilationUnit unit) {
+    super(unit);
+  }
+
+  /**
+   * Returns true if the array access was found to be in bounds.
+   */
+  boolean isInBounds(ArrayAccess node) {
+    return inBoundsAccesses.contains(node);
+  }
+
+  private static class CountedLoop {
+    private final VariableElement index;
+    private final List<VariableElement> array;
+
+    private CountedLoop(VariableElement index, List<VariableElement> array) {
+      this.index = index;
+      this.array = array;
+    }
+  }
+
+  @Override
+  public boolean visit(ForStatement node) {
+    loops.add(getCountedLoop(node));
+    return true;
+  }
+
+  @Override
+  public void endVisit(ForStatement node) {
+    loops.remove(loops.size() - 1);
+  }
+
+  @Override
+  public void endVisit(ArrayAccess node) {
+    if (!node.getTypeMirror().getKind().isPrimitive()) {
+      return;
+    }
+    VariableElement index = TreeUtil.getVariableElement(node.getIndex());
+    if (index == null) {
+      return;
+    }
+    List<VariableElement> array = null;
+    for (CountedLoop loop : loops) {
+      if (loop != null && loop.index == index) {
+        if (array == null) {
+          array = getArrayPath(node.getArray(), null);
+        }
+        if (loop.array.equals(array)) {
+          inBoundsAccesses.add(node);
+          return;
+        }
+      }
+    }
+  }
+
+  /**
+   * Returns the loop's index and array if it's a counted loop, or null.
+   */
+  private CountedLoop getCountedLoop(ForStatement node) {
+    if (node.getInitializers().size() != 1 || node.getUpdaters().size() != 1
+        || node.getExpression() == null
+        || !(node.getInitializers().get(0) instanceof VariableDeclarationExpression)) {
+      return null;
+    }
+    List<VariableDeclarationFragment> fragments =
+        ((VariableDeclarationExpression) node.getInitializers().get(0)).getFragments();
+    if (fragments.size() != 1 || fragments.get(0).getInitializer() == null) {
+      return null;
+    }
+    VariableElement index = fragments.get(0).getVariableElement();
+    // A narrower index could overflow before reaching the array's length.
+    if (index.asType().getKind() != TypeKind.INT) {
+      return null;
+    }
+    Expression init = trim(fragments.get(0).getInitializer());
+    Expression condition = trim(node.getExpression());
+    Expression updater = trim(node.getUpdaters().get(0));
+    Expression length = null;
+    if (isIntLiteral(init, 0, Integer.MAX_VALUE)
+        && isComparison(condition, InfixExpression.Operator.LESS, index)
+        && isStep(updater, index, 1)) {
+      length = ((InfixExpression) condition).getOperands().get(1);
+    } else if (init instanceof InfixExpression
+        && ((InfixExpression) init).getOperator() == InfixExpression.Operator.MINUS
+        && ((InfixExpression) init).getOperands().size() == 2
+        && isIntLiteral(((InfixExpression) init).getOperands().get(1), 1, Integer.MAX_VALUE)
+        && isComparison(condition, InfixExpression.Operator.GREATER_EQUALS, index)
+        && isIntLiteral(((InfixExpression) condition).getOperands().get(1), 0, 0)
+        && isStep(updater, index, -1)) {
+      length = ((InfixExpression) init).getOperands().get(0);
+    }
+    length = length != null ? trim(length) : null;
+    if (!(length instanceof FieldAccess || length instanceof QualifiedName)
+        || !ElementUtil.getName(TreeUtil.getVariableElement(length)).equals("length")) {
+      return null;
+    }
+    Expression lengthQualifier = length instanceof FieldAccess
+        ? ((FieldAccess) length).getExpression() : ((QualifiedName) length).getQualifier();
+    TypeMirror arrayType = lengthQualifier.getTypeMirror();
+    if (!TypeUtil.isArray(arrayType)
+        || !((ArrayType) arrayType).getComponentType().getKind().isPrimitive()) {
+      return null;
+    }
+    Set<VariableElement> loopAssigned = getAssignedVariables(node);
+    Set<VariableElement> bodyAssigned = getAssignedVariables(node.getBody());
+    List<VariableElement> array = getArrayPath(lengthQualifier, loopAssigned);
+    if (array == null || bodyAssigned.contains(index)) {
+      return null;
+    }
+    return new CountedLoop(index, array);
+  }
+
+  /**
+   * Returns the variables that a path to an array goes through, which is
+   * empty for "this". Returns null if it isn't such a path, or if one of its
+   * variables is assigned.
+   */
+  private static List<VariableElement> getArrayPath(
+      Expression node, Set<VariableElement> assigned) {
+    node = trim(node);
+    if (node.getKind() == TreeNode.Kind.THIS_EXPRESSION) {
+      return new ArrayList<>();
+    }
+    VariableElement var = TreeUtil.getVariableElement(node);
+    if (var == null || ElementUtil.isVolatile(var)) {
+      return null;
+    }
+    List<VariableElement> path;
+    if (node instanceof FieldAccess) {
+      path = getArrayPath(((FieldAccess) node).getExpression(), assigned);
+    } else if (node instanceof QualifiedName) {
+      path = getArrayPath(((QualifiedName) node).getQualifier(), assigned);
+    } else {
+      path = new ArrayList<>();
+    }
+    boolean stable = ElementUtil.isField(var)
+        ? ElementUtil.isFinal(var)
+        : assigned == null || !assigned.contains(var);
+    if (path == null || !stable) {
+      return null;
+    }
+    path.add(var);
+    return path;
+  }
+
+  /**
+   * Returns the variables that are assigned, incremented or decremented, or
+   * whose address is taken within the node.
+   */
+  private static Set<VariableElement> getAssignedVariables(TreeNode node) {
+    Set<VariableElement> assigned = new HashSet<>();
+    node.accept(new TreeVisitor() {
+      @Override
+      public void endVisit(Assignment node) {
+        add(node.getLeftHandSide());
+      }
+
+      @Override
+      public void endVisit(PostfixExpression node) {
+        add(node.getOperand());
+      }
+
+      @Override
+      public void endVisit(PrefixExpression node) {
+        switch (node.getOperator()) {
+          case INCREMENT:
+          case DECREMENT:
+          case ADDRESS_OF:
+            add(node.getOperand());
+            break;
+          default:
+            break;
+        }
+      }
+
+      private void add(Expression target) {
+        VariableElement var = TreeUtil.getVariableElement(target);
+        if (var != null) {
+          assigned.add(var);
+        }
+      }
+    });
+    return assigned;
+  }
+
+  // Checks for "index <op> operand".
+  private static boolean isComparison(
+      Expression node, InfixExpression.Operator op, VariableElement index) {
+    if (!(node instanceof InfixExpression)) {
+      return false;
+    }
+    InfixExpression infix = (InfixExpression) node;
+    return infix.getOperator() == op && infix.getOperands().size() == 2
+        && TreeUtil.getVariableElement(infix.getOperands().get(0)) == index;
+  }
+
+  // Checks for an increment or decrement of the index by one.
+  private static boolean isStep(Expression node, VariableElement index, int step) {
+    if (node instanceof PostfixExpression) {
+      PostfixExpression postfix = (PostfixExpression) node;
+      return TreeUtil.getVariableElement(postfix.getOperand()) == index
+          && postfix.getOperator() == (step > 0
+              ? PostfixExpression.Operator.INCREMENT : PostfixExpression.Operator.DECREMENT);
+    } else if (node instanceof PrefixExpression) {
+      PrefixExpression prefix = (PrefixExpression) node;
+      return TreeUtil.getVariableElement(prefix.getOperand()) == index
+          && prefix.getOperator() == (step > 0
+              ? PrefixExpression.Operator.INCREMENT : PrefixExpression.Operator.DECREMENT);
+    } else if (node instanceof Assignment) {
+      Assignment assignment = (Assignment) node;
+      return TreeUtil.getVariableElement(assignment.getLeftHandSide()) == index
+          && assignment.getOperator() == (step > 0
+              ? Assignment.Operator.PLUS_ASSIGN : Assignment.Operator.MINUS_ASSIGN)
+          && isIntLiteral(trim(assignment.getRightHandSide()), 1, 1);
+    }
+    return false;
+  }
+
+  private static boolean isIntLiteral(Expression node, int min, int max) {
+    if (!(node instanceof NumberLiteral) || node.getTypeMirror().getKind() != TypeKind.INT) {
+      return false;
+    }
+    int value = ((NumberLiteral) node).getValue().intValue();
+    return value >= min && value <= max;
+  }
+
+  // Removes parentheses and nil_chk calls, which don't change the value.
+  private static Expression trim(Expression node) {
+    while (true) {
+      if (node instanceof ParenthesizedExpression) {
+        node = ((ParenthesizedExpression) node).getExpression();
+      } else if (node instanceof FunctionInvocation
+          && ((FunctionInvocation) node).getName().equals("nil_chk")) {
+        node = ((FunctionInvocation) node).getArgument(0);
+      } else {
+        return node;
+      }
+    }
+  }
+}
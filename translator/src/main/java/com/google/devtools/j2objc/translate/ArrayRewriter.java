@@ -22,9 +22,11 @@ import com.google.devtools.j2objc.ast.CompilationUnit;
 import com.google.devtools.j2objc.ast.Expression;
 import com.google.devtools.j2objc.ast.FieldAccess;
 import com.google.devtools.j2objc.ast.FunctionInvocation;
+import com.google.devtools.j2objc.ast.InfixExpression;
 import com.google.devtools.j2objc.ast.InstanceofExpression;
 import com.google.devtools.j2objc.ast.MethodInvocation;
 import com.google.devtools.j2objc.ast.NumberLiteral;
+import com.google.devtools.j2objc.ast.ParenthesizedExpression;
 import com.google.devtools.j2objc.ast.PrefixExpression;
 import com.google.devtools.j2objc.ast.QualifiedName;
 import com.google.devtools.j2objc.ast.SimpleName;
@@ -55,8 +57,17 @@ import javax.lang.model.type.TypeMirror;
  */
 public class ArrayRewriter extends UnitTreeVisitor {
 
+  private final ArrayBoundsAnalyzer boundsAnalyzer;
+
   public ArrayRewriter(CompilationUnit unit) {
     super(unit);
+    boundsAnalyzer = new ArrayBoundsAnalyzer(unit);
+  }
+
+  @Override
+  public void run() {
+    boundsAnalyzer.run();
+    super.run();
   }
 
   @Override
@@ -250,6 +261,10 @@ public class ArrayRewriter extends UnitTreeVisitor {
     TypeMirror componentType = node.getTypeMirror();
     TypeElement iosArrayElement = typeUtil.getIosArray(componentType);
 
+    if (boundsAnalyzer.isInBounds(node)) {
+      node.replaceWith(newUncheckedArrayAccess(node, componentType, iosArrayElement));
+      return;
+    }
     node.replaceWith(newArrayAccess(
         node, componentType, iosArrayElement, TranslationUtil.isAssigned(node)));
   }
@@ -276,6 +291,21 @@ public class ArrayRewriter extends UnitTreeVisitor {
     return invocation;
   }
 
+  // Returns "*(array->buffer_ + index)", which is also assignable.
+  private Expression newUncheckedArrayAccess(
+      ArrayAccess arrayAccessNode, TypeMirror componentType, TypeElement iosArrayElement) {
+    TypeMirror bufferType = new PointerType(componentType);
+    VariableElement bufferField = GeneratedVariableElement.newField(
+        "buffer", bufferType, iosArrayElement)
+        .addModifiers(Modifier.PUBLIC);
+    InfixExpression elementPointer = new InfixExpression(
+        bufferType, InfixExpression.Operator.PLUS,
+        new FieldAccess(bufferField, arrayAccessNode.getArray().copy()),
+        arrayAccessNode.getIndex().copy());
+    return new PrefixExpression(componentType, PrefixExpression.Operator.DEREFERENCE,
+        new ParenthesizedExpression(elementPointer));
+  }
+
   private FunctionInvocation newArrayAssignment(
       Assignment assignmentNode, ArrayAccess arrayAccessNode, TypeMirror componentType) {
     Assignment.Operator op = assignmentNode.getOperator();
@@ -16,6 +16,9 @@
 
 package com.google.devtools.j2objc.translate;
 
+import com.google.common.collect.ListMultimap;
+import com.google.common.collect.MultimapBuilder;
+import com.google.devtools.j2objc.ast.AbstractTypeDeclaration;
 import com.google.devtools.j2objc.ast.ArrayAccess;
 import com.google.devtools.j2objc.ast.ArrayCreation;
 import com.google.devtools.j2objc.ast.ArrayInitializer;
@@ -43,17 +46,26 @@ import com.google.devtools.j2objc.ast.SuperMethodInvocation;
 import com.google.devtools.j2objc.ast.SwitchStatement;
 import com.google.devtools.j2objc.ast.TreeNode;
 import com.google.devtools.j2objc.ast.TreeUtil;
+import com.google.devtools.j2objc.ast.TreeVisitor;
 import com.google.devtools.j2objc.ast.Type;
 import com.google.devtools.j2objc.ast.UnitTreeVisitor;
+import com.google.devtools.j2objc.ast.VariableDeclarationExpression;
 import com.google.devtools.j2objc.ast.VariableDeclarationFragment;
+import com.google.devtools.j2objc.ast.VariableDeclarationStatement;
 import com.google.devtools.j2objc.ast.WhileStatement;
 import com.google.devtools.j2objc.types.ExecutablePair;
 import com.google.devtools.j2objc.types.FunctionElement;
+import com.google.devtools.j2objc.types.GeneratedVariableElement;
 import com.google.devtools.j2objc.types.PointerType;
 import com.google.devtools.j2objc.util.ElementUtil;
 import com.google.devtools.j2objc.util.NameTable;
 import com.google.devtools.j2objc.util.TypeUtil;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import javax.lang.model.element.ExecutableElement;
 import javax.lang.model.element.TypeElement;
 import javax.lang.model.element.VariableElement;
@@ -76,6 +88,216 @@ public class Autoboxer extends UnitTreeVisitor {
     super(unit);
   }
 
+  @Override
+  public boolean visit(CompilationUnit node) {
+    unboxLocalVariables(node);
+    return true;
+  }
+
+  /**
+   * Retypes boxed local variables that never need to be objects as their
+   * primitive type, so that assigning and reading them needs no valueOf() and
+   * *Value() calls. A variable qualifies when every value assigned to it is a
+   * primitive, so it's never null, and every read of it would be unboxed, so
+   * it never escapes and is never compared by identity.
+   */
+  private void unboxLocalVariables(CompilationUnit node) {
+    BoxedLocalFinder finder = new BoxedLocalFinder();
+    node.accept(finder);
+    for (VariableDeclarationFragment decl : finder.declarations) {
+      VariableElement var = decl.getVariableElement();
+      if (finder.escapedVars.contains(var)) {
+        continue;
+      }
+      PrimitiveType primitiveType = typeUtil.unboxedType(var.asType());
+      VariableElement newVar = GeneratedVariableElement.newLocalVar(
+          ElementUtil.getName(var), primitiveType, var.getEnclosingElement());
+      decl.setVariableElement(newVar);
+      TreeNode parent = decl.getParent();
+      if (parent instanceof VariableDeclarationExpression) {
+        ((VariableDeclarationExpression) parent).setType(Type.newType(primitiveType));
+      }
+      for (SimpleName use : finder.uses.get(var)) {
+        SimpleName newUse = new SimpleName(newVar);
+        use.replaceWith(newUse);
+        // The value of an increment or decrement has the variable's type.
+        TreeNode useParent = getUnparenthesizedParent(newUse);
+        if (useParent instanceof PrefixExpression) {
+          PrefixExpression prefix = (PrefixExpression) useParent;
+          PrefixExpression.Operator op = prefix.getOperator();
+          if (op == PrefixExpression.Operator.INCREMENT
+              || op == PrefixExpression.Operator.DECREMENT) {
+            prefix.replaceWith(
+                new PrefixExpression(primitiveType, op, TreeUtil.remove(prefix.getOperand())));
+          }
+        }
+      }
+    }
+  }
+
+  private static TreeNode getUnparenthesizedParent(Expression expr) {
+    TreeNode parent = expr.getParent();
+    while (parent instanceof ParenthesizedExpression) {
+      parent = parent.getParent();
+    }
+    return parent;
+  }
+
+  /**
+   * Finds the boxed local variables that can be replaced with primitives.
+   */
+  private class BoxedLocalFinder extends TreeVisitor {
+
+    private final List<VariableDeclarationFragment> declarations = new ArrayList<>();
+    private final ListMultimap<VariableElement, SimpleName> uses =
+        MultimapBuilder.hashKeys().arrayListValues().build();
+    private final Set<VariableElement> escapedVars = new HashSet<>();
+    private final Map<VariableElement, AbstractTypeDeclaration> declaringTypes = new HashMap<>();
+
+    private boolean isBoxedLocal(VariableElement var) {
+      return var != null && ElementUtil.isLocalVariable(var) && typeUtil.isBoxedType(var.asType());
+    }
+
+    @Override
+    public void endVisit(VariableDeclarationFragment node) {
+      VariableElement var = node.getVariableElement();
+      if (!isBoxedLocal(var)) {
+        return;
+      }
+      Expression initializer = node.getInitializer();
+      TreeNode parent = node.getParent();
+      // The declaring statement's type is taken from its first fragment.
+      List<VariableDeclarationFragment> fragments =
+          parent instanceof VariableDeclarationStatement
+          ? ((VariableDeclarationStatement) parent).getFragments()
+          : parent instanceof VariableDeclarationExpression
+          ? ((VariableDeclarationExpression) parent).getFragments() : null;
+      if (fragments == null || fragments.size() != 1 || !var.getAnnotationMirrors().isEmpty()
+          || (initializer != null && !isPrimitive(initializer))) {
+        escapedVars.add(var);
+      }
+      declarations.add(node);
+      declaringTypes.put(var, TreeUtil.getEnclosingType(node));
+    }
+
+    @Override
+    public void endVisit(SimpleName node) {
+      VariableElement var = TreeUtil.getVariableElement(node);
+      if (isBoxedLocal(var)) {
+        uses.put(var, node);
+        // Captured variables are referenced by their original element when
+        // the capturing lambda or inner class is extracted.
+        if (TreeUtil.getEnclosingType(node) != declaringTypes.get(var) || !isUnboxedUse(node)) {
+          escapedVars.add(var);
+        }
+      }
+    }
+
+    /**
+     * Returns true if the value of the variable isn't needed as an object
+     * where it's used, or if a primitive is assigned to it.
+     */
+    private boolean isUnboxedUse(SimpleName node) {
+      Expression expr = node;
+      while (expr.getParent() instanceof ParenthesizedExpression) {
+        expr = (Expression) expr.getParent();
+      }
+      TreeNode parent = expr.getParent();
+      switch (parent.getKind()) {
+        case ARRAY_ACCESS:
+        case ARRAY_CREATION:
+        case DO_STATEMENT:
+        case FOR_STATEMENT:
+        case IF_STATEMENT:
+        case POSTFIX_EXPRESSION:
+        case PREFIX_EXPRESSION:
+        case SWITCH_STATEMENT:
+        case WHILE_STATEMENT:
+          return true;
+        case ARRAY_INITIALIZER:
+          return isPrimitive(((ArrayInitializer) parent).getTypeMirror().getComponentType());
+        case ASSIGNMENT:
+          {
+            Assignment assignment = (Assignment) parent;
+            if (assignment.getOperator() != Assignment.Operator.ASSIGN) {
+              return true;
+            }
+            return assignment.getLeftHandSide() == expr
+                ? isPrimitive(assignment.getRightHandSide())
+                : isPrimitive(assignment.getLeftHandSide());
+          }
+        case CAST_EXPRESSION:
+          return isPrimitive((CastExpression) parent);
+        case VARIABLE_DECLARATION_FRAGMENT:
+          return isPrimitive(((VariableDeclarationFragment) parent).getVariableElement().asType());
+        case CONDITIONAL_EXPRESSION:
+          {
+            ConditionalExpression conditional = (ConditionalExpression) parent;
+            return conditional.getExpression() == expr || isPrimitive(conditional);
+          }
+        case INFIX_EXPRESSION:
+          {
+            InfixExpression infix = (InfixExpression) parent;
+            InfixExpression.Operator op = infix.getOperator();
+            if (op != InfixExpression.Operator.EQUALS
+                && op != InfixExpression.Operator.NOT_EQUALS) {
+              return true;
+            }
+            // Comparing two objects tests their identity.
+            List<Expression> operands = infix.getOperands();
+            return isPrimitive(operands.get(0)) || isPrimitive(operands.get(1));
+          }
+        case RETURN_STATEMENT:
+          {
+            TypeMirror returnType = TreeUtil.getOwningReturnType(parent);
+            return returnType != null && isPrimitive(returnType);
+          }
+        case CLASS_INSTANCE_CREATION:
+          return isPrimitiveArgument(((ClassInstanceCreation) parent).getExecutableElement(),
+              ((ClassInstanceCreation) parent).getArguments(), expr);
+        case CONSTRUCTOR_INVOCATION:
+          return isPrimitiveArgument(((ConstructorInvocation) parent).getExecutableElement(),
+              ((ConstructorInvocation) parent).getArguments(), expr);
+        case METHOD_INVOCATION:
+          return isPrimitiveArgument(((MethodInvocation) parent).getExecutableElement(),
+              ((MethodInvocation) parent).getArguments(), expr);
+        case SUPER_CONSTRUCTOR_INVOCATION:
+          return isPrimitiveArgument(((SuperConstructorInvocation) parent).getExecutableElement(),
+              ((SuperConstructorInvocation) parent).getArguments(), expr);
+        case SUPER_METHOD_INVOCATION:
+          return isPrimitiveArgument(((SuperMethodInvocation) parent).getExecutableElement(),
+              ((SuperMethodInvocation) parent).getArguments(), expr);
+        default:
+          return false;
+      }
+    }
+
+    // Receivers and capture arguments aren't in the argument list.
+    private boolean isPrimitiveArgument(
+        ExecutableElement method, List<Expression> args, Expression arg) {
+      int i = args.indexOf(arg);
+      if (i < 0) {
+        return false;
+      }
+      List<? extends VariableElement> params = method.getParameters();
+      TypeMirror paramType;
+      if (method.isVarArgs() && i >= params.size() - 1) {
+        paramType = ((ArrayType) params.get(params.size() - 1).asType()).getComponentType();
+      } else {
+        paramType = params.get(i).asType();
+      }
+      return isPrimitive(paramType);
+    }
+  }
+
+  private static boolean isPrimitive(Expression expr) {
+    return isPrimitive(expr.getTypeMirror());
+  }
+
+  private static boolean isPrimitive(TypeMirror type) {
+    return type.getKind().isPrimitive();
+  }
+
   /**
    * Convert a primitive type expression into a wrapped instance.  Each
    * wrapper class has a static valueOf factory method, so "expr" gets
@@ -14,7 +14,6 @@
 
 package com.google.devtools.j2objc.translate;
 
-import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.devtools.j2objc.ast.Assignment;
@@ -49,23 +48,14 @@ import javax.lang.model.element.VariableElement;
  */
 public class ComplexExpressionExtractor extends TreeVisitor {
 
-  // The ObjC compiler tends to fail with roughly 100 chained method calls.
-  private static final int DEFAULT_MAX_DEPTH = 50;
-
-  private static int maxDepth = DEFAULT_MAX_DEPTH;
+  private final int maxDepth;
   private Map<Expression, Integer> depths = Maps.newHashMap();
   private ExecutableElement currentMethod;
   private Statement currentStatement;
   private int count = 1;
 
-  @VisibleForTesting
-  static void setMaxDepth(int newMaxDepth) {
-    maxDepth = newMaxDepth;
-  }
-
-  @VisibleForTesting
-  static void resetMaxDepth() {
-    maxDepth = DEFAULT_MAX_DEPTH;
+  public ComplexExpressionExtractor(int maxDepth) {
+    this.maxDepth = maxDepth;
   }
 
   private void handleNode(Expression node, Collection<Expression> children) {
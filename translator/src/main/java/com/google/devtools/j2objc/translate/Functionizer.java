@@ -19,6 +19,7 @@ import com.google.devtools.j2objc.ast.AnnotationTypeDeclaration;
 import com.google.devtools.j2objc.ast.Block;
 import com.google.devtools.j2objc.ast.BodyDeclaration;
 import com.google.devtools.j2objc.ast.ClassInstanceCreation;
+import com.google.devtools.j2objc.ast.Comment;
 import com.google.devtools.j2objc.ast.CompilationUnit;
 import com.google.devtools.j2objc.ast.ConstructorInvocation;
 import com.google.devtools.j2objc.ast.Expression;
@@ -48,6 +49,7 @@ import com.google.devtools.j2objc.types.FunctionElement;
 import com.google.devtools.j2objc.types.GeneratedExecutableElement;
 import com.google.devtools.j2objc.types.GeneratedVariableElement;
 import com.google.devtools.j2objc.util.CaptureInfo;
+import com.google.devtools.j2objc.util.CodeReferenceMap;
 import com.google.devtools.j2objc.util.ElementUtil;
 import com.google.devtools.j2objc.util.NameTable;
 import com.google.devtools.j2objc.util.TypeUtil;
@@ -74,11 +76,15 @@ import javax.lang.model.type.TypeMirror;
 public class Functionizer extends UnitTreeVisitor {
 
   private final CaptureInfo captureInfo;
+  private final CodeReferenceMap effectivelyFinalMethods;
   private Set<ExecutableElement> functionizableMethods;
+  private Set<ExecutableElement> externallyCalledMethods;
+  private Set<TypeElement> typesWithNativeCode;
 
   public Functionizer(CompilationUnit unit) {
     super(unit);
     captureInfo = unit.getEnv().captureInfo();
+    effectivelyFinalMethods = options.effectivelyFinalMethods();
   }
 
   @Override
@@ -86,9 +92,40 @@ public class Functionizer extends UnitTreeVisitor {
     FunctionizableFinder finder = new FunctionizableFinder();
     node.accept(finder);
     functionizableMethods = finder.getFunctionizableMethods();
+    externallyCalledMethods = finder.externallyCalledMethods;
+    typesWithNativeCode = findTypesWithNativeCode(node);
     return true;
   }
 
+  /**
+   * Returns the types whose source contains OCNI code, which may call any function of
+   * the unit. A null element stands for OCNI code outside of all types. Native code
+   * generated by the translator is not included, since it never calls private functions.
+   */
+  private static Set<TypeElement> findTypesWithNativeCode(CompilationUnit unit) {
+    Set<TypeElement> types = new HashSet<>();
+    String source = unit.getSource();
+    for (Comment comment : unit.getCommentList()) {
+      int start = comment.getStartPosition();
+      if (!comment.isBlockComment() || source == null || start < 0
+          || !source.startsWith(OcniExtractor.OcniType.SOURCE.delimiter(), start)) {
+        continue;
+      }
+      // Local and inner types have been extracted, so the innermost type is the one
+      // that starts last.
+      AbstractTypeDeclaration containingType = null;
+      for (AbstractTypeDeclaration type : unit.getTypes()) {
+        int typeStart = type.getStartPosition();
+        if (typeStart >= 0 && start > typeStart && start < typeStart + type.getLength()
+            && (containingType == null || typeStart > containingType.getStartPosition())) {
+          containingType = type;
+        }
+      }
+      types.add(containingType != null ? containingType.getTypeElement() : null);
+    }
+    return types;
+  }
+
   static class MethodInfo {
 
     private Boolean functionizable = null;
@@ -116,12 +153,14 @@ public class Functionizer extends UnitTreeVisitor {
     }
   }
 
-  private static class FunctionizableFinder extends TreeVisitor {
+  private class FunctionizableFinder extends TreeVisitor {
 
     // Don't need a stack here because local types have already been extracted.
     private MethodInfo currentMethod = null;
     private Map<ExecutableElement, MethodInfo> infoMap = new HashMap<>();
     private Set<ExecutableElement> invocations = new HashSet<>();
+    // Static methods invoked from outside of their declaring class.
+    private Set<ExecutableElement> externallyCalledMethods = new HashSet<>();
 
     @Override
     public boolean visit(MethodDeclaration node) {
@@ -142,9 +181,13 @@ public class Functionizer extends UnitTreeVisitor {
       // Regular invocations can only be functionized if the target is private or final, otherwise
       // the target method might be overridden by a subclass. Private methods are always
       // functionized so we only check for final methods here.
-      if (ElementUtil.isFinal(method)) {
+      if (isEffectivelyFinal(method)) {
         invocations.add(method);
       }
+      if (ElementUtil.isStatic(method) && !ElementUtil.getDeclaringClass(method).equals(
+          TreeUtil.getEnclosingTypeElement(node))) {
+        externallyCalledMethods.add(method);
+      }
     }
 
     @Override
@@ -192,6 +235,46 @@ public class Functionizer extends UnitTreeVisitor {
     return true;
   }
 
+  /**
+   * Returns true if no subclass can override the method: either it's final, or
+   * the whole-program listing passed with -Xeffectively-final-methods says that
+   * nothing overrides it. The listing names nested classes with dots, like the
+   * tree shaker does.
+   */
+  private boolean isEffectivelyFinal(ExecutableElement method) {
+    if (ElementUtil.isFinal(method)) {
+      return true;
+    }
+    if (effectivelyFinalMethods == null) {
+      return false;
+    }
+    TypeElement declaringClass = ElementUtil.getDeclaringClass(method);
+    return effectivelyFinalMethods.containsMethod(
+        elementUtil.getBinaryName(declaringClass).replace('$', '.'),
+        typeUtil.getReferenceName(method), typeUtil.getReferenceSignature(method));
+  }
+
+  /**
+   * Returns true if only code of the method's own class can call it, so the
+   * class is already initialized whenever it runs. That code can't run before
+   * the class's initialization has started. Private methods are also
+   * reachable through native code and reflection, but reflection sends a
+   * message to the class, which initializes it.
+   */
+  private boolean isOnlyCalledByOwnClass(ExecutableElement method) {
+    TypeElement declaringClass = ElementUtil.getDeclaringClass(method);
+    if (!ElementUtil.isPrivate(method) || !declaringClass.getKind().isClass()
+        || externallyCalledMethods.contains(method)) {
+      return false;
+    }
+    for (TypeElement type : typesWithNativeCode) {
+      if (!declaringClass.equals(type)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
   private FunctionElement newFunctionElement(ExecutableElement method) {
     TypeElement declaringClass = ElementUtil.getDeclaringClass(method);
     FunctionElement element = new FunctionElement(
@@ -247,7 +330,7 @@ public class Functionizer extends UnitTreeVisitor {
   public void endVisit(MethodInvocation node) {
     ExecutableElement method = node.getExecutableElement();
     if (ElementUtil.isStatic(method) || ElementUtil.isPrivate(method)
-        || (functionizableMethods.contains(method) && ElementUtil.isFinal(method))) {
+        || (functionizableMethods.contains(method) && isEffectivelyFinal(method))) {
       functionizeInvocation(node, method, node.getExpression(), node.getArguments());
     }
   }
@@ -442,12 +525,15 @@ public class Functionizer extends UnitTreeVisitor {
     function.setBody(TreeUtil.remove(method.getBody()));
 
     if (ElementUtil.isStatic(elem) || ElementUtil.isDefault(elem)) {
-      // Add class initialization invocation, since this may be the first use of this class.
-      String initName = UnicodeUtils.format("%s_initialize", nameTable.getFullName(declaringClass));
-      TypeMirror voidType = typeUtil.getVoid();
-      FunctionElement initElement = new FunctionElement(initName, voidType, declaringClass);
-      FunctionInvocation initCall = new FunctionInvocation(initElement, voidType);
-      function.getBody().addStatement(0, new ExpressionStatement(initCall));
+      if (!ElementUtil.isStatic(elem) || !isOnlyCalledByOwnClass(elem)) {
+        // Add class initialization invocation, since this may be the first use of this class.
+        String initName =
+            UnicodeUtils.format("%s_initialize", nameTable.getFullName(declaringClass));
+        TypeMirror voidType = typeUtil.getVoid();
+        FunctionElement initElement = new FunctionElement(initName, voidType, declaringClass);
+        FunctionInvocation initCall = new FunctionInvocation(initElement, voidType);
+        function.getBody().addStatement(0, new ExpressionStatement(initCall));
+      }
     } else {
       FunctionConverter.convert(function);
     }
@@ -133,10 +133,13 @@ public class LambdaRewriter extends UnitTreeVisitor {
       if (captureInfo.isCapturing(lambdaType)) {
         node.replaceWith(creation);
       } else {
-        // For non-capturing lambdas, create a static final instance.
+        // For non-capturing lambdas, create a static final instance. Like the
+        // LambdaMetafactory, every evaluation then yields the same object, which
+        // is never null.
         VariableElement instanceVar = GeneratedVariableElement.newField(
             "instance", lambdaType.asType(), lambdaType)
-            .addModifiers(Modifier.STATIC, Modifier.FINAL);
+            .addModifiers(Modifier.STATIC, Modifier.FINAL)
+            .setNonnull(true);
         typeDecl.addBodyDeclaration(new FieldDeclaration(instanceVar, creation));
         node.replaceWith(new SimpleName(instanceVar));
       }
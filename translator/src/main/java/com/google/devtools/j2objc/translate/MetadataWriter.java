@@ -50,9 +50,13 @@ import com.google.devtools.j2objc.util.ErrorUtil;
 import com.google.devtools.j2objc.util.TypeUtil;
 import com.google.devtools.j2objc.util.UnicodeUtils;
 import java.lang.annotation.Repeatable;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 import javax.lang.model.element.Element;
 import javax.lang.model.element.ExecutableElement;
@@ -72,8 +76,16 @@ public class MetadataWriter extends UnitTreeVisitor {
   public static final int METADATA_VERSION = 7;
 
   private static final NativeType CLASS_INFO_TYPE = new NativeType("const J2ObjcClassInfo *");
+
+  // The sizes of the metadata structures in a 64-bit binary, for the metadata report.
+  private static final int CLASS_INFO_SIZE = 64;
+  private static final int METHOD_INFO_SIZE = 32;
+  private static final int FIELD_INFO_SIZE = 40;
+  private static final int POINTER_SIZE = 8;
+
   private final ArrayType annotationArray;
   private final ArrayType annotationArray2D;
+  private final CodeReferenceMap reflectedClasses;
 
   public MetadataWriter(CompilationUnit unit, CodeReferenceMap deadCodeMap) {
     super(unit);
@@ -81,6 +93,7 @@ public class MetadataWriter extends UnitTreeVisitor {
         GeneratedTypeElement.newEmulatedInterface("java.lang.annotation.Annotation").asType();
     annotationArray = typeUtil.getArrayType(annotationType);
     annotationArray2D = typeUtil.getArrayType(annotationArray);
+    reflectedClasses = options.reflectedClasses();
   }
 
   @Override
@@ -116,11 +129,29 @@ public class MetadataWriter extends UnitTreeVisitor {
     Block body = new Block();
     metadataDecl.setBody(body);
 
-    new MetadataGenerator(node, body.getStatements()).generateClassMetadata();
+    new MetadataGenerator(node, body.getStatements(), needsMemberMetadata(type))
+        .generateClassMetadata();
 
     node.addBodyDeclaration(metadataDecl);
   }
 
+  /**
+   * Returns whether the type's methods, fields and annotations may be accessed
+   * through reflection. Serialization reads fields reflectively, and annotation
+   * instances are built from their type's methods, so those types are always
+   * included. Other types still keep the metadata the runtime itself needs: their
+   * no-arg constructor, for Class.newInstance(), and their enum constants, which
+   * are looked up by ordinal.
+   */
+  private boolean needsMemberMetadata(TypeElement type) {
+    if (reflectedClasses == null || reflectedClasses.containsClass(type, elementUtil)
+        || ElementUtil.isAnnotationType(type)) {
+      return true;
+    }
+    TypeElement serializable = typeUtil.resolveJavaType("java.io.Serializable");
+    return serializable != null && typeUtil.isAssignable(type.asType(), serializable.asType());
+  }
+
   /**
    * Generates the metadata contents for a single type.
    */
@@ -132,20 +163,25 @@ public class MetadataWriter extends UnitTreeVisitor {
     private final List<Statement> stmts;
     // Use a LinkedHashMap so that we can de-dupe values that are added to the pointer table.
     private final LinkedHashMap<String, Integer> pointers = new LinkedHashMap<>();
+    private final boolean includeMembers;
+    // The C strings referenced by the metadata, for the metadata report.
+    private final Set<String> strings = new HashSet<>();
     private int annotationFuncCount = 0;
 
-    private MetadataGenerator(AbstractTypeDeclaration typeNode, List<Statement> stmts) {
+    private MetadataGenerator(
+        AbstractTypeDeclaration typeNode, List<Statement> stmts, boolean includeMembers) {
       this.typeNode = typeNode;
       type = typeNode.getTypeElement();
       className = nameTable.getFullName(type);
       this.stmts = stmts;
+      this.includeMembers = includeMembers;
     }
 
     private void generateClassMetadata() {
       String fullName = nameTable.getFullName(type);
       int methodMetadataCount = generateMethodsMetadata();
       int fieldMetadataCount = generateFieldsMetadata();
-      String annotationsFunc = createAnnotationsFunction(typeNode);
+      String annotationsFunc = includeMembers ? createAnnotationsFunction(typeNode) : null;
       String metadata = UnicodeUtils.format(
           "static const J2ObjcClassInfo _%s = { "
           + "%s, %s, %%s, %s, %s, %d, 0x%x, %d, %d, %s, %s, %s, %s, %s };",
@@ -168,6 +204,19 @@ public class MetadataWriter extends UnitTreeVisitor {
       metadata = UnicodeUtils.format(metadata, getPtrTableEntry());
       stmts.add(new NativeStatement(metadata));
       stmts.add(new ReturnStatement(new NativeExpression("&_" + fullName, CLASS_INFO_TYPE)));
+      if (options.metadataReport() != null) {
+        reportMetadataSize(methodMetadataCount, fieldMetadataCount);
+      }
+    }
+
+    private void reportMetadataSize(int methodCount, int fieldCount) {
+      int size = CLASS_INFO_SIZE + methodCount * METHOD_INFO_SIZE + fieldCount * FIELD_INFO_SIZE
+          + pointers.size() * POINTER_SIZE;
+      for (String str : strings) {
+        size += str.getBytes(StandardCharsets.UTF_8).length + 1;
+      }
+      options.metadataReport().addClass(elementUtil.getBinaryName(type), size, methodCount,
+          fieldCount, annotationFuncCount);
     }
 
     private String getPtrTableEntry() {
@@ -200,8 +249,14 @@ public class MetadataWriter extends UnitTreeVisitor {
             || (ElementUtil.isEnum(type) && ElementUtil.isConstructor(element))) {
           continue;
         }
-        String annotationsFunc = createAnnotationsFunction(decl);
-        String paramAnnotationsFunc = createParamAnnotationsFunction(decl);
+        // Without member metadata, only the no-arg constructor is kept, for newInstance().
+        if (!includeMembers
+            && !(ElementUtil.isConstructor(element) && element.getParameters().isEmpty())) {
+          continue;
+        }
+        String annotationsFunc = includeMembers ? createAnnotationsFunction(decl) : null;
+        String paramAnnotationsFunc =
+            includeMembers ? createParamAnnotationsFunction(decl) : null;
         methodMetadata.add(getMethodMetadata(element, annotationsFunc, paramAnnotationsFunc));
         String selector = nameTable.getMethodSelector(element);
         String metadata = UnicodeUtils.format("methods[%d].selector = @selector(%s);",
@@ -275,11 +330,13 @@ public class MetadataWriter extends UnitTreeVisitor {
       List<String> fieldMetadata = new ArrayList<>();
       if (typeNode instanceof EnumDeclaration) {
         for (EnumConstantDeclaration decl : ((EnumDeclaration) typeNode).getEnumConstants()) {
-          String annotationsFunc = createAnnotationsFunction(decl);
+          String annotationsFunc = includeMembers ? createAnnotationsFunction(decl) : null;
           fieldMetadata.add(generateFieldMetadata(decl.getVariableElement(), annotationsFunc));
         }
       }
-      for (FieldDeclaration decl : TreeUtil.getFieldDeclarations(typeNode)) {
+      Iterable<FieldDeclaration> fields =
+          includeMembers ? TreeUtil.getFieldDeclarations(typeNode) : Collections.emptyList();
+      for (FieldDeclaration decl : fields) {
         // Fields that share a declaration can share an annotations function.
         String annotationsFunc = createAnnotationsFunction(decl);
         VariableDeclarationFragment f = decl.getFragment();
@@ -337,7 +394,17 @@ public class MetadataWriter extends UnitTreeVisitor {
           ? nameTable.getMethodSelector((ExecutableElement) enclosing) : null;
     }
 
+    private String cStr(String str) {
+      if (str != null) {
+        strings.add(str);
+      }
+      return MetadataWriter.this.cStr(str);
+    }
+
     private String cStrIdx(String str) {
+      if (str != null) {
+        strings.add(str);
+      }
       return getPointerIdx(str != null ? "\"" + str + "\"" : null);
     }
 
@@ -16,6 +16,7 @@ package com.google.devtools.j2objc.translate;
 
 import com.google.common.base.Functions;
 import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
 import com.google.devtools.j2objc.ast.AbstractTypeDeclaration;
 import com.google.devtools.j2objc.ast.AnnotationTypeDeclaration;
 import com.google.devtools.j2objc.ast.ArrayAccess;
@@ -65,14 +66,11 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
-import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import javax.lang.model.element.ExecutableElement;
-import javax.lang.model.element.TypeElement;
 import javax.lang.model.element.VariableElement;
-import javax.lang.model.type.TypeMirror;
 
 /**
  * Adds nil_chk calls where required to maintain compatibility Java's
@@ -102,8 +100,25 @@ public class NilCheckResolver extends UnitTreeVisitor {
 
   private static final Set<VariableElement> EMPTY_VARS = Collections.emptySet();
 
+  private final NonnullInference nonnullInference;
+  private int nilCheckCount = 0;
+  // Dereferenced expressions that need a nil_chk without nullness inference.
+  // Loop bodies are visited twice, so the same node may be found again.
+  private final Set<Expression> inferredNonnull = Sets.newIdentityHashSet();
+
   public NilCheckResolver(CompilationUnit unit) {
     super(unit);
+    nonnullInference = new NonnullInference(unit);
+  }
+
+  @Override
+  public void run() {
+    nonnullInference.run();
+    super.run();
+    if (options.nilCheckReport() != null) {
+      options.nilCheckReport().addSource(
+          unit.getSourceFilePath(), nilCheckCount, inferredNonnull.size());
+    }
   }
 
   /**
@@ -366,26 +381,6 @@ public class NilCheckResolver extends UnitTreeVisitor {
     return null;
   }
 
-  // Checks if the given method is a primitive boxing or unboxing method.
-  private boolean isBoxingMethod(ExecutableElement method) {
-    TypeElement declaringClass = ElementUtil.getDeclaringClass(method);
-    // Autoboxing methods.
-    if (typeUtil.isBoxedType(declaringClass.asType())) {
-      String name = ElementUtil.getName(method);
-      TypeMirror returnType = method.getReturnType();
-      List<? extends VariableElement> params = method.getParameters();
-      if (name.equals("valueOf") && params.size() == 1
-          && params.get(0).asType().getKind().isPrimitive()) {
-        return true;
-      }
-      if (params.isEmpty() && returnType.getKind().isPrimitive()
-          && name.equals(TypeUtil.getName(returnType) + "Value")) {
-        return true;
-      }
-    }
-    return false;
-  }
-
   private boolean needsNilCheck(Expression e) {
     VariableElement sym = TreeUtil.getVariableElement(e);
     if (sym != null) {
@@ -395,7 +390,7 @@ public class NilCheckResolver extends UnitTreeVisitor {
     if (method != null) {
       // Check for some common cases where the result is known not to be null.
       return !ElementUtil.isConstructor(method) && !ElementUtil.getName(method).equals("getClass")
-          && !isBoxingMethod(method);
+          && !nonnullInference.isBoxingMethod(method);
     }
     switch (e.getKind()) {
       case CAST_EXPRESSION:
@@ -415,6 +410,11 @@ public class NilCheckResolver extends UnitTreeVisitor {
     if (!needsNilCheck(node)) {
       return;
     }
+    if (nonnullInference.isNonnull(node)) {
+      inferredNonnull.add(node);
+      return;
+    }
+    nilCheckCount++;
     VariableElement var = TreeUtil.getVariableElement(node);
     if (var != null) {
       addSafeVar(var);
@@ -450,7 +450,7 @@ public class NilCheckResolver extends UnitTreeVisitor {
     for (Expression arg : node.getArguments()) {
       arg.accept(this);
     }
-    if (!isBoxingMethod(node.getExecutableElement())) {
+    if (!nonnullInference.isBoxingMethod(node.getExecutableElement())) {
       removeNonFinalFields();
       handleThrows();
     }
@@ -628,7 +628,7 @@ public class NilCheckResolver extends UnitTreeVisitor {
   }
 
   private void handleAssignment(VariableElement var, Expression value) {
-    if (needsNilCheck(value)) {
+    if (needsNilCheck(value) && !nonnullInference.isNonnull(value)) {
       removeSafeVar(var);
     } else {
       addSafeVar(var);
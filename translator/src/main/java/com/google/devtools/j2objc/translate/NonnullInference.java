@@ -0,0 +1,394 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.devtools.j2objc.translate;
+
+import com.google.devtools.j2objc.ast.Assignment;
+import com.google.devtools.j2objc.ast.Block;
+import com.google.devtools.j2objc.ast.CastExpression;
+import com.google.devtools.j2objc.ast.ClassInstanceCreation;
+import com.google.devtools.j2objc.ast.CompilationUnit;
+import com.google.devtools.j2objc.ast.ConditionalExpression;
+import com.google.devtools.j2objc.ast.Expression;
+import com.google.devtools.j2objc.ast.ExpressionStatement;
+import com.google.devtools.j2objc.ast.FieldAccess;
+import com.google.devtools.j2objc.ast.LambdaExpression;
+import com.google.devtools.j2objc.ast.MethodDeclaration;
+import com.google.devtools.j2objc.ast.MethodInvocation;
+import com.google.devtools.j2objc.ast.NativeExpression;
+import com.google.devtools.j2objc.ast.NativeStatement;
+import com.google.devtools.j2objc.ast.ParenthesizedExpression;
+import com.google.devtools.j2objc.ast.ReturnStatement;
+import com.google.devtools.j2objc.ast.Statement;
+import com.google.devtools.j2objc.ast.TreeNode;
+import com.google.devtools.j2objc.ast.TreeUtil;
+import com.google.devtools.j2objc.ast.TreeVisitor;
+import com.google.devtools.j2objc.ast.TypeDeclaration;
+import com.google.devtools.j2objc.ast.UnitTreeVisitor;
+import com.google.devtools.j2objc.ast.VariableDeclarationFragment;
+import com.google.devtools.j2objc.util.ElementUtil;
+import com.google.devtools.j2objc.util.TypeUtil;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+
+/**
+ * Infers which methods, fields and local variables of a compilation unit are
+ * never null, so that NilCheckResolver can skip their nil_chk calls.
+ *
+ * <p>Methods that can't be overridden are non-null when all their return
+ * expressions are. Final instance fields are non-null when every constructor
+ * assigns them a non-null value before anything can read them: the class
+ * extends Object, and the assignment precedes any statement that could let
+ * "this" escape or that reads an instance field. Local variables are non-null
+ * when all their assignments are. The three depend on each other, so they're
+ * solved together by starting from all candidates and removing those with a
+ * possibly-null value until nothing changes.
+ *
+ * <p>Only the unit is analyzed; methods and fields of other units are unknown.
+ */
+class NonnullInference extends UnitTreeVisitor {
+
+  private final Map<ExecutableElement, List<Expression>> methodReturns = new HashMap<>();
+  private final Map<VariableElement, List<Expression>> fieldValues = new HashMap<>();
+  private final Map<VariableElement, List<Expression>> localValues = new HashMap<>();
+  // Methods whose values can't be tracked.
+  private final Set<ExecutableElement> unknownMethods = new HashSet<>();
+  // Locals declared with a VariableDeclarationFragment, rather than as a
+  // parameter or an enhanced for statement's variable.
+  private final Set<VariableElement> declaredLocals = new HashSet<>();
+  private List<Expression> currentReturns = null;
+
+  NonnullInference(CompilationUnit unit) {
+    super(unit);
+  }
+
+  @Override
+  public void run() {
+    super.run();
+    methodReturns.keySet().removeAll(unknownMethods);
+    localValues.keySet().retainAll(declaredLocals);
+    boolean changed = true;
+    while (changed) {
+      // Non-short-circuiting, so that each iteration updates all three maps.
+      changed = methodReturns.values().removeIf(values -> !allNonnull(values, true))
+          | fieldValues.values().removeIf(values -> !allNonnull(values, false))
+          | localValues.values().removeIf(values -> !allNonnull(values, true));
+    }
+  }
+
+  /**
+   * Returns true if the expression's value was inferred to be non-null.
+   */
+  boolean isNonnull(Expression e) {
+    return isNonnull(e, true);
+  }
+
+  private boolean allNonnull(List<Expression> values, boolean allowFields) {
+    for (Expression value : values) {
+      if (!isNonnull(value, allowFields)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  // Field reads aren't allowed in field values, since the read field may not
+  // be assigned yet.
+  private boolean isNonnull(Expression e, boolean allowFields) {
+    switch (e.getKind()) {
+      case ARRAY_CREATION:
+      case ARRAY_INITIALIZER:
+      case CLASS_INSTANCE_CREATION:
+      case STRING_LITERAL:
+      case THIS_EXPRESSION:
+      case TYPE_LITERAL:
+        return true;
+      case INFIX_EXPRESSION:
+        // String concatenation.
+        return typeUtil.isString(e.getTypeMirror());
+      case CAST_EXPRESSION:
+        return isNonnull(((CastExpression) e).getExpression(), allowFields);
+      case PARENTHESIZED_EXPRESSION:
+        return isNonnull(((ParenthesizedExpression) e).getExpression(), allowFields);
+      case CONDITIONAL_EXPRESSION:
+        ConditionalExpression conditional = (ConditionalExpression) e;
+        return isNonnull(conditional.getThenExpression(), allowFields)
+            && isNonnull(conditional.getElseExpression(), allowFields);
+      case ASSIGNMENT:
+        Assignment assignment = (Assignment) e;
+        switch (assignment.getOperator()) {
+          case ASSIGN:
+            return isNonnull(assignment.getRightHandSide(), allowFields);
+          case PLUS_ASSIGN:
+            return typeUtil.isString(assignment.getTypeMirror());
+          default:
+            return false;
+        }
+      case METHOD_INVOCATION:
+      case SUPER_METHOD_INVOCATION:
+        ExecutableElement method = TreeUtil.getExecutableElement(e);
+        return ElementUtil.isConstructor(method) || ElementUtil.getName(method).equals("getClass")
+            || isBoxingMethod(method) || methodReturns.containsKey(method);
+      case FIELD_ACCESS:
+      case QUALIFIED_NAME:
+      case SIMPLE_NAME:
+        VariableElement var = TreeUtil.getVariableElement(e);
+        return var != null && (ElementUtil.isNonnull(var) || localValues.containsKey(var)
+            || (allowFields && fieldValues.containsKey(var)));
+      default:
+        return false;
+    }
+  }
+
+  // Checks if the given method is a primitive boxing or unboxing method.
+  boolean isBoxingMethod(ExecutableElement method) {
+    TypeElement declaringClass = ElementUtil.getDeclaringClass(method);
+    // Autoboxing methods.
+    if (typeUtil.isBoxedType(declaringClass.asType())) {
+      String name = ElementUtil.getName(method);
+      TypeMirror returnType = method.getReturnType();
+      List<? extends VariableElement> params = method.getParameters();
+      if (name.equals("valueOf") && params.size() == 1
+          && params.get(0).asType().getKind().isPrimitive()) {
+        return true;
+      }
+      if (params.isEmpty() && returnType.getKind().isPrimitive()
+          && name.equals(TypeUtil.getName(returnType) + "Value")) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static boolean isReferenceType(TypeMirror type) {
+    return !type.getKind().isPrimitive() && type.getKind() != TypeKind.VOID;
+  }
+
+  private static boolean isOverridable(ExecutableElement method) {
+    return !ElementUtil.isStatic(method) && !ElementUtil.isPrivate(method)
+        && !ElementUtil.isFinal(method)
+        && !ElementUtil.isFinal(ElementUtil.getDeclaringClass(method));
+  }
+
+  @Override
+  public boolean visit(TypeDeclaration node) {
+    TypeElement type = node.getTypeElement();
+    if (!node.isInterface() && TypeUtil.isJavaObject(type.getSuperclass())) {
+      findInitializedFields(node);
+    }
+    return true;
+  }
+
+  /**
+   * Adds the final fields of a type that are assigned by every constructor
+   * before the new instance can be used.
+   */
+  private void findInitializedFields(TypeDeclaration node) {
+    Map<VariableElement, List<Expression>> values = null;
+    for (MethodDeclaration method : TreeUtil.getMethodDeclarations(node)) {
+      if (!ElementUtil.isConstructor(method.getExecutableElement())) {
+        continue;
+      }
+      List<Statement> stmts = method.getBody().getStatements();
+      if (!stmts.isEmpty() && stmts.get(0).getKind() == TreeNode.Kind.CONSTRUCTOR_INVOCATION) {
+        // The delegated constructor assigns the fields before this one continues.
+        continue;
+      }
+      Map<VariableElement, Expression> assigned = new HashMap<>();
+      for (Statement stmt : stmts) {
+        if (stmt.getKind() == TreeNode.Kind.SUPER_CONSTRUCTOR_INVOCATION) {
+          continue;  // Object's constructor.
+        }
+        Assignment assignment = getFieldAssignment(node.getTypeElement(), stmt);
+        if (assignment != null && cannotLeakInstance(assignment.getRightHandSide())) {
+          assigned.put(
+              TreeUtil.getVariableElement(assignment.getLeftHandSide()),
+              assignment.getRightHandSide());
+        } else if (!cannotLeakInstance(stmt)) {
+          break;
+        }
+      }
+      if (values == null) {
+        values = new HashMap<>();
+        for (Map.Entry<VariableElement, Expression> entry : assigned.entrySet()) {
+          values.put(entry.getKey(), new ArrayList<>());
+        }
+      }
+      values.keySet().retainAll(assigned.keySet());
+      for (Map.Entry<VariableElement, List<Expression>> entry : values.entrySet()) {
+        entry.getValue().add(assigned.get(entry.getKey()));
+      }
+    }
+    if (values != null) {
+      fieldValues.putAll(values);
+    }
+  }
+
+  /**
+   * Returns the statement's assignment if it assigns a final reference field
+   * of the instance being constructed.
+   */
+  private static Assignment getFieldAssignment(TypeElement type, Statement stmt) {
+    if (stmt.getKind() != TreeNode.Kind.EXPRESSION_STATEMENT) {
+      return null;
+    }
+    Expression expr = ((ExpressionStatement) stmt).getExpression();
+    if (expr.getKind() != TreeNode.Kind.ASSIGNMENT
+        || ((Assignment) expr).getOperator() != Assignment.Operator.ASSIGN) {
+      return null;
+    }
+    Assignment assignment = (Assignment) expr;
+    Expression lhs = assignment.getLeftHandSide();
+    if (lhs.getKind() == TreeNode.Kind.FIELD_ACCESS
+        && ((FieldAccess) lhs).getExpression().getKind() != TreeNode.Kind.THIS_EXPRESSION) {
+      return null;
+    } else if (lhs.getKind() != TreeNode.Kind.FIELD_ACCESS
+        && lhs.getKind() != TreeNode.Kind.SIMPLE_NAME) {
+      return null;
+    }
+    VariableElement var = TreeUtil.getVariableElement(lhs);
+    if (var == null || !ElementUtil.isField(var) || ElementUtil.isStatic(var)
+        || !ElementUtil.isFinal(var) || ElementUtil.isVolatile(var)
+        || !isReferenceType(var.asType()) || ElementUtil.getDeclaringClass(var) != type) {
+      return null;
+    }
+    return assignment;
+  }
+
+  /**
+   * Returns true if the node can't pass the instance being constructed to
+   * other code, nor read any instance field.
+   */
+  private static boolean cannotLeakInstance(TreeNode node) {
+    boolean[] leaks = new boolean[1];
+    node.accept(new TreeVisitor() {
+      @Override
+      public boolean preVisit(TreeNode child) {
+        leaks[0] |= mayLeakInstance(child);
+        return !leaks[0];
+      }
+    });
+    return !leaks[0];
+  }
+
+  private static boolean mayLeakInstance(TreeNode node) {
+    switch (node.getKind()) {
+      case THIS_EXPRESSION:
+      case SUPER_FIELD_ACCESS:
+      case SUPER_METHOD_INVOCATION:
+      case LAMBDA_EXPRESSION:
+      case CREATION_REFERENCE:
+      case EXPRESSION_METHOD_REFERENCE:
+      case SUPER_METHOD_REFERENCE:
+      case TYPE_METHOD_REFERENCE:
+      case NATIVE_EXPRESSION:
+      case NATIVE_STATEMENT:
+        return true;
+      case METHOD_INVOCATION:
+        MethodInvocation invocation = (MethodInvocation) node;
+        return invocation.getExpression() == null
+            && !ElementUtil.isStatic(invocation.getExecutableElement());
+      case CLASS_INSTANCE_CREATION:
+        ClassInstanceCreation creation = (ClassInstanceCreation) node;
+        return creation.getExpression() != null || ElementUtil.hasOuterContext(
+            ElementUtil.getDeclaringClass(creation.getExecutableElement()));
+      case FIELD_ACCESS:
+      case QUALIFIED_NAME:
+      case SIMPLE_NAME:
+        VariableElement var = TreeUtil.getVariableElement((Expression) node);
+        return var != null && ElementUtil.isField(var) && !ElementUtil.isStatic(var);
+      default:
+        return false;
+    }
+  }
+
+  @Override
+  public boolean visit(MethodDeclaration node) {
+    ExecutableElement method = node.getExecutableElement();
+    Block body = node.getBody();
+    if (body == null) {
+      return false;
+    }
+    if (!ElementUtil.isConstructor(method) && !isOverridable(method)
+        && isReferenceType(method.getReturnType())) {
+      currentReturns = new ArrayList<>();
+      methodReturns.put(method, currentReturns);
+    } else {
+      currentReturns = null;
+    }
+    body.accept(this);
+    currentReturns = null;
+    return false;
+  }
+
+  @Override
+  public boolean visit(LambdaExpression node) {
+    // Its return statements aren't the enclosing method's.
+    return false;
+  }
+
+  @Override
+  public void endVisit(ReturnStatement node) {
+    if (currentReturns != null && node.getExpression() != null) {
+      currentReturns.add(node.getExpression());
+    }
+  }
+
+  @Override
+  public void endVisit(NativeStatement node) {
+    markNativeCode(node);
+  }
+
+  @Override
+  public void endVisit(NativeExpression node) {
+    markNativeCode(node);
+  }
+
+  // Native code may return values that aren't visible.
+  private void markNativeCode(TreeNode node) {
+    MethodDeclaration method = TreeUtil.getEnclosingMethod(node);
+    if (method != null) {
+      unknownMethods.add(method.getExecutableElement());
+    }
+  }
+
+  @Override
+  public void endVisit(VariableDeclarationFragment node) {
+    VariableElement var = node.getVariableElement();
+    if (ElementUtil.isLocalVariable(var)) {
+      declaredLocals.add(var);
+      List<Expression> values = localValues.computeIfAbsent(var, k -> new ArrayList<>());
+      if (node.getInitializer() != null) {
+        values.add(node.getInitializer());
+      }
+    }
+  }
+
+  @Override
+  public void endVisit(Assignment node) {
+    VariableElement var = TreeUtil.getVariableElement(node.getLeftHandSide());
+    if (var != null && ElementUtil.isLocalVariable(var)) {
+      localValues.computeIfAbsent(var, k -> new ArrayList<>()).add(node);
+    }
+  }
+}
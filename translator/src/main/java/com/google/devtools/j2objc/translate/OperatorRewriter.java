@@ -23,6 +23,7 @@ import com.google.devtools.j2objc.ast.CharacterLiteral;
 import com.google.devtools.j2objc.ast.CommaExpression;
 import com.google.devtools.j2objc.ast.CompilationUnit;
 import com.google.devtools.j2objc.ast.Expression;
+import com.google.devtools.j2objc.ast.ExpressionStatement;
 import com.google.devtools.j2objc.ast.FieldAccess;
 import com.google.devtools.j2objc.ast.FunctionInvocation;
 import com.google.devtools.j2objc.ast.InfixExpression;
@@ -55,6 +56,7 @@ import com.google.devtools.j2objc.util.TypeUtil;
 import com.google.devtools.j2objc.util.UnicodeUtils;
 import com.google.j2objc.annotations.RetainedLocalRef;
 import java.lang.reflect.Modifier;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -143,6 +145,22 @@ public class OperatorRewriter extends UnitTreeVisitor {
     }
   }
 
+  @Override
+  public void endVisit(MethodInvocation node) {
+    if (isBuilderMethod(node, "toString") && node.getArguments().isEmpty()) {
+      rewriteBuilderToString(node);
+    }
+  }
+
+  @Override
+  public void endVisit(ExpressionStatement node) {
+    Expression expr = node.getExpression();
+    if (expr instanceof MethodInvocation && isBuilderAppend((MethodInvocation) expr)
+        && isStringBuilder(expr.getTypeMirror())) {
+      rewriteBuilderAppends(node, (MethodInvocation) expr);
+    }
+  }
+
   @Override
   public boolean visit(MethodDeclaration node) {
     isSynchronizedMethod = Modifier.isSynchronized(node.getModifiers());
@@ -591,6 +609,209 @@ public class OperatorRewriter extends UnitTreeVisitor {
     node.replaceWith(invocation);
   }
 
+  private static boolean isStringBuilder(TypeMirror type) {
+    TypeElement element = TypeUtil.asTypeElement(type);
+    return element != null
+        && ElementUtil.getQualifiedName(element).equals("java.lang.StringBuilder");
+  }
+
+  private boolean isBuilderMethod(MethodInvocation node, String name) {
+    ExecutableElement method = node.getExecutableElement();
+    if (node.getExpression() == null || !ElementUtil.getName(method).equals(name)) {
+      return false;
+    }
+    return isBuilderClass(ElementUtil.getDeclaringClass(method));
+  }
+
+  private static boolean isBuilderClass(TypeElement type) {
+    String className = ElementUtil.getQualifiedName(type);
+    return className.equals("java.lang.StringBuilder")
+        || className.equals("java.lang.StringBuffer");
+  }
+
+  // append(char[]) appends the characters rather than the array's description.
+  private boolean isBuilderAppend(MethodInvocation node) {
+    if (!isBuilderMethod(node, "append")) {
+      return false;
+    }
+    List<? extends VariableElement> params = node.getExecutableElement().getParameters();
+    return params.size() == 1 && !TypeUtil.isArray(params.get(0).asType());
+  }
+
+  private static Expression stripNilChk(Expression expr) {
+    while (expr instanceof FunctionInvocation
+        && ((FunctionInvocation) expr).getName().equals("nil_chk")) {
+      expr = ((FunctionInvocation) expr).getArgument(0);
+    }
+    return expr;
+  }
+
+  /**
+   * Adds the append() invocations that make up the chain ending in expr to
+   * appends, innermost first, and returns the receiver of the innermost one.
+   */
+  private Expression collectAppendChain(Expression expr, List<MethodInvocation> appends) {
+    expr = stripNilChk(expr);
+    while (expr instanceof MethodInvocation && isBuilderAppend((MethodInvocation) expr)) {
+      MethodInvocation append = (MethodInvocation) expr;
+      appends.add(0, append);
+      expr = stripNilChk(append.getExpression());
+    }
+    return expr;
+  }
+
+  /**
+   * Returns the argument of an append() call as a string concatenation
+   * operand. Primitive arguments are cast to the parameter type, since that
+   * determines how they're formatted.
+   */
+  private Expression getAppendOperand(MethodInvocation append) {
+    TypeMirror paramType = append.getExecutableElement().getParameters().get(0).asType();
+    Expression arg = append.getArguments().get(0);
+    if (paramType.getKind().isPrimitive()
+        && !typeUtil.isSameType(arg.getTypeMirror(), paramType)) {
+      return new CastExpression(paramType, TreeUtil.remove(arg));
+    }
+    return TreeUtil.remove(arg);
+  }
+
+  /**
+   * Returns the initial contents of a builder created without any side
+   * effects, or null if the creation can't be elided.
+   */
+  private String getNewBuilderContents(Expression expr) {
+    // Functionizer has already replaced the creation with its allocating function.
+    if (!(expr instanceof FunctionInvocation)) {
+      return null;
+    }
+    FunctionElement function = ((FunctionInvocation) expr).getFunctionElement();
+    TypeElement type = function.getDeclaringClass();
+    if (type == null || !isBuilderClass(type)) {
+      return null;
+    }
+    boolean isConstructor = false;
+    for (ExecutableElement constructor : ElementUtil.getConstructors(type)) {
+      if (function.getName().equals(nameTable.getReleasingConstructorName(constructor))) {
+        isConstructor = true;
+        break;
+      }
+    }
+    if (!isConstructor) {
+      return null;
+    }
+    List<Expression> args = ((FunctionInvocation) expr).getArguments();
+    if (args.isEmpty()) {
+      return "";
+    } else if (args.size() == 1) {
+      Expression arg = args.get(0);
+      if (arg instanceof StringLiteral) {
+        return ((StringLiteral) arg).getLiteralValue();
+      } else if (arg instanceof NumberLiteral && arg.getTypeMirror().getKind() == TypeKind.INT
+          && ((NumberLiteral) arg).getValue().intValue() >= 0) {
+        return "";  // Initial capacity.
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Rewrites "new StringBuilder().append(a).append(b).toString()" the same
+   * way as "a + b", so the builder never needs to be allocated.
+   */
+  private void rewriteBuilderToString(MethodInvocation node) {
+    List<MethodInvocation> appends = new ArrayList<>();
+    String initialContents =
+        getNewBuilderContents(collectAppendChain(node.getExpression(), appends));
+    if (initialContents == null) {
+      return;
+    }
+    List<Expression> operands = Lists.newArrayListWithCapacity(appends.size() + 1);
+    if (!initialContents.isEmpty()) {
+      operands.add(new StringLiteral(initialContents, typeUtil));
+    }
+    for (MethodInvocation append : appends) {
+      operands.add(getAppendOperand(append));
+    }
+    operands = coalesceStringLiterals(operands);
+    if (operands.isEmpty()) {
+      node.replaceWith(new StringLiteral("", typeUtil));
+      return;
+    }
+    if (operands.size() == 1 && operands.get(0) instanceof StringLiteral) {
+      node.replaceWith(operands.get(0));
+      return;
+    }
+    TypeMirror stringType = typeUtil.getJavaString().asType();
+    FunctionElement element = new FunctionElement("JreStrcat", stringType, null)
+        .addParameters(TypeUtil.NATIVE_CHAR_PTR)
+        .setIsVarargs(true);
+    FunctionInvocation invocation = new FunctionInvocation(element, stringType);
+    List<Expression> args = invocation.getArguments();
+    args.add(getStrcatTypesCString(operands));
+    args.addAll(operands);
+    node.replaceWith(invocation);
+  }
+
+  /**
+   * Returns true if an append() argument can be evaluated ahead of the
+   * appends before it without anyone noticing.
+   */
+  private boolean isIndependentAppendOperand(Expression expr) {
+    TypeMirror type = expr.getTypeMirror();
+    if (!type.getKind().isPrimitive() && !typeUtil.isString(type)) {
+      return false;
+    }
+    if (expr instanceof CastExpression) {
+      return isIndependentAppendOperand(((CastExpression) expr).getExpression());
+    }
+    if (getLiteralStringValue(expr) != null) {
+      return true;
+    }
+    if (expr instanceof SimpleName) {
+      VariableElement var = TreeUtil.getVariableElement(expr);
+      return var != null && (ElementUtil.isLocalVariable(var) || ElementUtil.isParameter(var));
+    }
+    return false;
+  }
+
+  /**
+   * Rewrites a statement like "sb.append(a).append(b);" into a single call
+   * that grows the builder's buffer once for all of the appended values. Only
+   * chains on a StringBuilder local whose arguments are literals or locals are
+   * rewritten, since the arguments are all evaluated before any are appended.
+   */
+  private void rewriteBuilderAppends(ExpressionStatement node, MethodInvocation expr) {
+    List<MethodInvocation> appends = new ArrayList<>();
+    Expression receiver = collectAppendChain(expr, appends);
+    if (appends.size() < 2 || !(receiver instanceof SimpleName)) {
+      return;
+    }
+    VariableElement receiverVar = TreeUtil.getVariableElement(receiver);
+    if (receiverVar == null || !isStringBuilder(receiverVar.asType())
+        || !(ElementUtil.isLocalVariable(receiverVar) || ElementUtil.isParameter(receiverVar))) {
+      return;
+    }
+    List<Expression> operands = Lists.newArrayListWithCapacity(appends.size());
+    for (MethodInvocation append : appends) {
+      if (!isIndependentAppendOperand(append.getArguments().get(0))) {
+        return;
+      }
+    }
+    for (MethodInvocation append : appends) {
+      operands.add(getAppendOperand(append));
+    }
+    operands = coalesceStringLiterals(operands);
+    FunctionElement element = new FunctionElement("JreStrAppendBuilder", typeUtil.getVoid(), null)
+        .addParameters(TypeUtil.ID_TYPE, TypeUtil.NATIVE_CHAR_PTR)
+        .setIsVarargs(true);
+    FunctionInvocation invocation = new FunctionInvocation(element, typeUtil.getVoid());
+    List<Expression> args = invocation.getArguments();
+    args.add(TreeUtil.remove(receiver));
+    args.add(getStrcatTypesCString(operands));
+    args.addAll(operands);
+    node.setExpression(invocation);
+  }
+
   private List<Expression> coalesceStringLiterals(List<Expression> rawOperands) {
     List<Expression> operands = Lists.newArrayListWithCapacity(rawOperands.size());
     String currentLiteral = null;
@@ -14,14 +14,19 @@
 
 package com.google.devtools.j2objc.translate;
 
+import com.google.devtools.j2objc.ast.Block;
 import com.google.devtools.j2objc.ast.CommaExpression;
 import com.google.devtools.j2objc.ast.CompilationUnit;
 import com.google.devtools.j2objc.ast.Expression;
 import com.google.devtools.j2objc.ast.FieldAccess;
+import com.google.devtools.j2objc.ast.FunctionDeclaration;
+import com.google.devtools.j2objc.ast.InfixExpression;
+import com.google.devtools.j2objc.ast.MethodDeclaration;
 import com.google.devtools.j2objc.ast.NativeExpression;
 import com.google.devtools.j2objc.ast.PrefixExpression;
 import com.google.devtools.j2objc.ast.QualifiedName;
 import com.google.devtools.j2objc.ast.SimpleName;
+import com.google.devtools.j2objc.ast.Statement;
 import com.google.devtools.j2objc.ast.SwitchCase;
 import com.google.devtools.j2objc.ast.TreeNode;
 import com.google.devtools.j2objc.ast.TreeUtil;
@@ -29,6 +34,12 @@ import com.google.devtools.j2objc.ast.UnitTreeVisitor;
 import com.google.devtools.j2objc.types.PointerType;
 import com.google.devtools.j2objc.util.ElementUtil;
 import com.google.devtools.j2objc.util.TranslationUtil;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
 import javax.lang.model.element.TypeElement;
 import javax.lang.model.element.VariableElement;
 import javax.lang.model.type.TypeMirror;
@@ -36,10 +47,21 @@ import javax.lang.model.type.TypeMirror;
 /**
  * Converts static variable access to static method calls where necessary.
  *
+ * <p>A static load isn't needed where the declaring class is known to be
+ * initialized: in the class itself and its subclasses, since a class's code
+ * only runs once its initialization, and so its superclasses', has started,
+ * and after an earlier statement of an enclosing block already loaded a
+ * static variable of the class.
+ *
  * @author Keith Stanger
  */
 public class StaticVarRewriter extends UnitTreeVisitor {
 
+  // The classes initialized by the preceding statements of each enclosing block.
+  private final Deque<Set<TypeElement>> initializedTypes = new ArrayDeque<>();
+  // The classes whose static variables each statement loads whenever it completes.
+  private final Map<Statement, Set<TypeElement>> statementLoads = new HashMap<>();
+
   public StaticVarRewriter(CompilationUnit unit) {
     super(unit);
   }
@@ -49,7 +71,70 @@ public class StaticVarRewriter extends UnitTreeVisitor {
       return false;
     }
     TypeElement enclosingType = TreeUtil.getEnclosingTypeElement(currentNode);
-    return enclosingType == null || !enclosingType.equals(ElementUtil.getDeclaringClass(var));
+    if (enclosingType == null) {
+      return true;
+    }
+    TypeElement declaringClass = ElementUtil.getDeclaringClass(var);
+    for (TypeElement type = enclosingType; type != null; type = ElementUtil.getSuperclass(type)) {
+      if (type.equals(declaringClass)) {
+        return false;
+      }
+    }
+    return initializedTypes.isEmpty() || !initializedTypes.peek().contains(declaringClass);
+  }
+
+  /**
+   * Returns the statement that evaluates the node whenever the statement
+   * completes normally, or null if the node is only evaluated conditionally.
+   */
+  private static Statement getEvaluatingStatement(TreeNode node) {
+    TreeNode child = node;
+    for (TreeNode parent = node.getParent(); parent != null;
+         child = parent, parent = parent.getParent()) {
+      switch (parent.getKind()) {
+        case EXPRESSION_STATEMENT:
+        case VARIABLE_DECLARATION_STATEMENT:
+        case IF_STATEMENT:
+        case SWITCH_STATEMENT:
+          // Any statement reached from an expression is through its condition.
+          return (Statement) parent;
+        case INFIX_EXPRESSION:
+          InfixExpression.Operator op = ((InfixExpression) parent).getOperator();
+          if ((op == InfixExpression.Operator.CONDITIONAL_AND
+                  || op == InfixExpression.Operator.CONDITIONAL_OR)
+              && child != ((InfixExpression) parent).getOperands().get(0)) {
+            return null;
+          }
+          break;
+        case ARRAY_ACCESS:
+        case ARRAY_CREATION:
+        case ARRAY_INITIALIZER:
+        case ASSIGNMENT:
+        case CAST_EXPRESSION:
+        case CLASS_INSTANCE_CREATION:
+        case COMMA_EXPRESSION:
+        case FIELD_ACCESS:
+        case FUNCTION_INVOCATION:
+        case INSTANCEOF_EXPRESSION:
+        case METHOD_INVOCATION:
+        case PARENTHESIZED_EXPRESSION:
+        case POSTFIX_EXPRESSION:
+        case PREFIX_EXPRESSION:
+        case SUPER_METHOD_INVOCATION:
+        case VARIABLE_DECLARATION_FRAGMENT:
+          break;
+        default:
+          return null;
+      }
+    }
+    return null;
+  }
+
+  private void addStatementLoad(Expression node, TypeElement declaringClass) {
+    Statement stmt = getEvaluatingStatement(node);
+    if (stmt != null) {
+      statementLoads.computeIfAbsent(stmt, k -> new HashSet<>()).add(declaringClass);
+    }
   }
 
   private void rewriteStaticAccess(Expression node) {
@@ -59,6 +144,7 @@ public class StaticVarRewriter extends UnitTreeVisitor {
     }
 
     TypeElement declaringClass = ElementUtil.getDeclaringClass(var);
+    addStatementLoad(node, declaringClass);
     boolean assignable = TranslationUtil.isAssigned(node);
     StringBuilder code = new StringBuilder(
         ElementUtil.isEnumConstant(var) ? "JreLoadEnum" : "JreLoadStatic");
@@ -81,6 +167,47 @@ public class StaticVarRewriter extends UnitTreeVisitor {
     node.replaceWith(newNode);
   }
 
+  @Override
+  public boolean visit(MethodDeclaration node) {
+    initializedTypes.push(new HashSet<>());
+    return true;
+  }
+
+  @Override
+  public void endVisit(MethodDeclaration node) {
+    initializedTypes.pop();
+    statementLoads.clear();
+  }
+
+  @Override
+  public boolean visit(FunctionDeclaration node) {
+    initializedTypes.push(new HashSet<>());
+    return true;
+  }
+
+  @Override
+  public void endVisit(FunctionDeclaration node) {
+    initializedTypes.pop();
+    statementLoads.clear();
+  }
+
+  @Override
+  public boolean visit(Block node) {
+    // A block's statements only run after the preceding ones complete normally.
+    Set<TypeElement> initialized = initializedTypes.isEmpty()
+        ? new HashSet<>() : new HashSet<>(initializedTypes.peek());
+    initializedTypes.push(initialized);
+    for (Statement stmt : node.getStatements()) {
+      stmt.accept(this);
+      Set<TypeElement> loaded = statementLoads.remove(stmt);
+      if (loaded != null) {
+        initialized.addAll(loaded);
+      }
+    }
+    initializedTypes.pop();
+    return false;
+  }
+
   @Override
   public boolean visit(FieldAccess node) {
     VariableElement var = node.getVariableElement();
@@ -37,6 +37,9 @@ import com.google.devtools.j2objc.types.ExecutablePair;
 import com.google.devtools.j2objc.types.FunctionElement;
 import com.google.devtools.j2objc.util.NameTable;
 import com.google.devtools.j2objc.util.TypeUtil;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
 import javax.lang.model.element.ElementKind;
 import javax.lang.model.element.VariableElement;
@@ -51,6 +54,10 @@ import javax.lang.model.type.TypeMirror;
  */
 public class SwitchRewriter extends UnitTreeVisitor {
 
+  // String switches with at least this many cases are dispatched by hash code
+  // instead of comparing the value against each case in turn.
+  private static final int MIN_HASHED_STRING_CASES = 8;
+
   public SwitchRewriter(CompilationUnit unit) {
     super(unit);
   }
@@ -133,28 +140,82 @@ public class SwitchRewriter extends UnitTreeVisitor {
     if (!typeUtil.isString(type)) {
       return;
     }
+    List<SwitchCase> cases = new ArrayList<>();
+    for (Statement stmt : node.getStatements()) {
+      if (stmt instanceof SwitchCase && !((SwitchCase) stmt).isDefault()) {
+        cases.add((SwitchCase) stmt);
+      }
+    }
+    int[] hashes = cases.size() >= MIN_HASHED_STRING_CASES ? getCaseHashes(cases) : null;
+    if (hashes != null) {
+      // Order the cases by hash code so the runtime can binary search them.
+      Integer[] order = new Integer[cases.size()];
+      for (int i = 0; i < order.length; i++) {
+        order[i] = i;
+      }
+      Arrays.sort(order, Comparator.comparingInt(i -> hashes[i]));
+      List<SwitchCase> sortedCases = new ArrayList<>();
+      for (int i : order) {
+        sortedCases.add(cases.get(i));
+      }
+      cases = sortedCases;
+    }
     ArrayType arrayType = typeUtil.getArrayType(type);
     ArrayInitializer arrayInit = new ArrayInitializer(arrayType);
     int idx = 0;
-    for (Statement stmt : node.getStatements()) {
-      if (stmt instanceof SwitchCase) {
-        SwitchCase caseStmt = (SwitchCase) stmt;
-        if (!caseStmt.isDefault()) {
-          arrayInit.addExpression(TreeUtil.remove(caseStmt.getExpression()));
-          caseStmt.setExpression(NumberLiteral.newIntLiteral(idx++, typeUtil));
-        }
-      }
+    for (SwitchCase caseStmt : cases) {
+      arrayInit.addExpression(TreeUtil.remove(caseStmt.getExpression()));
+      caseStmt.setExpression(NumberLiteral.newIntLiteral(idx++, typeUtil));
     }
     TypeMirror intType = typeUtil.getInt();
-    FunctionElement indexOfFunc = new FunctionElement("JreIndexOfStr", intType, null)
-        .addParameters(type, arrayType, intType);
-    FunctionInvocation invocation = new FunctionInvocation(indexOfFunc, intType);
-    invocation.addArgument(TreeUtil.remove(expr))
-        .addArgument(arrayInit)
-        .addArgument(NumberLiteral.newIntLiteral(idx, typeUtil));
+    FunctionInvocation invocation;
+    if (hashes != null) {
+      ArrayType hashArrayType = typeUtil.getArrayType(intType);
+      ArrayInitializer hashInit = new ArrayInitializer(hashArrayType);
+      int[] sortedHashes = hashes.clone();
+      Arrays.sort(sortedHashes);
+      for (int hash : sortedHashes) {
+        hashInit.addExpression(NumberLiteral.newIntLiteral(hash, typeUtil));
+      }
+      FunctionElement indexOfFunc = new FunctionElement("JreIndexOfStrHashed", intType, null)
+          .addParameters(type, arrayType, hashArrayType, intType);
+      invocation = new FunctionInvocation(indexOfFunc, intType);
+      invocation.addArgument(TreeUtil.remove(expr))
+          .addArgument(arrayInit)
+          .addArgument(hashInit)
+          .addArgument(NumberLiteral.newIntLiteral(idx, typeUtil));
+    } else {
+      FunctionElement indexOfFunc = new FunctionElement("JreIndexOfStr", intType, null)
+          .addParameters(type, arrayType, intType);
+      invocation = new FunctionInvocation(indexOfFunc, intType);
+      invocation.addArgument(TreeUtil.remove(expr))
+          .addArgument(arrayInit)
+          .addArgument(NumberLiteral.newIntLiteral(idx, typeUtil));
+    }
     node.setExpression(invocation);
   }
 
+  /**
+   * Returns the Java hash codes of the case labels, or null if any label's
+   * value isn't known at translation time.
+   */
+  private static int[] getCaseHashes(List<SwitchCase> cases) {
+    int[] hashes = new int[cases.size()];
+    for (int i = 0; i < hashes.length; i++) {
+      Expression caseExpr = cases.get(i).getExpression();
+      Object value = caseExpr.getConstantValue();
+      if (value == null) {
+        VariableElement var = TreeUtil.getVariableElement(caseExpr);
+        value = var != null ? var.getConstantValue() : null;
+      }
+      if (!(value instanceof String)) {
+        return null;
+      }
+      hashes[i] = value.hashCode();
+    }
+    return hashes;
+  }
+
   private void fixEnumValue(SwitchStatement node) {
     Expression expr = node.getExpression();
     TypeMirror type = expr.getTypeMirror();
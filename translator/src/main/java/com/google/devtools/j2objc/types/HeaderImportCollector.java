@@ -40,120 +40,113 @@ import javax.lang.model.type.TypeMirror;
 
 /**
  * Collects the set of imports needed to resolve type references in a header.
+ * The imports of public declarations, which go in the public header, and of
+ * private declarations, which go in the implementation file, are collected
+ * separately in a single pass.
  *
  * @author Tom Ball
  */
 public class HeaderImportCollector extends UnitTreeVisitor {
 
   /**
-   * Describes which declarations should be visited by the collector.
+   * The imports needed by either the public or the private declarations.
    */
-  public enum Filter {
-    INCLUDE_ALL(true, true),
-    PUBLIC_ONLY(true, false),
-    PRIVATE_ONLY(false, true);
-
-    private final boolean includePublic;
-    private final boolean includePrivate;
-
-    private Filter(boolean includePublic, boolean includePrivate) {
-      this.includePublic = includePublic;
-      this.includePrivate = includePrivate;
-    }
-
-    private boolean include(BodyDeclaration node) {
-      return node.hasPrivateDeclaration() ? includePrivate : includePublic;
-    }
+  private static class Declarations {
+    // Forward declarations. The order in which imports are collected affect
+    // which imports become forward declarations.
+    private final Set<Import> forwardDecls = new LinkedHashSet<>();
+    // Supertypes of the below declared types that haven't been seen by this collector.
+    private final Set<Import> superTypes = new LinkedHashSet<>();
+    // Declared types seen by this collector.
+    private final Set<Import> declaredTypes = new HashSet<>();
   }
 
-  private final Filter filter;
-
-  // Forward declarations. The order in which imports are collected affect
-  // which imports become forward declarations.
-  private Set<Import> forwardDecls = new LinkedHashSet<>();
-  // Supertypes of the below declared types that haven't been seen by this collector.
-  private Set<Import> superTypes = new LinkedHashSet<>();
-  // Declared types seen by this collector.
-  private Set<Import> declaredTypes = new HashSet<>();
+  private final Declarations publicDecls = new Declarations();
+  private final Declarations privateDecls = new Declarations();
 
-  public HeaderImportCollector(CompilationUnit unit, Filter filter) {
+  public HeaderImportCollector(CompilationUnit unit) {
     super(unit);
-    this.filter = filter;
   }
 
   public Set<Import> getForwardDeclarations() {
-    return forwardDecls;
+    return publicDecls.forwardDecls;
   }
 
   public Set<Import> getSuperTypes() {
-    return superTypes;
+    return publicDecls.superTypes;
+  }
+
+  public Set<Import> getPrivateForwardDeclarations() {
+    return privateDecls.forwardDecls;
+  }
+
+  public Set<Import> getPrivateSuperTypes() {
+    return privateDecls.superTypes;
   }
 
-  private void addForwardDecl(Type type) {
+  private Declarations getDeclarations(BodyDeclaration node) {
+    return node.hasPrivateDeclaration() ? privateDecls : publicDecls;
+  }
+
+  private void addForwardDecl(Declarations decls, Type type) {
     if (type != null) {
-      addForwardDecl(type.getTypeMirror());
+      addForwardDecl(decls, type.getTypeMirror());
     }
   }
 
-  private void addForwardDecl(TypeMirror type) {
-    forwardDecls.addAll(Sets.difference(Import.getImports(type, unit.getEnv()), declaredTypes));
+  private void addForwardDecl(Declarations decls, TypeMirror type) {
+    decls.forwardDecls.addAll(
+        Sets.difference(Import.getImports(type, unit.getEnv()), decls.declaredTypes));
   }
 
-  private void addSuperType(TypeElement type) {
+  private void addSuperType(Declarations decls, TypeElement type) {
     if (type != null) {
-      Import.addImports(type.asType(), superTypes, unit.getEnv());
+      Import.addImports(type.asType(), decls.superTypes, unit.getEnv());
     }
   }
 
-  private void addDeclaredType(TypeElement type) {
-    Import.addImports(type.asType(), declaredTypes, unit.getEnv());
+  private void addDeclaredType(Declarations decls, TypeElement type) {
+    Import.addImports(type.asType(), decls.declaredTypes, unit.getEnv());
   }
 
   @Override
   public boolean visit(AnnotationTypeMemberDeclaration node) {
-    if (filter.include(node)) {
-      addForwardDecl(node.getTypeMirror());
-    }
+    addForwardDecl(getDeclarations(node), node.getTypeMirror());
     return false;
   }
 
   @Override
   public boolean visit(FieldDeclaration node) {
-    if (filter.include(node)) {
-      addForwardDecl(node.getTypeMirror());
-    }
+    addForwardDecl(getDeclarations(node), node.getTypeMirror());
     return false;
   }
 
   @Override
   public boolean visit(FunctionDeclaration node) {
-    if (filter.include(node)) {
-      addForwardDecl(node.getReturnType());
-      for (SingleVariableDeclaration param : node.getParameters()) {
-        addForwardDecl(param.getVariableElement().asType());
-      }
+    Declarations decls = getDeclarations(node);
+    addForwardDecl(decls, node.getReturnType());
+    for (SingleVariableDeclaration param : node.getParameters()) {
+      addForwardDecl(decls, param.getVariableElement().asType());
     }
     return false;
   }
 
   @Override
   public boolean visit(MethodDeclaration node) {
-    if (filter.include(node)) {
-      addForwardDecl(node.getReturnTypeMirror());
-      for (VariableElement param : node.getExecutableElement().getParameters()) {
-        addForwardDecl(param.asType());
-      }
+    Declarations decls = getDeclarations(node);
+    addForwardDecl(decls, node.getReturnTypeMirror());
+    for (VariableElement param : node.getExecutableElement().getParameters()) {
+      addForwardDecl(decls, param.asType());
     }
     return false;
   }
 
   private boolean visitTypeDeclaration(AbstractTypeDeclaration node) {
-    if (filter.include(node)) {
-      addDeclaredType(node.getTypeElement());
-      addSuperType(TranslationUtil.getSuperType(node));
-      for (TypeElement interfaze : TranslationUtil.getInterfaceTypes(node)) {
-        addSuperType(interfaze);
-      }
+    Declarations decls = getDeclarations(node);
+    addDeclaredType(decls, node.getTypeElement());
+    addSuperType(decls, TranslationUtil.getSuperType(node));
+    for (TypeElement interfaze : TranslationUtil.getInterfaceTypes(node)) {
+      addSuperType(decls, interfaze);
     }
     return true;
   }
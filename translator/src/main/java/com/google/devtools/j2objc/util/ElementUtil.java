@@ -92,10 +92,22 @@ public final class ElementUtil {
   private static final Pattern NONNULL_PATTERN = Pattern.compile("No[nt][Nn]ull.*");
 
   private final Elements javacElements;
+  private final Object javacLock;
   private final Map<Element, TypeMirror> elementTypeMap = new HashMap<>();
 
   public ElementUtil(Elements javacElements) {
     this.javacElements = javacElements;
+    this.javacLock = javacLock(javacElements);
+  }
+
+  /**
+   * Returns the lock that serializes the javac queries of ElementUtil and
+   * TypeUtil instances. A javac task's symbols are shared by all units parsed
+   * by the task, and aren't thread-safe. The static methods don't take the
+   * lock, so they may still complete a symbol concurrently.
+   */
+  static Object javacLock(Elements javacElements) {
+    return javacElements;
   }
 
   public static String getName(Element element) {
@@ -529,7 +541,9 @@ public final class ElementUtil {
 
   public boolean overrides(
       ExecutableElement overrider, ExecutableElement overridden, TypeElement type) {
-    return javacElements.overrides(overrider, overridden, type);
+    synchronized (javacLock) {
+      return javacElements.overrides(overrider, overridden, type);
+    }
   }
 
   public static PackageElement getPackage(Element e) {
@@ -554,15 +568,17 @@ public final class ElementUtil {
     }
     name = name.substring(0, name.lastIndexOf('.'));
     // Try the Java 9+ API where the module needs to be specified to find the package.
-    try {
-      Method getModuleOf = Elements.class.getMethod("getModuleOf", Element.class);
-      Object module = getModuleOf.invoke(javacElements, element);
-      Method getPackageElement = Elements.class
-          .getMethod("getPackageElement", getModuleOf.getReturnType(), CharSequence.class);
-      return (PackageElement) getPackageElement.invoke(javacElements, module, name);
-    } catch (ReflectiveOperationException e) {
-      // Default behavior: Java 8.
-      return javacElements.getPackageElement(name);
+    synchronized (javacLock) {
+      try {
+        Method getModuleOf = Elements.class.getMethod("getModuleOf", Element.class);
+        Object module = getModuleOf.invoke(javacElements, element);
+        Method getPackageElement = Elements.class
+            .getMethod("getPackageElement", getModuleOf.getReturnType(), CharSequence.class);
+        return (PackageElement) getPackageElement.invoke(javacElements, module, name);
+      } catch (ReflectiveOperationException e) {
+        // Default behavior: Java 8.
+        return javacElements.getPackageElement(name);
+      }
     }
   }
 
@@ -575,7 +591,9 @@ public final class ElementUtil {
         return getQualifiedName(e);
       }
     }
-    return javacElements.getBinaryName(e).toString();
+    synchronized (javacLock) {
+      return javacElements.getBinaryName(e).toString();
+    }
   }
 
   Map<? extends ExecutableElement, ? extends AnnotationValue> getElementValuesWithDefaults(
@@ -32,17 +32,21 @@ import javax.tools.DiagnosticListener;
 import javax.tools.JavaFileObject;
 
 /**
- * Provides convenient static error and warning methods.
+ * Provides convenient static error and warning methods. Reporting methods are
+ * synchronized, so they may be called from parallel translation workers.
+ * <p/>
+ * Errors and warnings are normally counted for the whole process. A thread can
+ * instead collect them separately with {@link #startIsolatedReport}, so that
+ * concurrent translations in a worker process don't see each other's errors.
+ * Threads started by that thread share its report.
  *
  * @author Tom Ball, Keith Stanger
  */
 public class ErrorUtil implements DiagnosticListener<JavaFileObject> {
 
-  private static int errorCount = 0;
-  private static int warningCount = 0;
-  private static PrintStream errorStream = System.err;
-  private static List<String> errorMessages = Lists.newArrayList();
-  private static List<String> warningMessages = Lists.newArrayList();
+  private static final Report globalReport = new Report(System.err);
+  private static final InheritableThreadLocal<Report> isolatedReport =
+      new InheritableThreadLocal<>();
   // Captures whether the translator should emit clang style message. Clang style messages
   // are particularly useful when the translator is being invoked by Xcode build rules.
   // Xcode will be able to pick the file path and line number, hence make it easy to address
@@ -50,29 +54,73 @@ public class ErrorUtil implements DiagnosticListener<JavaFileObject> {
   // Ideally this should be set by a command line switch, but for now we tell that by checking
   // the DEVELOPER_DIR environment variable set by Xcode.
   private static final boolean CLANG_STYLE_ERROR_MSG = (null != System.getenv("DEVELOPER_DIR"));
-  private static Pattern pathAndLinePattern = null;
+  private static final Pattern pathAndLinePattern = Pattern.compile(".+?\\.java:\\d+: ");
+
+  /**
+   * The errors and warnings reported by a translation.
+   */
+  private static class Report {
+    private int errorCount = 0;
+    private int warningCount = 0;
+    private PrintStream errorStream;
+    private List<String> errorMessages = Lists.newArrayList();
+    private List<String> warningMessages = Lists.newArrayList();
+
+    private Report(PrintStream errorStream) {
+      this.errorStream = errorStream;
+    }
+  }
+
+  private static Report report() {
+    Report report = isolatedReport.get();
+    return report != null ? report : globalReport;
+  }
+
+  /**
+   * Reports the errors and warnings of the current thread, and of any threads
+   * it starts, to the specified stream instead of the process-wide report.
+   */
+  public static void startIsolatedReport(PrintStream errorStream) {
+    isolatedReport.set(new Report(errorStream));
+  }
+
+  /**
+   * Returns the current thread to the process-wide report.
+   */
+  public static void endIsolatedReport() {
+    isolatedReport.remove();
+  }
 
   public static void reset() {
-    errorCount = 0;
-    warningCount = 0;
-    errorMessages = Lists.newArrayList();
-    warningMessages = Lists.newArrayList();
+    Report report = report();
+    synchronized (report) {
+      report.errorCount = 0;
+      report.warningCount = 0;
+      report.errorMessages = Lists.newArrayList();
+      report.warningMessages = Lists.newArrayList();
+    }
   }
 
   public static int errorCount() {
-    return errorCount;
+    Report report = report();
+    synchronized (report) {
+      return report.errorCount;
+    }
   }
 
   public static int warningCount() {
-    return warningCount;
+    Report report = report();
+    synchronized (report) {
+      return report.warningCount;
+    }
   }
 
   public static List<String> getErrorMessages() {
-    return errorMessages;
+    return report().errorMessages;
   }
 
   public static List<String> getWarningMessages() {
-    return warningMessages;
+    return report().warningMessages;
   }
 
   /**
@@ -80,7 +128,7 @@ public class ErrorUtil implements DiagnosticListener<JavaFileObject> {
    * printed to System.err.
    */
   public static void setTestMode() {
-    errorStream = new PrintStream(new OutputStream() {
+    globalReport.errorStream = new PrintStream(new OutputStream() {
       @Override
       public void write(int b) {}
     });
@@ -92,9 +140,6 @@ public class ErrorUtil implements DiagnosticListener<JavaFileObject> {
       // Try to find the file path and line number, and then insert the tag after that,
       // in order to get a message in the following format.
       // <file_path>:<line_number>: error: <detailed_message>
-      if (pathAndLinePattern == null) {
-        pathAndLinePattern = Pattern.compile(".+?\\.java:\\d+: ");
-      }
       Matcher matcher = pathAndLinePattern.matcher(message);
       if (matcher.find()) {
         fullMessage = matcher.group(0) + matcher.replaceFirst(tag);
@@ -109,13 +154,7 @@ public class ErrorUtil implements DiagnosticListener<JavaFileObject> {
 
   public static void parserDiagnostic(Diagnostic<? extends JavaFileObject> diagnostic) {
     Kind kind = diagnostic.getKind();
-    if (kind == Kind.ERROR) {
-      errorMessages.add(diagnostic.getMessage(null));
-      errorCount++;
-    } else if (kind == Kind.MANDATORY_WARNING || kind == Kind.WARNING) {
-      warningMessages.add(diagnostic.getMessage(null));
-      warningCount++;
-    } else {
+    if (kind != Kind.ERROR && kind != Kind.MANDATORY_WARNING && kind != Kind.WARNING) {
       return;
     }
     String msg;
@@ -125,20 +164,36 @@ public class ErrorUtil implements DiagnosticListener<JavaFileObject> {
     } else {
       msg = diagnostic.toString().trim();
     }
-    errorStream.println(msg);
+    Report report = report();
+    synchronized (report) {
+      if (kind == Kind.ERROR) {
+        report.errorMessages.add(diagnostic.getMessage(null));
+        report.errorCount++;
+      } else {
+        report.warningMessages.add(diagnostic.getMessage(null));
+        report.warningCount++;
+      }
+      report.errorStream.println(msg);
+    }
   }
 
   // TODO(tball): Consider more ways to associate errors with GenerationUnits to aid debugging.
   public static void error(String message) {
-    errorMessages.add(message);
-    errorStream.println(getFullMessage("error: ", message, CLANG_STYLE_ERROR_MSG));
-    errorCount++;
+    Report report = report();
+    synchronized (report) {
+      report.errorMessages.add(message);
+      report.errorStream.println(getFullMessage("error: ", message, CLANG_STYLE_ERROR_MSG));
+      report.errorCount++;
+    }
   }
 
   public static void warning(String message) {
-    warningMessages.add(message);
-    errorStream.println(getFullMessage("warning: ", message, CLANG_STYLE_ERROR_MSG));
-    warningCount++;
+    Report report = report();
+    synchronized (report) {
+      report.warningMessages.add(message);
+      report.errorStream.println(getFullMessage("warning: ", message, CLANG_STYLE_ERROR_MSG));
+      report.warningCount++;
+    }
   }
 
   /**
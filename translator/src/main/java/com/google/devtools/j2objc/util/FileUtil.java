@@ -18,8 +18,6 @@ import com.google.devtools.j2objc.J2ObjC;
 import com.google.devtools.j2objc.ast.CompilationUnit;
 import com.google.devtools.j2objc.ast.PackageDeclaration;
 import com.google.devtools.j2objc.file.InputFile;
-import com.google.devtools.j2objc.file.JarredInputFile;
-import com.google.devtools.j2objc.file.RegularInputFile;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
@@ -30,8 +28,10 @@ import java.nio.charset.Charset;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
 import javax.annotation.Nullable;
@@ -44,9 +44,13 @@ import javax.tools.JavaFileObject;
  */
 public class FileUtil {
 
+  private static final Map<String, CachedProperties> propertiesCache = new ConcurrentHashMap<>();
+
   private Set<String> tempDirs = new HashSet<>();
   private List<String> sourcePathEntries = new ArrayList<>();
   private List<String> classPathEntries = new ArrayList<>();
+  private PathIndex sourcePathIndex = null;
+  private PathIndex classPathIndex = null;
   private File outputDirectory = new File(".");
   private File headerOutputDirectory = null;
   private String fileEncoding = System.getProperty("file.encoding", "UTF-8");
@@ -155,7 +159,7 @@ public class FileUtil {
    */
   @Nullable
   public InputFile findTypeOnSourcePath(String qualifiedName) throws IOException {
-    return findTypeOnPaths(qualifiedName, sourcePathEntries, ".java");
+    return sourcePathIndex().find(typeNameToFileName(qualifiedName, ".java"));
   }
 
   /**
@@ -165,13 +169,11 @@ public class FileUtil {
    */
   @Nullable
   public InputFile findTypeOnClassPath(String qualifiedName) throws IOException {
-    return findTypeOnPaths(qualifiedName, classPathEntries, ".class");
+    return classPathIndex().find(typeNameToFileName(qualifiedName, ".class"));
   }
 
-  private static InputFile findTypeOnPaths(
-      String qualifiedName, List<String> paths, String extension) throws IOException {
-    String sourceFileName = qualifiedName.replace('.', File.separatorChar) + extension;
-    return findFileOnPaths(sourceFileName, paths);
+  private static String typeNameToFileName(String qualifiedName, String extension) {
+    return qualifiedName.replace('.', File.separatorChar) + extension;
   }
 
   /**
@@ -182,30 +184,22 @@ public class FileUtil {
    */
   @Nullable
   public InputFile findFileOnSourcePath(String sourceFileName) throws IOException {
-    return findFileOnPaths(sourceFileName, sourcePathEntries);
-  }
-
-  private static InputFile findFileOnPaths(
-      String sourceFileName, List<String> paths) throws IOException {
-    // Zip/jar files always use forward slashes.
-    String jarEntryName = sourceFileName.replace(File.separatorChar, '/');
-    for (String pathEntry : paths) {
-      File f = new File(pathEntry);
-      if (f.isDirectory()) {
-        RegularInputFile regularFile = new RegularInputFile(
-            pathEntry + File.separatorChar + sourceFileName, sourceFileName);
-        if (regularFile.exists()) {
-          return regularFile;
-        }
-      } else {
-        // Assume it's a jar file
-        JarredInputFile jarFile = new JarredInputFile(pathEntry, jarEntryName);
-        if (jarFile.exists()) {
-          return jarFile;
-        }
-      }
+    return sourcePathIndex().find(sourceFileName);
+  }
+
+  // The path entry lists are modifiable, so the indexes are rebuilt if they change.
+  private synchronized PathIndex sourcePathIndex() {
+    if (sourcePathIndex == null || !sourcePathIndex.indexes(sourcePathEntries)) {
+      sourcePathIndex = new PathIndex(sourcePathEntries);
+    }
+    return sourcePathIndex;
+  }
+
+  private synchronized PathIndex classPathIndex() {
+    if (classPathIndex == null || !classPathIndex.indexes(classPathEntries)) {
+      classPathIndex = new PathIndex(classPathEntries);
     }
-    return null;
+    return classPathIndex;
   }
 
   public String readFile(InputFile file) throws IOException {
@@ -226,10 +220,32 @@ public class FileUtil {
   }
 
   /**
-   * Reads the given properties file.
+   * Reads the given properties file. Files are only parsed again when their
+   * size or modification time changes, so that a worker process serving many
+   * translations doesn't reload its mapping files for each one.
    */
   public static Properties loadProperties(String resourceName) throws IOException {
-    return loadProperties(streamForFile(resourceName));
+    File f = new File(resourceName);
+    String fingerprint = f.exists() ? f.length() + ":" + f.lastModified() : "resource";
+    CachedProperties cached = propertiesCache.get(resourceName);
+    if (cached == null || !cached.fingerprint.equals(fingerprint)) {
+      cached = new CachedProperties(fingerprint, loadProperties(streamForFile(resourceName)));
+      propertiesCache.put(resourceName, cached);
+    }
+    // Callers may modify the returned properties.
+    Properties copy = new Properties();
+    copy.putAll(cached.properties);
+    return copy;
+  }
+
+  private static class CachedProperties {
+    private final String fingerprint;
+    private final Properties properties;
+
+    private CachedProperties(String fingerprint, Properties properties) {
+      this.fingerprint = fingerprint;
+      this.properties = properties;
+    }
   }
 
   public static Properties loadProperties(InputStream in) throws IOException {
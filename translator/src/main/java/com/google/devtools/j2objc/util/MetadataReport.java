@@ -0,0 +1,46 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.devtools.j2objc.util;
+
+import java.io.PrintStream;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * The estimated reflection metadata size of each translated class, printed
+ * with -Xmetadata-report after all sources are translated. Classes are
+ * recorded concurrently by translation threads, and printed in name order.
+ */
+public class MetadataReport {
+
+  private final Map<String, String> entries = new TreeMap<>();
+  private long totalSize = 0;
+
+  public synchronized void addClass(
+      String binaryName, int size, int methodCount, int fieldCount, int annotationFuncCount) {
+    entries.put(binaryName, String.format(
+        "%s: %d bytes of reflection metadata (%d methods, %d fields, %d annotation functions)",
+        binaryName, size, methodCount, fieldCount, annotationFuncCount));
+    totalSize += size;
+  }
+
+  public synchronized void print(PrintStream out) {
+    for (String entry : entries.values()) {
+      out.println(entry);
+    }
+    out.println(String.format(
+        "%d bytes of reflection metadata in %d classes", totalSize, entries.size()));
+  }
+}
@@ -90,7 +90,7 @@ public class NameTable {
    * The list of predefined types, common primitive typedefs, constants and
    * variables. Loaded from a resource file.
    */
-  private static ImmutableSet<String> reservedNames = loadReservedNames(
+  private static final ImmutableSet<String> reservedNames = loadReservedNames(
       () -> J2ObjC.class.getResourceAsStream(RESERVED_NAMES_FILE));
 
   // Regex pattern for fully-qualified Java class or package names.
@@ -117,19 +117,22 @@ public class NameTable {
     }
   }
 
-  public static void addReservedNames(String file) {
-    ImmutableSet.Builder<String> updatedReservedNames = ImmutableSet.builder();
-    updatedReservedNames.addAll(reservedNames);
-    updatedReservedNames.addAll(
-        loadReservedNames(
-            () -> {
-              try {
-                return new FileInputStream(file);
-              } catch (FileNotFoundException e) {
-                throw new AssertionError(e);
-              }
-            }));
-    reservedNames = updatedReservedNames.build();
+  /**
+   * Loads a user-supplied reserved names file, in the same format as the
+   * built-in list.
+   */
+  public static ImmutableSet<String> loadReservedNames(String file) throws IOException {
+    if (!new File(file).isFile()) {
+      throw new FileNotFoundException(file);
+    }
+    return loadReservedNames(
+        () -> {
+          try {
+            return new FileInputStream(file);
+          } catch (FileNotFoundException e) {
+            throw new AssertionError(e);
+          }
+        });
   }
 
   private static final ImmutableSet<String> badParameterNames = ImmutableSet.of(
@@ -163,6 +166,9 @@ public class NameTable {
   private final ImmutableMap<String, String> classMappings;
   private final ImmutableMap<String, String> methodMappings;
 
+  // Names reserved with --reserved-names, in addition to the built-in list.
+  private final ImmutableSet<String> extraReservedNames;
+
   public NameTable(TypeUtil typeUtil, CaptureInfo captureInfo, Options options) {
     this.typeUtil = typeUtil;
     this.elementUtil = typeUtil.elementUtil();
@@ -170,6 +176,7 @@ public class NameTable {
     prefixMap = options.getPackagePrefixes();
     classMappings = options.getMappings().getClassMappings();
     methodMappings = options.getMappings().getMethodMappings();
+    extraReservedNames = ImmutableSet.copyOf(options.reservedNames());
   }
 
   public void setVariableName(VariableElement var, String name) {
@@ -209,7 +216,7 @@ public class NameTable {
     return name.equals(SELF_NAME) ? "self" : name;
   }
 
-  private static String maybeRenameVar(VariableElement var, String name) {
+  private String maybeRenameVar(VariableElement var, String name) {
     if (isReservedName(name)) {
       name += '_';
     } else if (ElementUtil.isParameter(var) && badParameterNames.contains(name)) {
@@ -223,7 +230,7 @@ public class NameTable {
    * This may be wrong if a variable is renamed by a translation phase, but will
    * handle all the reserved and bad parameter renamings correctly.
    */
-  public static String getDocCommentVariableName(VariableElement var) {
+  public String getDocCommentVariableName(VariableElement var) {
     return maybeRenameVar(var, ElementUtil.getName(var));
   }
 
@@ -258,7 +265,7 @@ public class NameTable {
   /**
    * Returns the name of an annotation property variable, extracted from its accessor element.
    */
-  public static String getAnnotationPropertyName(ExecutableElement element) {
+  public String getAnnotationPropertyName(ExecutableElement element) {
     return getMethodName(element);
   }
 
@@ -341,7 +348,7 @@ public class NameTable {
     }
   }
 
-  private static String getMethodName(ExecutableElement method) {
+  private String getMethodName(ExecutableElement method) {
     if (ElementUtil.isConstructor(method)) {
       TypeElement clazz = ElementUtil.getDeclaringClass(method);
       boolean needsPackagePrivateSuffix = ElementUtil.isTopLevel(clazz)
@@ -669,8 +676,9 @@ public class NameTable {
     return ElementUtil.getName(element).replace('$', '_');
   }
 
-  private static boolean isReservedName(String name) {
-    return reservedNames.contains(name) || nsObjectMessages.contains(name);
+  private boolean isReservedName(String name) {
+    return reservedNames.contains(name) || extraReservedNames.contains(name)
+        || nsObjectMessages.contains(name);
   }
 
   private String getPrefix(PackageElement packageElement) {
@@ -0,0 +1,46 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.devtools.j2objc.util;
+
+import java.io.PrintStream;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * The nil_chk calls each source needed, printed with -Xnil-check-report after
+ * all sources are translated. Sources are recorded concurrently by translation
+ * threads, and printed in path order.
+ */
+public class NilCheckReport {
+
+  private final Map<String, String> entries = new TreeMap<>();
+  private long totalNilChecks = 0;
+  private long totalRemoved = 0;
+
+  public synchronized void addSource(String path, int nilCheckCount, int removedCount) {
+    entries.put(path, String.format("%s: %d nil_chk calls, %d removed by nullness inference",
+        path, nilCheckCount, removedCount));
+    totalNilChecks += nilCheckCount;
+    totalRemoved += removedCount;
+  }
+
+  public synchronized void print(PrintStream out) {
+    for (String entry : entries.values()) {
+      out.println(entry);
+    }
+    out.println(String.format("%d nil_chk calls in %d sources, %d removed by nullness inference",
+        totalNilChecks, entries.size(), totalRemoved));
+  }
+}
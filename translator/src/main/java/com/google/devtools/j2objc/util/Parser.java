@@ -112,6 +112,12 @@ public abstract class Parser implements Closeable {
     sourcepathEntries.add(0, entry);
   }
 
+  /**
+   * Add the source roots of the specified sources to the end of the source
+   * path, so the types they declare are found when they aren't inputs.
+   */
+  public abstract void addSourceRootsOf(Collection<String> sourcePaths);
+
   public Options options() {
     return options;
   }
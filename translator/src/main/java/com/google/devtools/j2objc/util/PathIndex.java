@@ -0,0 +1,125 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.devtools.j2objc.util;
+
+import com.google.devtools.j2objc.file.InputFile;
+import com.google.devtools.j2objc.file.JarredInputFile;
+import com.google.devtools.j2objc.file.RegularInputFile;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Finds files on a source path or class path without opening its jars for
+ * each lookup. A jar's entry names are read once from its central directory,
+ * and shared by every path in the process while the jar's size and
+ * modification time are unchanged. Directories are still probed, since the
+ * translator writes to directories on its paths while it runs.
+ */
+class PathIndex {
+
+  private static final Map<String, JarEntries> jarCache = new ConcurrentHashMap<>();
+
+  private final List<String> paths;
+  // For each path entry, the names in its jar, or null if it isn't a readable jar.
+  private final List<Set<String>> jarEntries = new ArrayList<>();
+  private final List<Boolean> isDirectory = new ArrayList<>();
+
+  PathIndex(List<String> paths) {
+    this.paths = new ArrayList<>(paths);
+    for (String path : this.paths) {
+      File f = new File(path);
+      isDirectory.add(f.isDirectory());
+      jarEntries.add(f.isFile() ? readJarEntries(f) : null);
+    }
+  }
+
+  /**
+   * Returns true if this index was created for the specified path entries.
+   */
+  boolean indexes(List<String> paths) {
+    return this.paths.equals(paths);
+  }
+
+  /**
+   * Returns the first file on the path with the specified relative path, or null.
+   */
+  InputFile find(String fileName) throws IOException {
+    // Zip/jar files always use forward slashes.
+    String jarEntryName = fileName.replace(File.separatorChar, '/');
+    for (int i = 0; i < paths.size(); i++) {
+      String pathEntry = paths.get(i);
+      Set<String> entries = jarEntries.get(i);
+      if (entries != null) {
+        if (entries.contains(jarEntryName)) {
+          return new JarredInputFile(pathEntry, jarEntryName);
+        }
+      } else if (isDirectory.get(i) || new File(pathEntry).isDirectory()) {
+        RegularInputFile regularFile = new RegularInputFile(
+            pathEntry + File.separatorChar + fileName, fileName);
+        if (regularFile.exists()) {
+          return regularFile;
+        }
+      } else {
+        // Missing or unreadable, so let the jar report the error.
+        JarredInputFile jarFile = new JarredInputFile(pathEntry, jarEntryName);
+        if (jarFile.exists()) {
+          return jarFile;
+        }
+      }
+    }
+    return null;
+  }
+
+  private static Set<String> readJarEntries(File jar) {
+    String key = jar.getAbsolutePath();
+    long length = jar.length();
+    long lastModified = jar.lastModified();
+    JarEntries cached = jarCache.get(key);
+    if (cached != null && cached.length == length && cached.lastModified == lastModified) {
+      return cached.names;
+    }
+    Set<String> names = new HashSet<>();
+    try (ZipFile zip = new ZipFile(jar)) {
+      for (Enumeration<? extends ZipEntry> e = zip.entries(); e.hasMoreElements(); ) {
+        names.add(e.nextElement().getName());
+      }
+    } catch (IOException e) {
+      return null;
+    }
+    jarCache.put(key, new JarEntries(length, lastModified, names));
+    return names;
+  }
+
+  private static class JarEntries {
+    private final long length;
+    private final long lastModified;
+    private final Set<String> names;
+
+    private JarEntries(long length, long lastModified, Set<String> names) {
+      this.length = length;
+      this.lastModified = lastModified;
+      this.names = names;
+    }
+  }
+}
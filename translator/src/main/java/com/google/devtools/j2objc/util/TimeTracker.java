@@ -15,6 +15,7 @@
 package com.google.devtools.j2objc.util;
 
 import com.google.common.collect.Lists;
+import com.google.devtools.j2objc.Options;
 import com.google.devtools.j2objc.Options.TimingLevel;
 import java.io.PrintStream;
 import java.util.Arrays;
@@ -36,6 +37,18 @@ public class TimeTracker {
     }
   }
 
+  /**
+   * Returns a ticker that records into the options' timing profile, if one
+   * was requested, otherwise a ticker for the options' timing level.
+   */
+  public static TimeTracker getTicker(String name, Options options) {
+    TimingProfile profile = options.timingProfile();
+    if (profile != null) {
+      return new ProfilingTimeTracker(name, profile);
+    }
+    return getTicker(name, options.timingLevel());
+  }
+
   public static TimeTracker noop() {
     return new TimeTracker();
   }
@@ -101,9 +114,58 @@ public class TimeTracker {
 
     @Override
     public void printResults(PrintStream out) {
-      for (String entry : entries) {
-        out.println(entry);
+      // Keep each unit's results together when units are translated in parallel.
+      synchronized (out) {
+        for (String entry : entries) {
+          out.println(entry);
+        }
       }
     }
   }
+
+  /**
+   * Records each slice into a {@link TimingProfile}, with nanosecond times
+   * and the bytes allocated by the translating thread.
+   */
+  private static class ProfilingTimeTracker extends TimeTracker {
+
+    private final String name;
+    private final TimingProfile profile;
+    private final long[] lastTicks = new long[16];
+    private final long[] lastAllocated = new long[16];
+    private int currentLevel = 0;
+
+    private ProfilingTimeTracker(String name, TimingProfile profile) {
+      this.name = name;
+      this.profile = profile;
+      mark();
+    }
+
+    private void mark() {
+      lastAllocated[currentLevel] = profile.allocatedBytes();
+      lastTicks[currentLevel] = System.nanoTime();
+    }
+
+    @Override
+    public void tick(String event) {
+      long now = System.nanoTime();
+      long allocated = profile.allocatedBytes();
+      long start = lastTicks[currentLevel];
+      long startAllocated = lastAllocated[currentLevel];
+      profile.addEvent(event, name, start, now - start,
+          allocated >= 0 ? allocated - startAllocated : -1);
+      mark();
+    }
+
+    @Override
+    public void push() {
+      currentLevel++;
+      mark();
+    }
+
+    @Override
+    public void pop() {
+      currentLevel--;
+    }
+  }
 }
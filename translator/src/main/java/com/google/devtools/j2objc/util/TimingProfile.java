@@ -0,0 +1,190 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.devtools.j2objc.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Collects the timings of all translated sources, and writes them as a
+ * Chrome trace-event file that can be loaded in chrome://tracing or Perfetto.
+ * Each tick of a {@link TimeTracker} is a complete event with nanosecond
+ * timing and, when the JVM supports it, the bytes the thread allocated during
+ * it. The file also has a "passSummary" list with each event name's count,
+ * total, percentiles and allocations across all sources, ordered by total time.
+ */
+public class TimingProfile {
+
+  private final File outputFile;
+  private final long startNanos = System.nanoTime();
+  private final List<Event> events = new ArrayList<>();
+  private final com.sun.management.ThreadMXBean threadBean;
+
+  public TimingProfile(File outputFile) {
+    this.outputFile = outputFile;
+    ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+    if (bean instanceof com.sun.management.ThreadMXBean
+        && ((com.sun.management.ThreadMXBean) bean).isThreadAllocatedMemorySupported()) {
+      threadBean = (com.sun.management.ThreadMXBean) bean;
+      threadBean.setThreadAllocatedMemoryEnabled(true);
+    } else {
+      threadBean = null;
+    }
+  }
+
+  /**
+   * Returns the bytes allocated by the current thread so far, or -1 if unknown.
+   */
+  long allocatedBytes() {
+    return threadBean != null
+        ? threadBean.getThreadAllocatedBytes(Thread.currentThread().getId()) : -1;
+  }
+
+  /**
+   * Records an event of the current thread. The unit is the name of the
+   * tracker, usually a source file.
+   */
+  void addEvent(String name, String unit, long startNanos, long durationNanos,
+      long allocatedBytes) {
+    Event event = new Event(name, unit, startNanos - this.startNanos, durationNanos,
+        allocatedBytes, Thread.currentThread().getId());
+    synchronized (events) {
+      events.add(event);
+    }
+  }
+
+  public void write() throws IOException {
+    List<Event> allEvents;
+    synchronized (events) {
+      allEvents = new ArrayList<>(events);
+    }
+    try (PrintWriter out = new PrintWriter(outputFile, StandardCharsets.UTF_8.name())) {
+      out.println("{\"displayTimeUnit\":\"ms\",\"traceEvents\":[");
+      for (int i = 0; i < allEvents.size(); i++) {
+        Event event = allEvents.get(i);
+        out.print(String.format(Locale.ROOT,
+            "{\"name\":%s,\"cat\":\"j2objc\",\"ph\":\"X\",\"pid\":1,\"tid\":%d,"
+            + "\"ts\":%.3f,\"dur\":%.3f,\"args\":{\"unit\":%s",
+            quote(event.name), event.threadId, event.startNanos / 1000.0,
+            event.durationNanos / 1000.0, quote(event.unit)));
+        if (event.allocatedBytes >= 0) {
+          out.print(",\"allocatedBytes\":" + event.allocatedBytes);
+        }
+        out.println(i + 1 < allEvents.size() ? "}}," : "}}");
+      }
+      out.println("],\"passSummary\":[");
+      List<Summary> summaries = summarize(allEvents);
+      for (int i = 0; i < summaries.size(); i++) {
+        Summary s = summaries.get(i);
+        out.print(String.format(Locale.ROOT,
+            "{\"name\":%s,\"count\":%d,\"totalMs\":%.3f,\"p50Ms\":%.3f,\"p90Ms\":%.3f,"
+            + "\"p99Ms\":%.3f,\"maxMs\":%.3f",
+            quote(s.name), s.durations.length, s.totalNanos / 1e6, s.percentile(50) / 1e6,
+            s.percentile(90) / 1e6, s.percentile(99) / 1e6, s.percentile(100) / 1e6));
+        if (s.allocatedBytes >= 0) {
+          out.print(",\"allocatedBytes\":" + s.allocatedBytes);
+        }
+        out.println(i + 1 < summaries.size() ? "}," : "}");
+      }
+      out.println("]}");
+    }
+  }
+
+  private static List<Summary> summarize(List<Event> events) {
+    Map<String, List<Event>> byName = new LinkedHashMap<>();
+    for (Event event : events) {
+      byName.computeIfAbsent(event.name, k -> new ArrayList<>()).add(event);
+    }
+    List<Summary> summaries = new ArrayList<>();
+    for (Map.Entry<String, List<Event>> entry : byName.entrySet()) {
+      summaries.add(new Summary(entry.getKey(), entry.getValue()));
+    }
+    summaries.sort((a, b) -> Long.compare(b.totalNanos, a.totalNanos));
+    return summaries;
+  }
+
+  private static String quote(String s) {
+    StringBuilder sb = new StringBuilder("\"");
+    for (int i = 0; i < s.length(); i++) {
+      char c = s.charAt(i);
+      if (c == '"' || c == '\\') {
+        sb.append('\\').append(c);
+      } else if (c < 0x20) {
+        sb.append(String.format("\\u%04x", (int) c));
+      } else {
+        sb.append(c);
+      }
+    }
+    return sb.append('"').toString();
+  }
+
+  private static class Event {
+    private final String name;
+    private final String unit;
+    private final long startNanos;
+    private final long durationNanos;
+    private final long allocatedBytes;
+    private final long threadId;
+
+    private Event(String name, String unit, long startNanos, long durationNanos,
+        long allocatedBytes, long threadId) {
+      this.name = name;
+      this.unit = unit;
+      this.startNanos = startNanos;
+      this.durationNanos = durationNanos;
+      this.allocatedBytes = allocatedBytes;
+      this.threadId = threadId;
+    }
+  }
+
+  private static class Summary {
+    private final String name;
+    private final long[] durations;
+    private long totalNanos = 0;
+    private long allocatedBytes = 0;
+
+    private Summary(String name, List<Event> events) {
+      this.name = name;
+      durations = new long[events.size()];
+      for (int i = 0; i < durations.length; i++) {
+        Event event = events.get(i);
+        durations[i] = event.durationNanos;
+        totalNanos += event.durationNanos;
+        if (event.allocatedBytes < 0 || allocatedBytes < 0) {
+          allocatedBytes = -1;
+        } else {
+          allocatedBytes += event.allocatedBytes;
+        }
+      }
+      Arrays.sort(durations);
+    }
+
+    // Nearest-rank percentile.
+    private long percentile(int p) {
+      int rank = (int) Math.ceil(p / 100.0 * durations.length);
+      return durations[Math.max(rank, 1) - 1];
+    }
+  }
+}
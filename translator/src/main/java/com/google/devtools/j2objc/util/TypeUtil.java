@@ -92,6 +92,10 @@ public final class TypeUtil {
 
   private final Elements javacElements;
   private final Types javacTypes;
+  // javac's Elements and Types share symbol tables that aren't thread-safe, and complete
+  // symbols lazily. Units translated in parallel share them, so this class's queries are
+  // serialized. Static helpers and direct Element and TypeMirror calls are not.
+  private final Object javacLock;
   private final ElementUtil elementUtil;
 
   // Commonly accessed types.
@@ -108,14 +112,15 @@ public final class TypeUtil {
   public TypeUtil(ParserEnvironment env, ElementUtil elementUtil) {
     this.javacElements = env.elementUtilities();
     this.javacTypes = env.typeUtilities();
+    this.javacLock = ElementUtil.javacLock(javacElements);
     this.elementUtil = elementUtil;
 
-    javaObject = javacElements.getTypeElement("java.lang.Object");
-    javaString = javacElements.getTypeElement("java.lang.String");
-    javaClass = javacElements.getTypeElement("java.lang.Class");
-    javaNumber = javacElements.getTypeElement("java.lang.Number");
-    javaThrowable = javacElements.getTypeElement("java.lang.Throwable");
-    TypeElement javaCloneable = javacElements.getTypeElement("java.lang.Cloneable");
+    javaObject = resolveJavaType("java.lang.Object");
+    javaString = resolveJavaType("java.lang.String");
+    javaClass = resolveJavaType("java.lang.Class");
+    javaNumber = resolveJavaType("java.lang.Number");
+    javaThrowable = resolveJavaType("java.lang.Throwable");
+    TypeElement javaCloneable = resolveJavaType("java.lang.Cloneable");
 
     ImmutableMap.Builder<TypeElement, TypeElement> typeMapBuilder =
         ImmutableMap.<TypeElement, TypeElement>builder()
@@ -125,9 +130,9 @@ public final class TypeUtil {
         .put(javaNumber, NS_NUMBER)
         .put(javaCloneable, NS_COPYING);
 
-    TypeElement typeNSException = javacElements.getTypeElement("com.google.j2objc.NSException");
+    TypeElement typeNSException = resolveJavaType("com.google.j2objc.NSException");
     TypeElement typeNSFastEnumeration =
-        javacElements.getTypeElement("com.google.j2objc.NSFastEnumeration");
+        resolveJavaType("com.google.j2objc.NSFastEnumeration");
 
     // Types could be null if the user is not using jre_emul.jar as the boot path.
     if (typeNSException != null) {
@@ -145,7 +150,9 @@ public final class TypeUtil {
   }
 
   public TypeElement resolveJavaType(String qualifiedName) {
-    return javacElements.getTypeElement(qualifiedName);
+    synchronized (javacLock) {
+      return javacElements.getTypeElement(qualifiedName);
+    }
   }
 
   public static boolean isDeclaredType(TypeMirror t) {
@@ -252,11 +259,15 @@ public final class TypeUtil {
   }
 
   public ExecutableType asMemberOf(DeclaredType containing, ExecutableElement method) {
-    return (ExecutableType) javacTypes.asMemberOf(containing, method);
+    synchronized (javacLock) {
+      return (ExecutableType) javacTypes.asMemberOf(containing, method);
+    }
   }
 
   public TypeMirror asMemberOf(DeclaredType containing, VariableElement var) {
-    return javacTypes.asMemberOf(containing, var);
+    synchronized (javacLock) {
+      return javacTypes.asMemberOf(containing, var);
+    }
   }
 
   public boolean isAssignable(TypeMirror t1, TypeMirror t2) {
@@ -264,7 +275,9 @@ public final class TypeUtil {
       // TODO(antoniocortes): implement as part of converting Elements to their generated versions.
       return false;
     }
-    return javacTypes.isAssignable(t1, t2);
+    synchronized (javacLock) {
+      return javacTypes.isAssignable(t1, t2);
+    }
   }
 
   public boolean isSubtype(TypeMirror t1, TypeMirror t2) {
@@ -272,7 +285,9 @@ public final class TypeUtil {
       // TODO(antoniocortes): implement as part of converting Elements to their generated versions.
       return false;
     }
-    return javacTypes.isSubtype(t1, t2);
+    synchronized (javacLock) {
+      return javacTypes.isSubtype(t1, t2);
+    }
   }
 
   @SuppressWarnings("TypeEquals")
@@ -280,7 +295,9 @@ public final class TypeUtil {
     if (isGeneratedType(t1) || isGeneratedType(t2)) {
       return t1.equals(t2);
     }
-    return javacTypes.isSameType(t1, t2);
+    synchronized (javacLock) {
+      return javacTypes.isSameType(t1, t2);
+    }
   }
 
   @SuppressWarnings("TypeEquals")
@@ -288,7 +305,9 @@ public final class TypeUtil {
     if (isGeneratedType(m1) || isGeneratedType(m2)) {
       return m1.equals(m2);
     }
-    return javacTypes.isSubsignature(m1, m2);
+    synchronized (javacLock) {
+      return javacTypes.isSubsignature(m1, m2);
+    }
   }
 
   /**
@@ -300,7 +319,9 @@ public final class TypeUtil {
   public TypeMirror unaryNumericPromotion(TypeMirror type) {
     TypeKind t = type.getKind();
     if (t == TypeKind.DECLARED) {
-      type = javacTypes.unboxedType(type);
+      synchronized (javacLock) {
+        type = javacTypes.unboxedType(type);
+      }
       t = type.getKind();
     }
     if (t == TypeKind.BYTE || t == TypeKind.SHORT || t == TypeKind.CHAR) {
@@ -322,11 +343,13 @@ public final class TypeUtil {
   public TypeMirror binaryNumericPromotion(TypeMirror type1, TypeMirror type2) {
     TypeKind t1 = type1.getKind();
     TypeKind t2 = type2.getKind();
-    if (t1 == TypeKind.DECLARED) {
-      t1 = javacTypes.unboxedType(type1).getKind();
-    }
-    if (t2 == TypeKind.DECLARED) {
-      t2 = javacTypes.unboxedType(type2).getKind();
+    synchronized (javacLock) {
+      if (t1 == TypeKind.DECLARED) {
+        t1 = javacTypes.unboxedType(type1).getKind();
+      }
+      if (t2 == TypeKind.DECLARED) {
+        t2 = javacTypes.unboxedType(type2).getKind();
+      }
     }
     if (t1 == TypeKind.DOUBLE || t2 == TypeKind.DOUBLE) {
       return getDouble();
@@ -365,18 +388,24 @@ public final class TypeUtil {
       // so prefer the JDT behavior here.
       return Collections.emptyList();
     }
-    return javacTypes.directSupertypes(t);
+    synchronized (javacLock) {
+      return javacTypes.directSupertypes(t);
+    }
   }
 
   public TypeMirror erasure(TypeMirror t) {
-    return javacTypes.erasure(t);
+    synchronized (javacLock) {
+      return javacTypes.erasure(t);
+    }
   }
 
   public ArrayType getArrayType(TypeMirror componentType) {
     if (isGeneratedType(componentType)) {
       return new GeneratedArrayType(componentType);
     }
-    return javacTypes.getArrayType(componentType);
+    synchronized (javacLock) {
+      return javacTypes.getArrayType(componentType);
+    }
   }
 
   public ArrayType getArrayType(TypeMirror componentType, int dims) {
@@ -658,7 +687,9 @@ public final class TypeUtil {
       return null;
     }
     try {
-      return javacTypes.unboxedType(t);
+      synchronized (javacLock) {
+        return javacTypes.unboxedType(t);
+      }
     } catch (IllegalArgumentException e) {
       return null;
     }
@@ -669,7 +700,9 @@ public final class TypeUtil {
   }
 
   public TypeElement boxedClass(PrimitiveType t) {
-    return javacTypes.boxedClass(t);
+    synchronized (javacLock) {
+      return javacTypes.boxedClass(t);
+    }
   }
 
   public boolean isDeclaredAsId(TypeMirror t) {
@@ -729,8 +762,7 @@ public final class TypeUtil {
 
   public List<? extends TypeMirror> getUpperBounds(TypeMirror t) {
     if (t == null) {
-      return Collections.singletonList(
-          javacElements.getTypeElement("java.lang.Object").asType());
+      return Collections.singletonList(javaObject.asType());
     }
     switch (t.getKind()) {
       case INTERSECTION:
@@ -0,0 +1,107 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.devtools.j2objc;
+
+import com.google.devtools.j2objc.util.ErrorUtil;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tests for {@link J2ObjCWorker}.
+ */
+public class J2ObjCWorkerTest extends GenerationTest {
+
+  public void testConcurrentRequests() throws IOException {
+    addSourceFile("class Good { int foo() { return 42; } }", "Good.java");
+    addSourceFile("class Bad { int foo() { return \"42\"; } }", "Bad.java");
+    ByteArrayOutputStream requests = new ByteArrayOutputStream();
+    DataOutputStream out = new DataOutputStream(requests);
+    writeRequest(out, "good", "Good.java");
+    writeRequest(out, "bad", "Bad.java");
+
+    ByteArrayOutputStream responses = new ByteArrayOutputStream();
+    new J2ObjCWorker(new ByteArrayInputStream(requests.toByteArray()), responses, 2).serve();
+
+    // Responses are sent as requests finish, so they are keyed by request id.
+    Map<String, String[]> results = new HashMap<>();
+    DataInputStream in = new DataInputStream(new ByteArrayInputStream(responses.toByteArray()));
+    for (int i = 0; i < 2; i++) {
+      String[] lines = readResponse(in);
+      results.put(lines[0], lines);
+    }
+    assertEquals(0, in.available());
+
+    assertEquals("0", results.get("good")[1]);
+    assertEquals("", results.get("good")[2]);
+    assertTranslation(getTranslatedFile("Good.h"), "- (jint)foo;");
+    assertEquals("1", results.get("bad")[1]);
+    assertTranslation(results.get("bad")[2], "incompatible types");
+
+    // Each request's errors are isolated from the process-wide report.
+    assertEquals(0, ErrorUtil.errorCount());
+  }
+
+  public void testInvalidFlagDoesNotExit() throws IOException {
+    addSourceFile("class Good { int foo() { return 42; } }", "Good.java");
+    ByteArrayOutputStream requests = new ByteArrayOutputStream();
+    DataOutputStream out = new DataOutputStream(requests);
+    writeRequest(out, "invalid", "Good.java", "-Xno-such-flag");
+    writeRequest(out, "good", "Good.java");
+
+    ByteArrayOutputStream responses = new ByteArrayOutputStream();
+    new J2ObjCWorker(new ByteArrayInputStream(requests.toByteArray()), responses, 1).serve();
+
+    DataInputStream in = new DataInputStream(new ByteArrayInputStream(responses.toByteArray()));
+    String[] invalid = readResponse(in);
+    assertEquals("invalid", invalid[0]);
+    assertEquals("1", invalid[1]);
+    assertTranslation(invalid[2], "j2objc: invalid flag: -Xno-such-flag");
+    String[] good = readResponse(in);
+    assertEquals("good", good[0]);
+    assertEquals("0", good[1]);
+  }
+
+  private void writeRequest(DataOutputStream out, String id, String source, String... flags)
+      throws IOException {
+    String tempPath = tempDir.getAbsolutePath();
+    List<String> lines = new ArrayList<>();
+    lines.add(id);
+    lines.addAll(Arrays.asList(flags));
+    lines.addAll(Arrays.asList(
+        "-d", tempPath,
+        "-sourcepath", tempPath,
+        "-q",
+        "-encoding", "UTF-8",
+        tempPath + "/" + source));
+    byte[] bytes = String.join("\n", lines).getBytes(StandardCharsets.UTF_8);
+    out.writeInt(bytes.length);
+    out.write(bytes);
+  }
+
+  private static String[] readResponse(DataInputStream in) throws IOException {
+    byte[] response = new byte[in.readInt()];
+    in.readFully(response);
+    return new String(response, StandardCharsets.UTF_8).split("\n", 3);
+  }
+}
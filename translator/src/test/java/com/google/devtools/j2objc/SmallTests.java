@@ -17,6 +17,8 @@
 package com.google.devtools.j2objc;
 
 import com.google.devtools.j2objc.ast.AnnotationTest;
+import com.google.devtools.j2objc.ast.ChildListTest;
+import com.google.devtools.j2objc.ast.FusedTreeVisitorTest;
 import com.google.devtools.j2objc.ast.InfixExpressionTest;
 import com.google.devtools.j2objc.ast.LambdaExpressionTest;
 import com.google.devtools.j2objc.ast.MethodReferenceTest;
@@ -38,6 +40,7 @@ import com.google.devtools.j2objc.javac.ClassFileConverterTest;
 import com.google.devtools.j2objc.javac.JavacParserTest;
 import com.google.devtools.j2objc.javac.JavacTreeConverterTest;
 import com.google.devtools.j2objc.pipeline.J2ObjCIncompatibleStripperTest;
+import com.google.devtools.j2objc.pipeline.TranslationCacheTest;
 import com.google.devtools.j2objc.pipeline.TranslationProcessorTest;
 import com.google.devtools.j2objc.translate.AbstractMethodRewriterTest;
 import com.google.devtools.j2objc.translate.AnnotationRewriterTest;
@@ -90,6 +93,7 @@ import com.google.devtools.j2objc.util.NameTableTest;
 import com.google.devtools.j2objc.util.PackageInfoLookupTest;
 import com.google.devtools.j2objc.util.PackagePrefixesTest;
 import com.google.devtools.j2objc.util.ProGuardUsageParserTest;
+import com.google.devtools.j2objc.util.TimingProfileTest;
 import com.google.devtools.j2objc.util.TranslationUtilTest;
 import com.google.devtools.j2objc.util.UnicodeUtilsTest;
 import junit.framework.Test;
@@ -111,6 +115,7 @@ public class SmallTests {
         ArrayRewriterTest.class,
         AutoboxerTest.class,
         CastResolverTest.class,
+        ChildListTest.class,
         ClassFileConverterTest.class,
         ClassFileTest.class,
         CodeReferenceMapTest.class,
@@ -127,6 +132,7 @@ public class SmallTests {
         ExternalAnnotationInjectorTest.class,
         FileUtilTest.class,
         FunctionizerTest.class,
+        FusedTreeVisitorTest.class,
         GwtConverterTest.class,
         HeaderImportCollectorTest.class,
         ImplementationImportCollectorTest.class,
@@ -135,6 +141,7 @@ public class SmallTests {
         InnerClassExtractorTest.class,
         J2ObjCIncompatibleStripperTest.class,
         J2ObjCTest.class,
+        J2ObjCWorkerTest.class,
         JavaCloneWriterTest.class,
         JavacParserTest.class,
         JavacTreeConverterTest.class,
@@ -171,9 +178,11 @@ public class SmallTests {
         StaticVarRewriterTest.class,
         SuperMethodInvocationRewriterTest.class,
         SwitchRewriterTest.class,
+        TimingProfileTest.class,
         TypeDeclarationGeneratorTest.class,
         TypeImplementationGeneratorTest.class,
         TypeUseAnnotationTest.class,
+        TranslationCacheTest.class,
         TranslationProcessorTest.class,
         TranslationUtilTest.class,
         UnicodeUtilsTest.class,
@@ -0,0 +1,81 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.devtools.j2objc.ast;
+
+import com.google.devtools.j2objc.GenerationTest;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tests for {@link ChildList}.
+ */
+public class ChildListTest extends GenerationTest {
+
+  private static Block createBlock(String... codes) {
+    Block block = new Block();
+    for (String code : codes) {
+      block.addStatement(new NativeStatement(code));
+    }
+    return block;
+  }
+
+  private static String codes(Block block) {
+    List<String> codes = new ArrayList<>();
+    for (Statement stmt : block.getStatements()) {
+      codes.add(((NativeStatement) stmt).getCode());
+    }
+    return codes.toString();
+  }
+
+  public void testRemoveAndReplace() {
+    Block block = createBlock("a", "b", "c", "d");
+    List<Statement> stmts = block.getStatements();
+    Statement b = stmts.get(1);
+    stmts.add(0, new NativeStatement("z"));
+    b.remove();
+    assertNull(b.getParent());
+    stmts.get(2).replaceWith(new NativeStatement("x"));
+    stmts.get(2).replaceWith(() -> new NativeStatement("y"));
+    stmts.get(0).remove();
+    assertEquals("[a, y, d]", codes(block));
+    for (Statement stmt : stmts) {
+      assertSame(block, stmt.getParent());
+    }
+  }
+
+  public void testModificationDuringVisit() {
+    Block block = createBlock("a", "b", "c", "d", "e");
+    List<String> visited = new ArrayList<>();
+    block.accept(new TreeVisitor() {
+      @Override
+      public void endVisit(NativeStatement node) {
+        visited.add(node.getCode());
+        List<Statement> stmts = block.getStatements();
+        if (node.getCode().equals("a")) {
+          // Added nodes aren't visited, replaced ones are.
+          stmts.add(1, new NativeStatement("added"));
+          stmts.get(2).replaceWith(new NativeStatement("replaced"));
+        } else if (node.getCode().equals("replaced")) {
+          // Removed and moved nodes aren't visited.
+          stmts.get(3).remove();
+          Statement moved = stmts.remove(3);
+          stmts.add(moved);
+        }
+      }
+    });
+    assertEquals("[a, replaced, e]", visited.toString());
+    assertEquals("[a, added, replaced, e, d]", codes(block));
+  }
+}
@@ -0,0 +1,137 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.devtools.j2objc.ast;
+
+import com.google.devtools.j2objc.GenerationTest;
+import com.google.devtools.j2objc.util.ElementUtil;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tests for {@link FusedTreeVisitor}.
+ */
+public class FusedTreeVisitorTest extends GenerationTest {
+
+  private static final String SOURCE =
+      "class Test { int f = 1; "
+      + "int foo(int a) { return a + f; } "
+      + "class Inner { String bar() { return \"bar\".trim(); } } }";
+
+  /**
+   * Records the names it visits, skipping method bodies.
+   */
+  private static class NameRecorder extends TreeVisitor {
+    private final List<String> names = new ArrayList<>();
+
+    @Override
+    public boolean visit(MethodDeclaration node) {
+      return false;
+    }
+
+    @Override
+    public void endVisit(SimpleName node) {
+      names.add(node.getIdentifier());
+    }
+  }
+
+  /**
+   * Records the order of the calls it receives, skipping types named Inner.
+   */
+  private static class CallRecorder extends TreeVisitor {
+    private final List<String> calls = new ArrayList<>();
+
+    @Override
+    public boolean preVisit(TreeNode node) {
+      if (node instanceof TypeDeclaration
+          && ((TypeDeclaration) node).getTypeElement().getSimpleName().contentEquals("Inner")) {
+        return false;
+      }
+      calls.add("pre " + node.getKind());
+      return true;
+    }
+
+    @Override
+    public void postVisit(TreeNode node) {
+      calls.add("post " + node.getKind());
+    }
+
+    @Override
+    public void endVisit(MethodInvocation node) {
+      calls.add("end " + ElementUtil.getName(node.getExecutableElement()));
+    }
+  }
+
+  public void testVisitorsTraverseIndependently() {
+    CompilationUnit unit = compileType("Test", SOURCE);
+    NameRecorder names = new NameRecorder();
+    CallRecorder calls = new CallRecorder();
+    unit.accept(names);
+    unit.accept(calls);
+
+    NameRecorder fusedNames = new NameRecorder();
+    CallRecorder fusedCalls = new CallRecorder();
+    unit.accept(new FusedTreeVisitor(fusedNames, fusedCalls));
+
+    assertFalse(names.names.isEmpty());
+    assertEquals(names.names, fusedNames.names);
+    assertFalse(calls.calls.contains("end trim"));
+    assertEquals(calls.calls, fusedCalls.calls);
+  }
+
+  public void testVisitorOrder() {
+    CompilationUnit unit = compileType("Test", SOURCE);
+    List<String> calls = new ArrayList<>();
+    unit.accept(new FusedTreeVisitor(
+        new TreeVisitor() {
+          @Override
+          public void endVisit(MethodDeclaration node) {
+            if (!ElementUtil.isConstructor(node.getExecutableElement())) {
+              calls.add("first " + ElementUtil.getName(node.getExecutableElement()));
+            }
+          }
+        },
+        new TreeVisitor() {
+          @Override
+          public boolean visit(MethodDeclaration node) {
+            if (!ElementUtil.isConstructor(node.getExecutableElement())) {
+              calls.add("second " + ElementUtil.getName(node.getExecutableElement()));
+            }
+            return false;
+          }
+        }));
+    assertEquals("[second foo, first foo, second bar, first bar]", calls.toString());
+  }
+
+  /**
+   * Every visit and endVisit method of TreeVisitor must be forwarded, or the
+   * fused visitors silently miss that node type.
+   */
+  public void testOverridesAllVisitMethods() {
+    List<String> missing = new ArrayList<>();
+    for (Method method : TreeVisitor.class.getDeclaredMethods()) {
+      if (!Modifier.isPublic(method.getModifiers())) {
+        continue;
+      }
+      try {
+        FusedTreeVisitor.class.getDeclaredMethod(method.getName(), method.getParameterTypes());
+      } catch (NoSuchMethodException e) {
+        missing.add(method.getName() + "(" + method.getParameterTypes()[0].getSimpleName() + ")");
+      }
+    }
+    assertTrue("Not overridden: " + missing, missing.isEmpty());
+  }
+}
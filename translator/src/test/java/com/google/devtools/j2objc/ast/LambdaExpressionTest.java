@@ -55,6 +55,15 @@ public class LambdaExpressionTest extends GenerationTest {
         "}");
   }
 
+  public void testNonCapturingInstanceIsNonnull() throws IOException {
+    String translation = translateSourceFile(
+        functionHeader + "class Test { Object test(Object o) { "
+        + "Function f = x -> x; return f.apply(o); } }", "Test", "Test.m");
+    assertTranslatedLines(translation,
+        "id<Function> f = JreLoadStatic(Test_$Lambda$1, instance);",
+        "return [f applyWithId:o];");
+  }
+
   public void testTypeInference() throws IOException {
     String quadObjectTranslation = translateSourceFile(
         fourToOneHeader + "class Test { FourToOne f = (a, b, c, d) -> 1;}", "Test", "Test.m");
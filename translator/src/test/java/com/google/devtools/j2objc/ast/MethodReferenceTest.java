@@ -90,6 +90,20 @@ public class MethodReferenceTest extends GenerationTest {
         "}");
   }
 
+  // Unbound and creation references capture nothing, so they share one instance.
+  public void testNonCapturingReferences() throws IOException {
+    String translation = translateSourceFile(
+        "interface F<T, R> { R f(T t); } interface S<T> { T get(); }"
+        + "class Test { void test() { "
+        + "F<String, Integer> length = String::length; S<Object> creation = Object::new; "
+        + "F<Integer, int[]> array = int[]::new; } }",
+        "Test", "Test.m");
+    assertTranslatedLines(translation,
+        "id<F> length = JreLoadStatic(Test_$Lambda$1, instance);",
+        "id<S> creation = JreLoadStatic(Test_$Lambda$2, instance);",
+        "id<F> array = JreLoadStatic(Test_$Lambda$3, instance);");
+  }
+
   public void testTypeReference() throws IOException {
     String typeReferenceHeader = "interface H { Object copy(int[] i); }";
     String translation = translateSourceFile(
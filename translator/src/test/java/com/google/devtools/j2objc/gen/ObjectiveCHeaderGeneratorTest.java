@@ -16,10 +16,14 @@
 
 package com.google.devtools.j2objc.gen;
 
+import com.google.common.collect.ImmutableSet;
 import com.google.devtools.j2objc.GenerationTest;
+import com.google.devtools.j2objc.ast.CompilationUnit;
 import com.google.devtools.j2objc.util.HeaderMap;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
+import java.io.PrintStream;
 
 /**
  * Tests for {@link ObjectiveCHeaderGenerator}.
@@ -893,4 +897,39 @@ public class ObjectiveCHeaderGeneratorTest extends GenerationTest {
     assertTranslation(kytheMetadata, "kythe0");
     assertTranslation(kytheMetadata, "{\"type\":\"anchor_anchor\"");
   }
+
+  public void testHeaderIncludeGraph() throws IOException {
+    HeaderIncludeGraph graph = new HeaderIncludeGraph();
+    graph.addUnit(newGenerationUnit("foo.Big",
+        "package foo; public class Big {} class Other extends java.util.ArrayList {}"));
+    graph.addUnit(newGenerationUnit("foo.Sub", "package foo; public class Sub extends Big {}"));
+    graph.addUnit(newGenerationUnit("foo.SubSub",
+        "package foo; public class SubSub extends Sub {}"));
+
+    assertEquals(ImmutableSet.of("foo/Sub.h"), graph.getDirectIncludes("foo/SubSub.h"));
+    // Segmented headers only include the section of foo/Big.h that declares Big.
+    assertEquals(ImmutableSet.of("foo/Sub.h", "foo/Big.h"),
+        graph.getTransitiveIncludes("foo/SubSub.h", true));
+    assertEquals(ImmutableSet.of("foo/Sub.h", "foo/Big.h", "java/util/ArrayList.h"),
+        graph.getTransitiveIncludes("foo/SubSub.h", false));
+
+    ByteArrayOutputStream report = new ByteArrayOutputStream();
+    graph.printReport(new PrintStream(report), true);
+    assertTranslatedLines(report.toString(),
+        "foo/SubSub.h: 1 direct includes, 2 transitive with segmented headers, 3 without, "
+            + "included by 0",
+        "foo/Big.h: 1 direct includes, 1 transitive with segmented headers, 1 without, "
+            + "included by 2",
+        "foo/Sub.h: 1 direct includes, 1 transitive with segmented headers, 2 without, "
+            + "included by 1");
+  }
+
+  private GenerationUnit newGenerationUnit(String typeName, String source) throws IOException {
+    addSourceFile(source, typeNameToSource(typeName));
+    CompilationUnit unit = translateType(typeName, source);
+    GenerationUnit genUnit = new GenerationUnit(unit.getSourceFilePath(), options);
+    genUnit.incrementInputs();
+    genUnit.addCompilationUnit(unit);
+    return genUnit;
+  }
 }
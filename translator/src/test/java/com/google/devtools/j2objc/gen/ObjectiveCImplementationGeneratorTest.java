@@ -19,7 +19,10 @@ package com.google.devtools.j2objc.gen;
 import com.google.devtools.j2objc.GenerationTest;
 import com.google.devtools.j2objc.Options;
 import com.google.devtools.j2objc.Options.MemoryManagementOption;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
 import javax.tools.ToolProvider;
 
 /**
@@ -966,4 +969,39 @@ public class ObjectiveCImplementationGeneratorTest extends GenerationTest {
             + "#error \"foo/bar/A must not be compiled with ARC (-fobjc-arc)\"\n"
             + "#endif");
   }
+
+  public void testLiteralUsage() throws IOException {
+    String translation = translateSourceFile(
+        "class Test { String a() { return \"hello\"; } String b() { return \"hello\"; } "
+        + "String c() { return \"bye\"; } }", "Test", "Test.m");
+    LiteralUsage usage = LiteralUsage.scan(translation);
+    assertEquals(3, usage.getNSStringCount());
+    assertEquals(2, usage.getUniqueNSStringCount());
+
+    usage = LiteralUsage.scan("#include \"Test.h\"\n"
+        + "// \"comment\"\n"
+        + "id a = @\"a\\\"b\", b = @\"a\\\"b\";\n"
+        + "const char *c = \"LTest;\", *d = \"LTest;\";\n"
+        + "SEL e = @selector(foo:), f = @selector(foo:);\n");
+    assertEquals(2, usage.getNSStringCount());
+    assertEquals(1, usage.getUniqueNSStringCount());
+    assertEquals(2, usage.getCStringCount());
+    assertEquals(1, usage.getUniqueCStringCount());
+    assertEquals(2, usage.getSelectorCount());
+    assertEquals(1, usage.getUniqueSelectorCount());
+    // "a\"b" is 4 bytes as written, "LTest;" 6 and "foo:" 4, plus their nulls.
+    assertEquals(5 + 7 + 5, usage.getRepeatedBytes());
+  }
+
+  public void testLiteralReport() throws IOException {
+    options.setLiteralReport(true);
+    translateSourceFile(
+        "class Test { String a() { return \"hello\"; } String b() { return \"hello\"; } }",
+        "Test", "Test.m");
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    options.literalReport().print(new PrintStream(out, true, StandardCharsets.UTF_8));
+    String report = out.toString(StandardCharsets.UTF_8);
+    assertTranslation(report, "Test.m: 2 NSString literals (1 unique)");
+    assertTranslation(report, "bytes of repeated literals in 1 files");
+  }
 }
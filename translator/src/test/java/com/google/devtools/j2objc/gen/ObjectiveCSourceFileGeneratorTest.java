@@ -19,7 +19,9 @@ package com.google.devtools.j2objc.gen;
 import com.google.devtools.j2objc.GenerationTest;
 import com.google.devtools.j2objc.util.ErrorUtil;
 import com.google.devtools.j2objc.util.NameTable;
+import java.io.File;
 import java.io.IOException;
+import java.util.zip.ZipFile;
 
 /**
  * Tests for {@link ObjectiveCSourceFileGenerator}.
@@ -214,4 +216,43 @@ public class ObjectiveCSourceFileGeneratorTest extends GenerationTest {
     assertTrue(ErrorUtil.getErrorMessages().contains("Duplicate type name found in XXA->XXB->XXA"));
     assertTrue(ErrorUtil.errorCount() > 0);
   }
+
+  public void testWriteIfChanged() throws IOException {
+    options.setWriteIfChanged(true);
+    addSourceFile("class Test { int foo() { return 42; } }", "Test.java");
+    runPipeline(getTempDir() + "/Test.java");
+    File header = new File(getTempDir(), "Test.h");
+    File impl = new File(getTempDir(), "Test.m");
+    assertTrue(header.setLastModified(1000));
+    assertTrue(impl.setLastModified(1000));
+
+    // Only the implementation changes, so the header shouldn't be touched.
+    addSourceFile("class Test { int foo() { return 43; } }", "Test.java");
+    runPipeline(getTempDir() + "/Test.java");
+    assertEquals(1000, header.lastModified());
+    assertTrue(impl.lastModified() != 1000);
+    assertTranslation(getTranslatedFile("Test.m"), "return 43;");
+  }
+
+  public void testOutputWriterThreads() throws IOException {
+    options.setOutputWriterThreads(2);
+    addSourceFile("class A { int foo() { return 42; } }", "A.java");
+    addSourceFile("class B extends A {}", "B.java");
+    runPipeline(getTempDir() + "/A.java", getTempDir() + "/B.java");
+    assertTranslation(getTranslatedFile("A.m"), "return 42;");
+    assertTranslation(getTranslatedFile("B.h"), "@interface B : A");
+  }
+
+  public void testOutputZip() throws IOException {
+    File zipFile = new File(getTempDir(), "out/Test.zip");
+    options.setOutputZip(zipFile);
+    addSourceFile("package foo; class Test {}", "foo/Test.java");
+    runPipeline(getTempDir() + "/foo/Test.java");
+    assertFalse(new File(getTempDir(), "foo/Test.h").exists());
+    try (ZipFile zip = new ZipFile(zipFile)) {
+      assertNotNull(zip.getEntry("foo/Test.h"));
+      assertNotNull(zip.getEntry("foo/Test.m"));
+      assertEquals(2, zip.size());
+    }
+  }
 }
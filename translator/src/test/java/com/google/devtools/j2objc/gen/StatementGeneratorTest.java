@@ -214,7 +214,7 @@ public class StatementGeneratorTest extends GenerationTest {
     assertTranslation(translation,
         "JreStrongAssign(&self->b1_, JreLoadStatic(JavaLangBoolean, TRUE))");
     assertTranslation(translation,
-        "JreStrongAssign(&self->b2_, JreLoadStatic(JavaLangBoolean, FALSE))");
+        "JreStrongAssign(&self->b2_, JavaLangBoolean_FALSE)");
   }
 
   public void testStringConcatenation() throws IOException {
@@ -687,8 +687,8 @@ public class StatementGeneratorTest extends GenerationTest {
         "public class Test { "
         + "  public void foo() { Double d = Double.NEGATIVE_INFINITY; } }",
         "Test", "Test.m");
-    assertTranslation(translation,
-        "JavaLangDouble_valueOfWithDouble_(JavaLangDouble_NEGATIVE_INFINITY)");
+    // d never escapes, so it isn't boxed.
+    assertTranslation(translation, "jdouble d = JavaLangDouble_NEGATIVE_INFINITY;");
   }
 
   public void testInvokeMethodInConcreteImplOfGenericInterface() throws IOException {
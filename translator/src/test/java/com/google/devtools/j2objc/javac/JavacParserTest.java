@@ -15,6 +15,8 @@
 package com.google.devtools.j2objc.javac;
 
 import com.google.devtools.j2objc.GenerationTest;
+import java.util.Arrays;
+import java.util.List;
 
 /** Tests for {@link JavacParser}. */
 public class JavacParserTest extends GenerationTest {
@@ -35,4 +37,36 @@ public class JavacParserTest extends GenerationTest {
     String source = "package foo$bar.all_mumbles;";
     assertEquals("foo$bar.all_mumbles", JavacParser.packageName(source));
   }
+
+  public void testPartitionByPackage() {
+    List<String> paths = Arrays.asList(
+        "src/a/A1.java", "src/b/B1.java", "src/a/A2.java", "src/c/C1.java", "src/a/A3.java",
+        "src/b/B2.java");
+    List<List<String>> shards = JavacParser.partitionByPackage(paths, 2);
+    assertEquals(2, shards.size());
+    assertEquals(Arrays.asList("src/a/A1.java", "src/a/A2.java", "src/a/A3.java"), shards.get(0));
+    assertEquals(Arrays.asList("src/b/B1.java", "src/b/B2.java", "src/c/C1.java"), shards.get(1));
+
+    // There are never more shards than packages.
+    assertEquals(3, JavacParser.partitionByPackage(paths, 8).size());
+  }
+
+  public void testShardedParsing() throws Exception {
+    options.setParseShards(2);
+    addSourceFile("package a; public class A { public b.B b; }", "a/A.java");
+    addSourceFile("package b; public class B { public a.A a; }", "b/B.java");
+    runPipeline(getTempDir() + "/a/A.java", getTempDir() + "/b/B.java");
+    assertTranslation(getTranslatedFile("a/A.h"), "BB *b_;");
+    assertTranslation(getTranslatedFile("b/B.h"), "AA *a_;");
+  }
+
+  public void testShardedParsingFindsInputSourceRoots() throws Exception {
+    options.setParseShards(2);
+    // The sources' root is not on the sourcepath.
+    addSourceFile("package a; public class A { public b.B b; }", "src/a/A.java");
+    addSourceFile("package b; public class B { public a.A a; }", "src/b/B.java");
+    runPipeline(getTempDir() + "/src/a/A.java", getTempDir() + "/src/b/B.java");
+    assertTranslation(getTranslatedFile("a/A.h"), "BB *b_;");
+    assertTranslation(getTranslatedFile("b/B.h"), "AA *a_;");
+  }
 }
@@ -0,0 +1,152 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.devtools.j2objc.pipeline;
+
+import com.google.common.io.Files;
+import com.google.devtools.j2objc.GenerationTest;
+import com.google.devtools.j2objc.util.FileUtil;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Tests for {@link TranslationCache}.
+ */
+public class TranslationCacheTest extends GenerationTest {
+
+  private File cacheDir;
+
+  @Override
+  public void setUp() throws IOException {
+    super.setUp();
+    cacheDir = new File(getTempDir(), "cache");
+    options.setTranslationCacheDir(cacheDir);
+  }
+
+  public void testUnchangedSourceRestored() throws IOException {
+    addSourceFile("class Test { int foo() { return 42; } }", "Test.java");
+    runPipeline(getTempDir() + "/Test.java");
+    String header = getTranslatedFile("Test.h");
+    String impl = getTranslatedFile("Test.m");
+    assertEquals(1, cacheDir.list().length);
+
+    assertTrue(new File(getTempDir(), "Test.h").delete());
+    assertTrue(new File(getTempDir(), "Test.m").delete());
+    runPipeline(getTempDir() + "/Test.java");
+    assertEquals(header, getTranslatedFile("Test.h"));
+    assertEquals(impl, getTranslatedFile("Test.m"));
+    assertEquals(1, cacheDir.list().length);
+  }
+
+  public void testChangedSourceTranslated() throws IOException {
+    addSourceFile("class Test { int foo() { return 42; } }", "Test.java");
+    runPipeline(getTempDir() + "/Test.java");
+
+    addSourceFile("class Test { int bar() { return 42; } }", "Test.java");
+    runPipeline(getTempDir() + "/Test.java");
+    String header = getTranslatedFile("Test.h");
+    assertTranslation(header, "- (jint)bar;");
+    assertNotInTranslation(header, "foo");
+    assertEquals(2, cacheDir.list().length);
+  }
+
+  public void testUnrelatedChangeKeepsEntry() throws IOException {
+    addSourceFile("class A { int foo() { return 42; } }", "A.java");
+    addSourceFile("class B { int bar() { return 42; } }", "B.java");
+    runPipeline(getTempDir() + "/A.java", getTempDir() + "/B.java");
+    markCachedHeader("A.h");
+
+    addSourceFile("class B { int baz() { return 42; } }", "B.java");
+    runPipeline(getTempDir() + "/A.java", getTempDir() + "/B.java");
+    assertTranslation(getTranslatedFile("A.h"), "// Restored");
+    assertTranslation(getTranslatedFile("B.h"), "- (jint)baz;");
+  }
+
+  public void testChangedSupertypeInvalidatesEntry() throws IOException {
+    addSourceFile("class A { void foo(int i) {} }", "A.java");
+    addSourceFile("class B extends A {}", "B.java");
+    addSourceFile("class C extends B { void test() { foo(1); } }", "C.java");
+    runPipeline(getTempDir() + "/A.java", getTempDir() + "/B.java", getTempDir() + "/C.java");
+    assertTranslation(getTranslatedFile("C.m"), "[self fooWithInt:1];");
+
+    // C's source is unchanged and doesn't reference A, but calls its method.
+    addSourceFile("class A { void foo(long i) {} }", "A.java");
+    runPipeline(getTempDir() + "/A.java", getTempDir() + "/B.java", getTempDir() + "/C.java");
+    assertTranslation(getTranslatedFile("C.m"), "[self fooWithLong:1];");
+  }
+
+  public void testChangedFlagFileInvalidatesEntries() throws IOException {
+    String reservedNames = addSourceFile("foo", "reserved.txt");
+    options.load(new String[] { "--reserved-names", reservedNames });
+    addSourceFile("class Test { int foo() { return 42; } }", "Test.java");
+    runPipeline(getTempDir() + "/Test.java");
+
+    // The flags are unchanged, but the file they name is not.
+    addSourceFile("bar", "reserved.txt");
+    runPipeline(getTempDir() + "/Test.java");
+    assertEquals(2, cacheDir.list().length);
+  }
+
+  public void testRestoredSourceStaysOnSourcepath() throws IOException {
+    // The sources' root is not on the sourcepath.
+    addSourceFile("package a; public class A { public int foo() { return 42; } }",
+        "src/a/A.java");
+    addSourceFile("package b; public class B { int foo(a.A a) { return a.foo(); } }",
+        "src/b/B.java");
+    runPipeline(getTempDir() + "/src/a/A.java", getTempDir() + "/src/b/B.java");
+
+    // Only B's entry is missing, so A is restored and B, which references it, is translated.
+    for (File entry : cacheDir.listFiles()) {
+      if (Files.asCharSource(new File(entry, "manifest"), StandardCharsets.UTF_8)
+          .read().contains("b/B.h")) {
+        FileUtil.deleteTempDir(entry);
+      }
+    }
+    assertTrue(new File(getTempDir(), "b/B.h").delete());
+    runPipeline(getTempDir() + "/src/a/A.java", getTempDir() + "/src/b/B.java");
+    assertTranslation(getTranslatedFile("b/B.h"), "- (jint)fooWithAA:(AA *)a;");
+  }
+
+  public void testLeastRecentlyUsedEntriesEvicted() throws IOException {
+    options.setTranslationCacheSize(0);
+    addSourceFile("class Test {}", "Test.java");
+    runPipeline(getTempDir() + "/Test.java");
+    assertEquals(0, cacheDir.list().length);
+  }
+
+  public void testEntriesInProgressNotEvicted() throws IOException {
+    options.setTranslationCacheSize(0);
+    // An entry another translation is still building.
+    File staging = new File(cacheDir, "0123abcd.tmp42");
+    assertTrue(staging.mkdirs());
+    Files.asCharSink(new File(staging, "manifest"), StandardCharsets.UTF_8).write("h Test.h");
+    addSourceFile("class Test {}", "Test.java");
+    runPipeline(getTempDir() + "/Test.java");
+    assertTrue(staging.exists());
+  }
+
+  // Replaces the cached copy of a header, to tell whether it is restored.
+  private void markCachedHeader(String header) throws IOException {
+    for (File entry : cacheDir.listFiles()) {
+      if (Files.asCharSource(new File(entry, "manifest"), StandardCharsets.UTF_8)
+          .read().contains("h " + header)) {
+        Files.asCharSink(new File(entry, "h/" + header), StandardCharsets.UTF_8)
+            .write("// Restored\n");
+        return;
+      }
+    }
+    fail("no cache entry for " + header);
+  }
+}
@@ -88,4 +88,74 @@ public class TranslationProcessorTest extends GenerationTest {
     // Verify A.java wasn't compiled; it has a B reference, but B doesn't depend on it.
     assertFalse(new File(tempDir, "A.m").exists());
   }
+
+  public void testParallelTranslationMatchesSerial() throws IOException {
+    addSourceFile("class A { B b = new B(); int foo() { return b.bar(); } }", "A.java");
+    addSourceFile("class B { int bar() { return new C().toString().length(); } }", "B.java");
+    addSourceFile("class C { Runnable r = () -> {}; }", "C.java");
+    String[] names = { "A", "B", "C" };
+
+    translateSources(names);
+    String[] serial = new String[names.length * 2];
+    for (int i = 0; i < names.length; i++) {
+      serial[i * 2] = getTranslatedFile(names[i] + ".h");
+      serial[i * 2 + 1] = getTranslatedFile(names[i] + ".m");
+    }
+
+    options.setNumThreads(4);
+    translateSources(names);
+    for (int i = 0; i < names.length; i++) {
+      assertEquals(serial[i * 2], getTranslatedFile(names[i] + ".h"));
+      assertEquals(serial[i * 2 + 1], getTranslatedFile(names[i] + ".m"));
+    }
+    assertErrorCount(0);
+  }
+
+  public void testGeneratedCodeReleasedAfterOutput() throws IOException {
+    addSourceFile("class A { B b; }", "A.java");
+    addSourceFile("class B { A a; }", "B.java");
+
+    GenerationBatch batch = new GenerationBatch(options);
+    batch.addSource(new RegularInputFile(getTempDir() + "/A.java", "A.java"));
+    batch.addSource(new RegularInputFile(getTempDir() + "/B.java", "B.java"));
+    TranslationProcessor processor = new TranslationProcessor(J2ObjC.createParser(options), null);
+    processor.processInputs(batch.getInputs());
+
+    assertTranslation(getTranslatedFile("A.h"), "@interface A");
+    assertTranslation(getTranslatedFile("B.h"), "@interface B");
+    for (ProcessingContext input : batch.getInputs()) {
+      assertTrue(input.getGenerationUnit().getGeneratedTypes().isEmpty());
+    }
+  }
+
+  public void testClosureSnapshots() throws IOException {
+    options.setBuildClosure(true);
+    options.setClosureSnapshots(true);
+    addSourceFile("class A { B b; }", "A.java");
+    addSourceFile("class B { C c; } class B2 {}", "B.java");
+    addSourceFile("class C { void c1() {} }", "C.java");
+    translateSources("A");
+    assertTrue(DependencySnapshot.read(options, "B").contains("C"));
+    // Each top-level type in a source gets a snapshot.
+    assertEquals(DependencySnapshot.read(options, "B"), DependencySnapshot.read(options, "B2"));
+
+    // B is up to date, but C changed: C is only reached through B's snapshot.
+    File bSource = new File(tempDir, "B.java");
+    bSource.setLastModified(new File(tempDir, "B.h").lastModified() - 10000);
+    addSourceFile("class C { void c2() {} }", "C.java");
+    new File(tempDir, "C.java").setLastModified(new File(tempDir, "C.h").lastModified() + 10000);
+    translateSources("A");
+    assertTranslation(getTranslatedFile("C.h"), "- (void)c2;");
+    assertErrorCount(0);
+  }
+
+  private void translateSources(String... names) {
+    GenerationBatch batch = new GenerationBatch(options);
+    for (String name : names) {
+      batch.addSource(
+          new RegularInputFile(getTempDir() + "/" + name + ".java", name + ".java"));
+    }
+    TranslationProcessor processor = new TranslationProcessor(J2ObjC.createParser(options), null);
+    processor.processInputs(batch.getInputs());
+  }
 }
@@ -54,4 +54,28 @@ public class ArrayRewriterTest extends GenerationTest {
     assertEquals("++((*IOSIntArray_GetRef(x, 0)));", generateStatement(stmts.get(5)));
     assertEquals("((*IOSIntArray_GetRef(x, 0)))++;", generateStatement(stmts.get(6)));
   }
+
+  public void testCountedLoopAccessIsUnchecked() throws IOException {
+    String translation = translateSourceFile(
+        "class Test { final int[] f = new int[4];"
+        + " int sum(int[] a) { int s = 0;"
+        + "   for (int i = 0; i < a.length; i++) { s += a[i]; a[i] = 0; } return s; }"
+        + " void increment() { for (int i = f.length - 1; i >= 0; i--) { f[i]++; } } }",
+        "Test", "Test.m");
+    assertTranslation(translation, "s += *(a->buffer_ + i);");
+    assertTranslation(translation, "*(a->buffer_ + i) = 0;");
+    assertTranslation(translation, "(*(f_->buffer_ + i))++;");
+  }
+
+  public void testUncountedLoopAccessIsChecked() throws IOException {
+    String translation = translateSourceFile(
+        "class Test { int test(int[] a, int[] b, Object[] o) { int s = 0;"
+        + " for (int i = 0; i < a.length; i++) { s += b[i] + a[i + 1] + o[i].hashCode(); }"
+        + " for (int i = 0; i <= a.length; i++) { s += a[i]; }"
+        + " for (int i = 0; i < a.length; i++) { s += a[i]; i++; }"
+        + " for (int i = 0; i < a.length; i++) { s += a[i]; a = b; }"
+        + " return s; } }",
+        "Test", "Test.m");
+    assertNotInTranslation(translation, "buffer_");
+  }
 }
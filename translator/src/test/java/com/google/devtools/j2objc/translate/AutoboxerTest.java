@@ -176,7 +176,7 @@ public class AutoboxerTest extends GenerationTest {
   }
 
   public void testVariableDeclaration() throws IOException {
-    String source = "Integer test = 3;";
+    String source = "Integer test = 3; Object o = test;";
     List<Statement> stmts = translateStatements(source);
     String result = generateStatement(stmts.get(0));
     assertEquals("JavaLangInteger *test = JavaLangInteger_valueOfWithInt_(3);", result);
@@ -193,8 +193,9 @@ public class AutoboxerTest extends GenerationTest {
   public void testConditionalExpression() throws IOException {
     String translation = translateSourceFile(
         "public class Test { "
-        + "void test() { Boolean b = true ? false : null; } }",
+        + "Boolean test() { Boolean b = true ? false : null; return b; } }",
         "Test", "Test.m");
+    // b is returned as an object, so it stays boxed.
     assertTranslation(translation, "JavaLangBoolean_valueOfWithBoolean_(false)");
   }
 
@@ -380,7 +381,7 @@ public class AutoboxerTest extends GenerationTest {
   public void testUnboxOfSwitchStatementExpression() throws IOException {
     String translation = translateSourceFile(
         "class Test { void test() {"
-        + " Integer i = 3;"
+        + " Integer i = Integer.valueOf(3);"
         + " switch (i) { case 1: case 2: case 3: } } }", "Test", "Test.m");
     assertTranslation(translation, "switch ([i intValue]) {");
   }
@@ -396,7 +397,8 @@ public class AutoboxerTest extends GenerationTest {
 
   public void testAssignIntLiteralToNonIntBoxedType() throws Exception {
     String translation = translateSourceFile(
-        "class Test { void test() { Byte b = 3; Short s; s = 4; } }", "Test", "Test.m");
+        "class Test { void test() { Byte b = 3; Short s; s = 4; Object[] a = { b, s }; } }",
+        "Test", "Test.m");
     assertTranslation(translation, "JavaLangByte *b = JavaLangByte_valueOfWithByte_(3);");
     assertTranslation(translation, "s = JavaLangShort_valueOfWithShort_(4);");
   }
@@ -404,13 +406,46 @@ public class AutoboxerTest extends GenerationTest {
   public void testBoxedIncrementAndDecrement() throws Exception {
     String translation = translateSourceFile(
         "class Test { void test() { Integer i = 1; i++; Byte b = 2; b--; Character c = 'a'; ++c; "
-        + "Double d = 3.0; --d; } }", "Test", "Test.m");
+        + "Double d = 3.0; --d; Object[] a = { i, b, c, d }; } }", "Test", "Test.m");
     assertTranslation(translation, "PostIncrInt(&i);");
     assertTranslation(translation, "PostDecrByte(&b);");
     assertTranslation(translation, "PreIncrChar(&c);");
     assertTranslation(translation, "PreDecrDouble(&d);");
   }
 
+  public void testUnboxedLocalVariable() throws IOException {
+    String translation = translateSourceFile(
+        "class Test { int test(int n) { Integer x = n; Integer sum = 0; "
+        + "for (Integer i = 0; i < n; i++) { sum += i; } return x + sum; } }",
+        "Test", "Test.m");
+    assertTranslatedLines(translation,
+        "jint x = n;",
+        "jint sum = 0;",
+        "for (jint i = 0; i < n; i++) {",
+        "  sum += i;",
+        "}",
+        "return x + sum;");
+    assertNotInTranslation(translation, "JavaLangInteger_valueOfWithInt_");
+  }
+
+  public void testBoxedLocalVariableEscapes() throws IOException {
+    String translation = translateSourceFile(
+        "class Test { Object o; boolean test() { "
+        + "Integer a = 1; Integer b = 1; Integer c = 1; Integer d = 2; Integer e = null; "
+        + "o = c; Runnable r = () -> System.out.println(d + 1); e = 3; "
+        + "return a == b; } }",
+        "Test", "Test.m");
+    // Compared by identity.
+    assertTranslation(translation, "JavaLangInteger *a = JavaLangInteger_valueOfWithInt_(1);");
+    assertTranslation(translation, "JavaLangInteger *b = JavaLangInteger_valueOfWithInt_(1);");
+    // Assigned to an object.
+    assertTranslation(translation, "JavaLangInteger *c = JavaLangInteger_valueOfWithInt_(1);");
+    // Captured by a lambda.
+    assertTranslation(translation, "JavaLangInteger *d = JavaLangInteger_valueOfWithInt_(2);");
+    // May be null.
+    assertTranslation(translation, "JavaLangInteger *e = nil;");
+  }
+
   // Verify that passing a new Double to a method that takes a double is unboxed.
   public void testUnboxedDoubleParameter() throws Exception {
     String translation = translateSourceFile(
@@ -477,14 +512,16 @@ public class AutoboxerTest extends GenerationTest {
             "Test",
             "Test.m");
 
+    // The locals are only read through primitive casts, so they are declared unboxed.
+    assertTranslation(translation, "jchar toChar = 'A';");
     assertTranslation(
         translation,
         "IOSObjectArray *arr = [IOSObjectArray arrayWithObjects:(id[]){ "
-            + "JavaLangCharacter_valueOfWithChar_([toChar charValue]), "
-            + "JavaLangInteger_valueOfWithInt_((jint) [toInt charValue]), "
-            + "JavaLangLong_valueOfWithLong_((jlong) [toLong charValue]), "
-            + "JavaLangFloat_valueOfWithFloat_((jfloat) [toFlt charValue]),"
-            + " JavaLangDouble_valueOfWithDouble_((jdouble) [toDbl charValue]) }"
+            + "JavaLangCharacter_valueOfWithChar_((jchar) toChar), "
+            + "JavaLangInteger_valueOfWithInt_((jint) toInt), "
+            + "JavaLangLong_valueOfWithLong_((jlong) toLong), "
+            + "JavaLangFloat_valueOfWithFloat_((jfloat) toFlt),"
+            + " JavaLangDouble_valueOfWithDouble_((jdouble) toDbl) }"
             + " count:5 type:NSObject_class_()];");
   }
 
@@ -28,28 +28,22 @@ public class ComplexExpressionExtractorTest extends GenerationTest {
   @Override
   protected void setUp() throws IOException {
     super.setUp();
-    ComplexExpressionExtractor.setMaxDepth(3);
-  }
-
-  @Override
-  protected void tearDown() throws Exception {
-    ComplexExpressionExtractor.resetMaxDepth();
-    super.tearDown();
+    options.setMaxExpressionDepth(3);
   }
 
   public void testChainedMethod() throws IOException {
     String translation = translateSourceFile(
-        "class Test { void test() { StringBuilder sb = new StringBuilder(); "
+        "class Test { void test() { StringBuffer sb = new StringBuffer(); "
         + "sb.append(\"a\").append(\"b\").append(\"c\").append(\"d\").append(\"e\").append(\"f\")"
         + ".append(\"g\"); } }", "Test", "Test.m");
     assertTranslatedLines(translation,
-        "JavaLangStringBuilder *complex$1 = [((JavaLangStringBuilder *) "
+        "JavaLangStringBuffer *complex$1 = [((JavaLangStringBuffer *) "
             + "nil_chk([sb appendWithNSString:@\"a\"])) appendWithNSString:@\"b\"];",
-        "JavaLangStringBuilder *complex$2 = nil_chk([((JavaLangStringBuilder *) "
+        "JavaLangStringBuffer *complex$2 = nil_chk([((JavaLangStringBuffer *) "
             + "nil_chk(complex$1)) appendWithNSString:@\"c\"]);",
-        "JavaLangStringBuilder *complex$3 = [((JavaLangStringBuilder *) "
+        "JavaLangStringBuffer *complex$3 = [((JavaLangStringBuffer *) "
             + "nil_chk([complex$2 appendWithNSString:@\"d\"])) appendWithNSString:@\"e\"];",
-        "JavaLangStringBuilder *complex$4 = nil_chk([((JavaLangStringBuilder *) "
+        "JavaLangStringBuffer *complex$4 = nil_chk([((JavaLangStringBuffer *) "
             + "nil_chk(complex$3)) appendWithNSString:@\"f\"]);",
         "[complex$4 appendWithNSString:@\"g\"];");
   }
@@ -57,13 +51,14 @@ public class ComplexExpressionExtractorTest extends GenerationTest {
   public void testComplexExpressionWithinStaticInit() throws IOException {
     String translation = translateSourceFile(
         "class Test { static String s = "
-        + "new StringBuilder().append('a').append('b').append('c').toString(); }",
+        + "new StringBuilder().insert(0, 'a').insert(0, 'b').insert(0, 'c').toString(); }",
         "Test", "Test.m");
     assertTranslatedLines(translation,
         "JavaLangStringBuilder *complex$1 = [((JavaLangStringBuilder *) "
-        + "nil_chk([create_JavaLangStringBuilder_init() appendWithChar:'a'])) appendWithChar:'b'];",
+        + "nil_chk([create_JavaLangStringBuilder_init() insertWithInt:0 withChar:'a'])) "
+        + "insertWithInt:0 withChar:'b'];",
         "JavaLangStringBuilder *complex$2 = nil_chk([((JavaLangStringBuilder *) "
-        + "nil_chk(complex$1)) appendWithChar:'c']);",
+        + "nil_chk(complex$1)) insertWithInt:0 withChar:'c']);",
         "JreStrongAssign(&Test_s, [complex$2 description]);");
   }
 
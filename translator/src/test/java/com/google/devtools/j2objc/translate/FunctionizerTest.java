@@ -16,6 +16,7 @@ package com.google.devtools.j2objc.translate;
 
 import com.google.devtools.j2objc.GenerationTest;
 import com.google.devtools.j2objc.Options.MemoryManagementOption;
+import com.google.devtools.j2objc.util.CodeReferenceMap;
 
 import java.io.IOException;
 
@@ -79,6 +80,25 @@ public class FunctionizerTest extends GenerationTest {
         "return [self strWithNSString:msg withIOSClass:[self java_getClass]];");
   }
 
+  // Verify that methods listed as having no overrides are called as functions.
+  public void testEffectivelyFinalMethod() throws IOException {
+    options.setEffectivelyFinalMethods(CodeReferenceMap.builder()
+        .addMethod("A", "str", "(Ljava/lang/String;)Ljava/lang/String;")
+        .addMethod("A.Inner", "len", "()I")
+        .build());
+    String translation = translateSourceFile(
+        "class A { String test(String msg) { return str(msg) + other() + new Inner().len(); } "
+        + "  String str(String msg) { return msg; } "
+        + "  String other() { return null; } "
+        + "  static class Inner { int len() { return 0; } } }",
+        "A", "A.m");
+    assertTranslation(translation, "A_strWithNSString_(self, msg)");
+    assertTranslation(translation, "A_Inner_len(create_A_Inner_init())");
+    assertTranslation(translation, "[self other]");
+    // The method is kept for dynamic dispatch and reflection.
+    assertTranslation(translation, "- (NSString *)strWithNSString:(NSString *)msg {");
+  }
+
   // Verify instance field access in function.
   public void testFieldAccessInFunction() throws IOException {
     String translation = translateSourceFile(
@@ -203,9 +223,8 @@ public class FunctionizerTest extends GenerationTest {
         "NSString *A_strWithNSString_withIOSClass_(NSString *msg, IOSClass *cls)";
     assertNotInTranslation(translation, functionHeader + ';');
     translation = getTranslatedFile("A.m");
-    // Check new function.
+    // Check new function, which is only called once A is initialized.
     assertTranslatedLines(translation, functionHeader + " {",
-        "A_initialize();",
         "return JreStrcat(\"$@\", msg, cls);");
     // Check wrapper.
     assertTranslatedLines(translation,
@@ -305,7 +324,7 @@ public class FunctionizerTest extends GenerationTest {
   public void testClassInitializerCalledFromFunction() throws IOException {
     String translation = translateSourceFile(
         "class A { static Object o = new Object(); "
-        + "  private static Object foo() { return o; }"
+        + "  static Object foo() { return o; }"
         + "  void test() { A.foo(); }"
         + "  private void test2() {}"
         + "  void use() { test2(); }}",
@@ -318,10 +337,35 @@ public class FunctionizerTest extends GenerationTest {
     assertTranslatedLines(translation, "void A_test2(A *self) {", "}");
   }
 
+  public void testClassInitializerNotCalledFromPrivateFunction() throws IOException {
+    String translation = translateSourceFile(
+        "class A { static Object o = new Object(); "
+        + "  private static Object foo() { return o; }"
+        + "  private static Object bar() { return o; }"
+        + "  void test() { foo(); bar(); }"
+        + "  static class B { Object test() { return bar(); } } }",
+        "A", "A.m");
+    // Only called by A, so A is already initialized.
+    assertTranslatedLines(translation, "id A_foo() {", "return A_o;", "}");
+    // Also called by A.B, which doesn't initialize A.
+    assertTranslatedLines(translation, "id A_bar() {", "A_initialize();", "return A_o;", "}");
+  }
+
+  public void testClassInitializerCalledFromPrivateFunctionWithNativeCode() throws IOException {
+    String translation = translateSourceFile(
+        "class A { static Object o = new Object(); "
+        + "  private static Object foo() { return o; }"
+        + "  void test() { foo(); }"
+        + "  static class B { native Object test() /*-[ return A_foo(); ]-*/; } }",
+        "A", "A.m");
+    // Native code of A.B may call the function before A is initialized.
+    assertTranslatedLines(translation, "id A_foo() {", "A_initialize();", "return A_o;", "}");
+  }
+
   public void testClassInitializerCalledFromEnumFunctions() throws IOException {
     String translation = translateSourceFile(
         "enum A { A, B; static Object o = new Object(); "
-        + "  private static Object foo() { return o; }"
+        + "  static Object foo() { return o; }"
         + "  void test() { A.foo(); }"
         + "  private void test2() {}"
         + "  void use() { test2(); }}",
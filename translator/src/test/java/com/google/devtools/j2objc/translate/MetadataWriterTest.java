@@ -15,8 +15,12 @@
 package com.google.devtools.j2objc.translate;
 
 import com.google.devtools.j2objc.GenerationTest;
+import com.google.devtools.j2objc.util.CodeReferenceMap;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
 
 /**
  * Unit tests for {@link MetadataWriter}.
@@ -300,4 +304,39 @@ public class MetadataWriterTest extends GenerationTest {
         "interface Test<T> extends com.google.j2objc.NSFastEnumeration {}", "Test", "Test.m");
     assertNotInTranslation(translation, "NSFastEnumeration");
   }
+
+  // Verify that only listed classes get method, field and annotation metadata.
+  public void testMetadataReport() throws IOException {
+    options.setMetadataReport(true);
+    translateSourceFile("class Test { int f; void m() {} }", "Test", "Test.m");
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    options.metadataReport().print(new PrintStream(out, true, StandardCharsets.UTF_8));
+    String report = out.toString(StandardCharsets.UTF_8);
+    assertTranslation(report, "(2 methods, 1 fields, 0 annotation functions)");
+    assertTranslation(report, "in 1 classes");
+  }
+
+  public void testReflectedClasses() throws IOException {
+    options.setReflectedClasses(CodeReferenceMap.builder().addClass("Test$Reflected").build());
+    String translation = translateSourceFile(
+        "class Test { int f; Test() {} Test(int i) {} @Deprecated void m() {} "
+        + "  static class Reflected { int g; } "
+        + "  static class Serialized implements java.io.Serializable { int h; } "
+        + "  enum E { A, B } }",
+        "Test", "Test.m");
+    // Only the no-arg constructor is kept, for Class.newInstance().
+    assertTranslation(translation,
+        "static const J2ObjcClassInfo _Test = { \"Test\", NULL, ptrTable, methods, NULL, "
+        + Integer.toString(MetadataWriter.METADATA_VERSION) + ", 0x0, 1, 0, ");
+    assertTranslation(translation, "methods[0].selector = @selector(init);");
+    assertNotInTranslation(translation, "@selector(initWithInt:)");
+    assertNotInTranslation(translation, "@selector(m)");
+    assertNotInTranslation(translation, "\"f_\"");
+    assertNotInTranslation(translation, "Test__Annotations$");
+    assertTranslation(translation, "{ \"g_\", \"I\"");
+    assertTranslation(translation, "{ \"h_\", \"I\"");
+    // Enum constants are always kept, since the runtime looks them up by ordinal.
+    assertTranslation(translation, "{ \"A\", \"LTest_E;\"");
+    assertTranslation(translation, "{ \"B\", \"LTest_E;\"");
+  }
 }
@@ -16,7 +16,10 @@ package com.google.devtools.j2objc.translate;
 
 import com.google.devtools.j2objc.GenerationTest;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
 
 /**
  * Tests for {@link NilCheckResolver}.
@@ -355,4 +358,45 @@ public class NilCheckResolverTest extends GenerationTest {
     assertTranslation(translation, "@throw nil_chk(e);");
     assertTranslation(translation, "@throw create_JavaLangRuntimeException_init();");
   }
+
+  public void testInferredNonnullFieldsAndReturns() throws IOException {
+    String translation = translateSourceFile(
+        "class Test { private final Object o; private final Object p;"
+        + " Test(boolean b) { o = new Object(); p = b ? \"a\" : null; } Test() { this(true); }"
+        + " private static String name(int i) { return i > 0 ? \"pos\" : name(-i) + \"!\"; }"
+        + " Object get() { return new Object(); }"
+        + " void test() { o.toString(); p.toString(); name(1).toString(); get().toString(); } }",
+        "Test", "Test.m");
+    assertTranslatedLines(translation,
+        "[o_ description];",
+        "[nil_chk(p_) description];",
+        "[Test_nameWithInt_(1) description];",
+        // get() may be overridden.
+        "[nil_chk([self get]) description];");
+  }
+
+  public void testNoInferenceForFieldAssignedAfterEscape() throws IOException {
+    String translation = translateSourceFile(
+        "class Test { final Object a; final Object b;"
+        + " Test() { a = new Object(); foo(); b = new Object(); } void foo() {}"
+        + " void test() { a.toString(); b.toString(); } }",
+        "Test", "Test.m");
+    // foo() could read b before it's assigned.
+    assertTranslatedLines(translation,
+        "[a_ description];",
+        "[nil_chk(b_) description];");
+  }
+
+  public void testNilCheckReport() throws IOException {
+    options.setNilCheckReport(true);
+    translateSourceFile(
+        "class Test { private final Object o = new Object(); Object get() { return o; }"
+        + " void test() { o.toString(); get().toString(); } }",
+        "Test", "Test.m");
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    options.nilCheckReport().print(new PrintStream(out, true, StandardCharsets.UTF_8));
+    String report = out.toString(StandardCharsets.UTF_8);
+    assertTranslation(report, "Test.java: 1 nil_chk calls, 1 removed by nullness inference");
+    assertTranslation(report, "1 nil_chk calls in 1 sources, 1 removed by nullness inference");
+  }
 }
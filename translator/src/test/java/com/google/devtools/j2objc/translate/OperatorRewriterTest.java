@@ -169,6 +169,28 @@ public class OperatorRewriterTest extends GenerationTest {
     assertTranslation(translation, "JreStrAppend(&str, \"$I\", @\"bar\", x);");
   }
 
+  public void testStringBuilderToString() throws IOException {
+    String translation = translateSourceFile(
+        "class Test { String test(int i, double d, String s, Object o) { "
+        + "return new StringBuilder(\"foo\").append(i).append('c').append(\"bar\").append(d)"
+        + ".append(s).append(o).toString(); } }", "Test", "Test.m");
+    assertTranslation(translation,
+        "return JreStrcat(\"$I$D$@\", @\"foo\", i, @\"cbar\", d, s, o);");
+    assertNotInTranslation(translation, "JavaLangStringBuilder");
+  }
+
+  public void testStringBuilderAppendChain() throws IOException {
+    String translation = translateSourceFile(
+        "class Test { String test(String[] parts, int n) { "
+        + "StringBuilder sb = new StringBuilder(); "
+        + "for (String part : parts) { sb.append(part).append(':').append(n); } "
+        + "sb.append(n).append(toString()); "
+        + "return sb.toString(); } }", "Test", "Test.m");
+    assertTranslation(translation, "JreStrAppendBuilder(sb, \"$CI\", part, ':', n);");
+    // The builder could be modified while evaluating the later arguments.
+    assertTranslation(translation, "appendWithInt:n])) appendWithNSString:[self description]];");
+  }
+
   public void testRetainedWithAnnotation() throws IOException {
     String translation = translateSourceFile(
         "import com.google.j2objc.annotations.RetainedWith;"
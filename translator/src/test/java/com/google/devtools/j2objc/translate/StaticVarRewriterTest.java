@@ -32,7 +32,7 @@ public class StaticVarRewriterTest extends GenerationTest {
         "Test", "Test.m");
     assertTranslatedLines(translation,
         "[nil_chk(((Test *) nil_chk(JreLoadStatic(Test, test)))->obj_) description];",
-        "[nil_chk(((Test *) nil_chk(JreLoadStatic(Test, test)))->obj_) description];");
+        "[nil_chk(((Test *) nil_chk(Test_test))->obj_) description];");
   }
 
   public void testAssinmentToNewObject() throws IOException {
@@ -61,11 +61,12 @@ public class StaticVarRewriterTest extends GenerationTest {
         + " static Test getTest() { return null; } "
         + " static void test() { Test t = new Test(); int a = t.i; int b = getTest().i; "
         + " int c = getTest().i++; int d = getTest().i = 6; } } }", "Test", "Test.m");
+    // Test is initialized by the load in the first statement, so later loads don't check it.
     assertTranslatedLines(translation,
         "jint a = JreLoadStatic(Test, i);",
-        "jint b = (Test_Inner_getTest(), JreLoadStatic(Test, i));",
-        "jint c = (*(Test_Inner_getTest(), JreLoadStaticRef(Test, i)))++;",
-        "jint d = *(Test_Inner_getTest(), JreLoadStaticRef(Test, i)) = 6;");
+        "jint b = (Test_Inner_getTest(), Test_i);",
+        "jint c = (*(Test_Inner_getTest(), &Test_i))++;",
+        "jint d = *(Test_Inner_getTest(), &Test_i) = 6;");
   }
 
   public void testStaticLoadWithArrayAccess() throws IOException {
@@ -75,8 +76,8 @@ public class StaticVarRewriterTest extends GenerationTest {
         "Test", "Test.m");
     assertTranslatedLines(translation,
         "*IOSIntArray_GetRef(nil_chk(JreLoadStatic(Test_Inner, ints)), 0) = 1;",
-        "*IOSIntArray_GetRef(JreLoadStatic(Test_Inner, ints), 0) += 2;",
-        "return IOSIntArray_Get(JreLoadStatic(Test_Inner, ints), 0);");
+        "*IOSIntArray_GetRef(Test_Inner_ints, 0) += 2;",
+        "return IOSIntArray_Get(Test_Inner_ints, 0);");
   }
 
   // Verify that Class.CONSTANT_FIELD.CONSTANT translates correctly.
@@ -88,4 +89,32 @@ public class StaticVarRewriterTest extends GenerationTest {
         + "int test() { return BarHolder.BAR.N; }}", "Foo", "Foo.m");
     assertTranslatedLines(translation, "- (jint)test {", "return Bar_N;");
   }
+
+  public void testDominatedStaticLoads() throws IOException {
+    addSourceFile("class A { static int i; static int j; }", "A.java");
+    String translation = translateSourceFile(
+        "class Test { int test(boolean b) { "
+        + "  if (b && A.i > 0) { return A.j; } "
+        + "  int k = A.i + A.j; "
+        + "  while (b) { k += A.j; } "
+        + "  return k + A.i; } }", "Test", "Test.m");
+    assertTranslatedLines(translation,
+        "if (b && JreLoadStatic(A, i) > 0) {",
+        "  return JreLoadStatic(A, j);",
+        "}",
+        "jint k = JreLoadStatic(A, i) + JreLoadStatic(A, j);",
+        "while (b) {",
+        "  k += A_j;",
+        "}",
+        "return k + A_i;");
+  }
+
+  public void testSuperclassStaticVar() throws IOException {
+    addSourceFile("class A { static Object o; }", "A.java");
+    String translation = translateSourceFile(
+        "class Test extends A { Object test() { return o; } "
+        + "  static class Inner { Object test() { return o; } } }", "Test", "Test.m");
+    assertTranslatedLines(translation, "- (id)test {", "return A_o;");
+    assertTranslation(translation, "return JreLoadStatic(A, o);");
+  }
 }
@@ -150,6 +150,50 @@ public class SwitchRewriterTest extends GenerationTest {
         "}");
   }
 
+  // Verify that string switches with many cases are dispatched by hash code.
+  public void testHashedStringSwitchStatement() throws IOException {
+    String translation = translateSourceFile(
+        "public class Test { "
+        + "static final String SEVEN = \"seven\";"
+        + "int test(String s) { "
+        + "  switch(s) {"
+        + "    case \"zero\": return 0;"
+        + "    case \"one\": return 1;"
+        + "    case \"two\": return 2;"
+        + "    case \"three\": return 3;"
+        + "    case \"four\": return 4;"
+        + "    case \"five\": return 5;"
+        + "    case \"six\": return 6;"
+        + "    case SEVEN: return 7;"
+        + "    default: return -1;"
+        + "  }}}",
+        "Test", "Test.m");
+    assertTranslatedLines(translation,
+        "switch (JreIndexOfStrHashed(s, (id[]){ @\"one\", @\"six\", @\"two\", @\"five\", "
+            + "@\"four\", @\"zero\", Test_SEVEN, @\"three\" }, "
+            + "(jint[]){ 110182, 113890, 115276, 3143346, 3149094, 3735208, 109330445, "
+            + "110339486 }, 8)) {",
+        "  case 5:",
+        "  return 0;",
+        "  case 0:",
+        "  return 1;",
+        "  case 2:",
+        "  return 2;",
+        "  case 7:",
+        "  return 3;",
+        "  case 4:",
+        "  return 4;",
+        "  case 3:",
+        "  return 5;",
+        "  case 1:",
+        "  return 6;",
+        "  case 6:",
+        "  return 7;",
+        "  default:",
+        "  return -1;",
+        "}");
+  }
+
   /**
    * Verify that when a the last switch case is empty (no statement),
    * an empty statement is added.  Java doesn't require an empty statement
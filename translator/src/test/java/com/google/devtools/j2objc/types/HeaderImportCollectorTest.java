@@ -15,8 +15,11 @@
 package com.google.devtools.j2objc.types;
 
 import com.google.devtools.j2objc.GenerationTest;
+import com.google.devtools.j2objc.gen.GeneratedType;
 
 import java.io.IOException;
+import java.util.HashSet;
+import java.util.Set;
 
 /**
  * Unit tests for the {@link HeaderImportCollector} class.
@@ -57,4 +60,31 @@ public class HeaderImportCollectorTest extends GenerationTest {
     // because the method is private.
     assertNotInTranslation(translation, "Runnable");
   }
+
+  public void testPublicAndPrivateDeclarationImports() throws IOException {
+    String source =
+        "class Test { private void test1(Runnable r) {} public void test2(Thread t) {} }";
+    String translation = translateSourceFile(source, "Test", "Test.h");
+    assertTranslation(translation, "@class JavaLangThread;");
+    assertNotInTranslation(translation, "Runnable");
+
+    // Test.m includes Runnable.h for the method body, which hides the forward
+    // declaration, so check that the private declaration collected it.
+    GeneratedType generatedType =
+        GeneratedType.fromTypeDeclaration(translateType("Test", source).getTypes().get(0));
+    Set<String> privateForwards = typeNames(generatedType.getImplementationForwardDeclarations());
+    assertTrue(privateForwards.contains("JavaLangRunnable"));
+    assertFalse(privateForwards.contains("JavaLangThread"));
+    Set<String> publicForwards = typeNames(generatedType.getHeaderForwardDeclarations());
+    assertTrue(publicForwards.contains("JavaLangThread"));
+    assertFalse(publicForwards.contains("JavaLangRunnable"));
+  }
+
+  private static Set<String> typeNames(Set<Import> imports) {
+    Set<String> names = new HashSet<>();
+    for (Import imp : imports) {
+      names.add(imp.getTypeName());
+    }
+    return names;
+  }
 }
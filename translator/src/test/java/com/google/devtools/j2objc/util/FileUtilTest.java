@@ -15,7 +15,9 @@
 package com.google.devtools.j2objc.util;
 
 import com.google.devtools.j2objc.GenerationTest;
+import com.google.devtools.j2objc.file.InputFile;
 import com.google.devtools.j2objc.file.JarredInputFile;
+import com.google.devtools.j2objc.file.RegularInputFile;
 import java.io.File;
 import java.io.IOException;
 import java.util.zip.ZipFile;
@@ -46,6 +48,34 @@ public class FileUtilTest extends GenerationTest {
     assertTrue(jarEntry.exists());
   }
   
+  // Verify that the path index finds jar entries, and sees path changes.
+  public void testFindTypeOnSourcePathJar() throws IOException {
+    String jarPath = getResourceAsFile("example.jar");
+    FileUtil fileUtil = options.fileUtil();
+    assertNull(fileUtil.findTypeOnSourcePath("com.google.test.package-info"));
+
+    fileUtil.getSourcePathEntries().add(jarPath);
+    InputFile file = fileUtil.findTypeOnSourcePath("com.google.test.package-info");
+    assertTrue(file instanceof JarredInputFile);
+    assertEquals(jarPath, file.getAbsolutePath());
+    assertEquals("com/google/test/package-info.java", file.getUnitName());
+    assertNull(fileUtil.findTypeOnSourcePath("com.google.test.Missing"));
+  }
+
+  // Verify that directories that precede a jar on the path take precedence.
+  public void testFindFileOnSourcePathOrder() throws IOException {
+    String jarPath = getResourceAsFile("example.jar");
+    addSourceFile("package com.google.test;", "com/google/test/package-info.java");
+    FileUtil fileUtil = options.fileUtil();
+    fileUtil.getSourcePathEntries().add(jarPath);
+    InputFile file = fileUtil.findFileOnSourcePath("com/google/test/package-info.java");
+    assertTrue(file instanceof RegularInputFile);
+
+    fileUtil.getSourcePathEntries().add(0, jarPath);
+    file = fileUtil.findFileOnSourcePath("com/google/test/package-info.java");
+    assertTrue(file instanceof JarredInputFile);
+  }
+
   // Verify that a classes.jar file is extracted from an Android AAR file.
   public void testExtractClassesJarFromAarFile() throws IOException {
     File aarFile = new File(getResourceAsFile("hello.aar"));
@@ -0,0 +1,61 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.devtools.j2objc.util;
+
+import com.google.common.io.Files;
+import com.google.devtools.j2objc.GenerationTest;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Tests for {@link TimingProfile}.
+ */
+public class TimingProfileTest extends GenerationTest {
+
+  public void testTickerEvents() throws IOException {
+    File profileFile = new File(tempDir, "profile.json");
+    options.setTimingProfile(new TimingProfile(profileFile));
+    for (String unit : new String[] { "A.java", "B.java" }) {
+      TimeTracker ticker = TimeTracker.getTicker(unit, options);
+      ticker.push();
+      ticker.tick("Pass \"one\"");
+      ticker.tick("Pass two");
+      ticker.pop();
+      ticker.tick("Tree mutations");
+    }
+    options.timingProfile().write();
+
+    String profile = Files.asCharSource(profileFile, StandardCharsets.UTF_8).read();
+    assertTrue(profile.startsWith("{\"displayTimeUnit\":\"ms\",\"traceEvents\":["));
+    assertOccurrences(profile, "\"name\":\"Pass \\\"one\\\"\",\"cat\":\"j2objc\",\"ph\":\"X\"", 2);
+    assertOccurrences(profile, "\"args\":{\"unit\":\"A.java\"", 3);
+    assertOccurrences(profile, "\"args\":{\"unit\":\"B.java\"", 3);
+    assertTranslation(profile, "],\"passSummary\":[");
+    assertTranslation(profile, "{\"name\":\"Tree mutations\",\"count\":2,\"totalMs\":");
+    assertTranslation(profile, "{\"name\":\"Pass two\",\"count\":2,\"totalMs\":");
+  }
+
+  public void testTranslationPhases() throws IOException {
+    File profileFile = new File(tempDir, "profile.json");
+    options.setTimingProfile(new TimingProfile(profileFile));
+    translateSourceFile("class Test { int foo() { return 42; } }", "Test", "Test.h");
+    options.timingProfile().write();
+
+    String profile = Files.asCharSource(profileFile, StandardCharsets.UTF_8).read();
+    assertTranslation(profile, "{\"name\":\"Header generation\",\"count\":1,");
+    assertTranslation(profile, "{\"name\":\"Implementation generation\",\"count\":1,");
+  }
+}
@@ -60,6 +60,7 @@ class Options {
   private boolean treatWarningsAsErrors = false;
   private File treeShakerRoots;
   private File outputFile = new File("tree-shaker-report.txt");
+  private File effectivelyFinalMethodsFile;
 
   // The default source version number if not passed with -source is determined from the system
   // properties of the running java version after parsing the argument list.
@@ -105,6 +106,14 @@ class Options {
     return outputFile;
   }
 
+  public File getEffectivelyFinalMethodsFile() {
+    return effectivelyFinalMethodsFile;
+  }
+
+  public void setEffectivelyFinalMethodsFile(File effectivelyFinalMethodsFile) {
+    this.effectivelyFinalMethodsFile = effectivelyFinalMethodsFile;
+  }
+
   private void addManifest(String manifestFile) throws IOException {
     BufferedReader in = new BufferedReader(new FileReader(new File(manifestFile)));
     try {
@@ -182,6 +191,11 @@ class Options {
           usage("--output-file");
         }
         options.outputFile = new File(args[nArg]);
+      } else if (arg.equals("--effectively-final-methods")) {
+        if (++nArg == args.length) {
+          usage("--effectively-final-methods requires an argument");
+        }
+        options.effectivelyFinalMethodsFile = new File(args[nArg]);
       } else if (arg.startsWith(XBOOTCLASSPATH)) {
         // TODO(malvania): Enable the bootclasspath option when we have a class file AST
         //                 parser that can use class jars.
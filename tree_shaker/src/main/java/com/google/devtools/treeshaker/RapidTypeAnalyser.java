@@ -17,7 +17,11 @@ package com.google.devtools.treeshaker;
 import com.google.common.base.Splitter;
 import com.google.devtools.j2objc.util.CodeReferenceMap;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 final class RapidTypeAnalyser {
 
@@ -57,6 +61,52 @@ final class RapidTypeAnalyser {
     return crmBuilder.build();
   }
 
+  /**
+   * Returns the instance methods that no subtype in the program overrides, so
+   * calls to them can be bound statically. A subtype's method with the same
+   * name is treated as an override whatever its signature, since overrides of
+   * generic methods can have different erased signatures.
+   */
+  static CodeReferenceMap findEffectivelyFinalMethods(List<LibraryInfo> libraryInfos) {
+    Collection<Type> types = TypeGraphBuilder.build(libraryInfos);
+    Map<Type, Set<String>> subtypeMethodNames = new HashMap<>();
+    CodeReferenceMap.Builder crmBuilder = CodeReferenceMap.builder();
+    for (Type type : types) {
+      Set<String> overridden = new HashSet<>();
+      for (Type subtype : type.getImmediateSubtypes()) {
+        overridden.addAll(getMethodNames(subtype, subtypeMethodNames));
+      }
+      for (Member member : type.getMembers()) {
+        if (!member.isPolymorphic()) {
+          continue;
+        }
+        List<String> components =
+            Splitter.onPattern(UsedCodeMarker.SIGNATURE_PREFIX).splitToList(member.getName());
+        if (components.size() == 2 && !overridden.contains(components.get(0))) {
+          crmBuilder.addMethod(type.getName(), components.get(0), components.get(1));
+        }
+      }
+    }
+    return crmBuilder.build();
+  }
+
+  // Returns the names of the methods declared by the type and its subtypes.
+  private static Set<String> getMethodNames(Type type, Map<Type, Set<String>> cache) {
+    Set<String> names = cache.get(type);
+    if (names == null) {
+      names = new HashSet<>();
+      for (Member member : type.getMembers()) {
+        names.add(Splitter.onPattern(UsedCodeMarker.SIGNATURE_PREFIX)
+            .splitToList(member.getName()).get(0));
+      }
+      for (Type subtype : type.getImmediateSubtypes()) {
+        names.addAll(getMethodNames(subtype, cache));
+      }
+      cache.put(type, names);
+    }
+    return names;
+  }
+
   private static void onMemberReference(Member member) {
     if (member.isPolymorphic()) {
       traversePolymorphicReference(member.getDeclaringType(), member.getName());
@@ -30,15 +30,23 @@ import java.io.BufferedWriter;
 import java.io.File;
 import java.io.IOException;
 import java.nio.charset.Charset;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 
 /**
  * A tool for finding unused code in a Java program.
  */
 public class TreeShaker {
+  private static final String PRIMITIVE_DESCRIPTORS = "BCDFIJSZV";
+  private static final String[] PRIMITIVE_TYPES = {
+    "byte", "char", "double", "float", "int", "long", "short", "boolean", "void"
+  };
+
   private final Options options;
   private final com.google.devtools.j2objc.Options j2objcOptions;
+  private LibraryInfo libraryInfo;
 
   static {
     // Enable assertions in the tree shaker.
@@ -131,8 +139,10 @@ public class TreeShaker {
     return strippedDir;
   }
 
-  @VisibleForTesting
-  CodeReferenceMap findUnusedCode() throws IOException {
+  private LibraryInfo getLibraryInfo() throws IOException {
+    if (libraryInfo != null) {
+      return libraryInfo;
+    }
     UsedCodeMarker.Context context = new UsedCodeMarker.Context(
         ProGuardUsageParser.parseDeadCodeFile(options.getTreeShakerRoots()));
     Parser parser = createParser(options);
@@ -149,7 +159,26 @@ public class TreeShaker {
     if (ErrorUtil.errorCount() > 0) {
       return null;
     }
-    return RapidTypeAnalyser.analyse(Arrays.asList(context.getLibraryInfo()), false);
+    libraryInfo = context.getLibraryInfo();
+    return libraryInfo;
+  }
+
+  @VisibleForTesting
+  CodeReferenceMap findUnusedCode() throws IOException {
+    LibraryInfo info = getLibraryInfo();
+    if (info == null) {
+      return null;
+    }
+    return RapidTypeAnalyser.analyse(Arrays.asList(info), false);
+  }
+
+  @VisibleForTesting
+  CodeReferenceMap findEffectivelyFinalMethods() throws IOException {
+    LibraryInfo info = getLibraryInfo();
+    if (info == null) {
+      return null;
+    }
+    return RapidTypeAnalyser.findEffectivelyFinalMethods(Arrays.asList(info));
   }
 
   private void writeToFile(CodeReferenceMap unused) {
@@ -169,6 +198,57 @@ public class TreeShaker {
     }
   }
 
+  /**
+   * Writes the methods as a ProGuard usage listing, which the translator reads
+   * with its -Xeffectively-final-methods flag.
+   */
+  private void writeMethodListing(CodeReferenceMap methods, File file) {
+    try (BufferedWriter writer = Files.newWriter(file, Charset.defaultCharset())) {
+      for (Map.Entry<String, Map<String, ImmutableSet<String>>> clazz :
+               methods.getReferencedMethods().rowMap().entrySet()) {
+        writer.write(clazz.getKey() + ":\n");
+        for (Map.Entry<String, ImmutableSet<String>> method : clazz.getValue().entrySet()) {
+          for (String signature : method.getValue()) {
+            writer.write("    " + toProGuardMethod(method.getKey(), signature) + "\n");
+          }
+        }
+      }
+    } catch (IOException e) {
+      ErrorUtil.error(e.getMessage());
+    }
+  }
+
+  /**
+   * Converts a method descriptor to ProGuard's "returnType name(paramTypes)" form.
+   */
+  @VisibleForTesting
+  static String toProGuardMethod(String name, String signature) {
+    List<String> types = new ArrayList<>();
+    int i = 0;
+    while (i < signature.length()) {
+      char c = signature.charAt(i++);
+      if (c == '(' || c == ')') {
+        continue;
+      }
+      int dimensions = 0;
+      while (c == '[') {
+        dimensions++;
+        c = signature.charAt(i++);
+      }
+      String type;
+      if (c == 'L') {
+        int end = signature.indexOf(';', i);
+        type = signature.substring(i, end).replace('/', '.');
+        i = end + 1;
+      } else {
+        type = PRIMITIVE_TYPES[PRIMITIVE_DESCRIPTORS.indexOf(c)];
+      }
+      types.add(type + Strings.repeat("[]", dimensions));
+    }
+    String returnType = types.remove(types.size() - 1);
+    return returnType + " " + name + "(" + String.join(",", types) + ")";
+  }
+
   public static void main(String[] args) {
     if (args.length == 0) {
       Options.help(true);
@@ -181,6 +261,12 @@ public class TreeShaker {
       finder.testFileExistence();
       exitOnErrorsOrWarnings(treatWarningsAsErrors);
       finder.writeToFile(finder.findUnusedCode());
+      if (options.getEffectivelyFinalMethodsFile() != null) {
+        CodeReferenceMap effectivelyFinal = finder.findEffectivelyFinalMethods();
+        if (effectivelyFinal != null) {
+          finder.writeMethodListing(effectivelyFinal, options.getEffectivelyFinalMethodsFile());
+        }
+      }
     } catch (IOException e) {
       ErrorUtil.error(e.getMessage());
     }
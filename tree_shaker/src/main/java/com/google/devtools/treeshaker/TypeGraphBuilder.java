@@ -61,8 +61,12 @@ class TypeGraphBuilder {
       int extendsId = typeInfo.getExtendsType();
       if (extendsId != OBJECT_TYPE) {
         Type superClass = typesByName.get(libraryInfo.getTypeMap(extendsId));
-        superClass.addImmediateSubtype(type);
-        type.setSuperClass(superClass);
+        if (superClass != null) {
+          superClass.addImmediateSubtype(type);
+          type.setSuperClass(superClass);
+        } else {
+          externalTypeReferences.add(libraryInfo.getTypeMap(extendsId));
+        }
       }
 
       for (int implementsId : typeInfo.getImplementsTypeList()) {
@@ -29,6 +29,7 @@ import com.google.devtools.j2objc.ast.UnitTreeVisitor;
 import com.google.devtools.j2objc.ast.VariableDeclarationFragment;
 import com.google.devtools.j2objc.util.CodeReferenceMap;
 import com.google.devtools.j2objc.util.ElementUtil;
+import com.google.devtools.j2objc.util.TypeUtil;
 import java.lang.reflect.Modifier;
 import java.util.ArrayDeque;
 import java.util.Deque;
@@ -64,8 +65,10 @@ final class UsedCodeMarker extends UnitTreeVisitor {
 
   @Override
   public boolean visit(TypeDeclaration node) {
-    context.startType(
-        getClassName(node.getTypeElement()), node.getTypeElement().getSuperclass().toString());
+    TypeMirror superclass = node.getTypeElement().getSuperclass();
+    context.startType(getClassName(node.getTypeElement()),
+        TypeUtil.isNone(superclass)
+            ? OBJECT_TYPE_NAME : getClassName(TypeUtil.asTypeElement(superclass)));
     return true;
   }
 
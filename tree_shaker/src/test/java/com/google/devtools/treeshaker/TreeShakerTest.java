@@ -52,19 +52,32 @@ public class TreeShakerTest extends TestCase {
     ErrorUtil.reset();
   }
 
-  private CodeReferenceMap findUnusedCode() throws IOException {
+  private TreeShaker createTreeShaker() throws IOException {
     Options options = new Options();
     options.setClasspath(System.getProperty(JAVA_CLASS_PATH.value()));
     options.setTreeShakerRoots(treeShakerRoots);
     options.setSourceFiles(inputFiles);
-    TreeShaker shaker = new TreeShaker(options);
-    CodeReferenceMap unused = shaker.findUnusedCode();
+    return new TreeShaker(options);
+  }
+
+  private static void checkErrors() {
     if (ErrorUtil.errorCount() > 0) {
       fail("TreeShaker failed with errors:\n" + Joiner.on("\n").join(ErrorUtil.getErrorMessages()));
     }
+  }
+
+  private CodeReferenceMap findUnusedCode() throws IOException {
+    CodeReferenceMap unused = createTreeShaker().findUnusedCode();
+    checkErrors();
     return unused;
   }
 
+  private CodeReferenceMap findEffectivelyFinalMethods() throws IOException {
+    CodeReferenceMap methods = createTreeShaker().findEffectivelyFinalMethods();
+    checkErrors();
+    return methods;
+  }
+
   public void testNoPublicRootSet() throws IOException {
     addTreeShakerRootsFile("ProGuard, version 4.0\n");
     addSourceFile("A.java", "class A { public static void launch() { new B().b(\"zoo\"); } }");
@@ -96,6 +109,33 @@ public class TreeShakerTest extends TestCase {
     assertTrue(unused.containsMethod("C", "c", "(Ljava/lang/String;)V"));
   }
 
+  public void testEffectivelyFinalMethods() throws IOException {
+    addTreeShakerRootsFile("ProGuard, version 4.0\n");
+    addSourceFile("A.java", "class A { void a() {} void b() {} void c() {} }");
+    addSourceFile("B.java",
+        "class B extends A { void b() {} static A create() { return new A() { void c() {} }; } }");
+    addSourceFile("G.java", "class G<T> { void put(T t) {} }");
+    addSourceFile("H.java", "class H extends G<String> { void put(String s) {} }");
+    CodeReferenceMap methods = findEffectivelyFinalMethods();
+
+    assertTrue(methods.containsMethod("A", "a", "()V"));
+    assertFalse(methods.containsMethod("A", "b", "()V"));
+    // Overridden by an anonymous class.
+    assertFalse(methods.containsMethod("A", "c", "()V"));
+    assertTrue(methods.containsMethod("B", "b", "()V"));
+    assertFalse(methods.containsMethod("B", "create", "()LA;"));
+    // Overridden with a different erased signature.
+    assertFalse(methods.containsMethod("G", "put", "(Ljava/lang/Object;)V"));
+    assertTrue(methods.containsMethod("H", "put", "(Ljava/lang/String;)V"));
+  }
+
+  public void testProGuardMethodFormat() {
+    assertEquals("void put(java.lang.String,int[][])",
+        TreeShaker.toProGuardMethod("put", "(Ljava/lang/String;[[I)V"));
+    assertEquals("java.lang.Object[] get()",
+        TreeShaker.toProGuardMethod("get", "()[Ljava/lang/Object;"));
+  }
+
   private void addTreeShakerRootsFile(String source) throws IOException {
     treeShakerRoots = new File(tempDir, "roots.cfg");
     treeShakerRoots.getParentFile().mkdirs();